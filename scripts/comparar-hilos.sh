@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Compara rendimiento y latencia con hilos de plataforma (Tomcat con 200 hilos) y con hilos virtuales
+# (perfil hilos-virtuales) bajo 1000 clientes concurrentes. Cada modo se ejecuta con una grabación JFR.
+# Requiere MySQL en marcha: docker compose up -d mysql
+# Con AUTOCONTENIDO=1 usa carga/ServidorCarga (perfil carga: H2 en modo MySQL, SMTP local y datos sintéticos)
+# y no necesita MySQL; con H2 en memoria las consultas no esperan E/S, así que mide el costo de CPU de cada
+# modo y no la ventaja de los hilos virtuales cuando las peticiones esperan a la base de datos.
+#
+#   CLIENTES=1000 DURACION=PT60S scripts/comparar-hilos.sh
+#   AUTOCONTENIDO=1 CLIENTES=1000 scripts/comparar-hilos.sh
+#
+# Resultados: target/carga/resultados.jsonl (una línea por modo) y target/carga/<modo>.jfr.
+# Fijaciones de hilos virtuales: jfr print --events jdk.VirtualThreadPinned target/carga/virtual.jfr
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CLIENTES=${CLIENTES:-1000}
+DURACION=${DURACION:-PT60S}
+RUTA=${RUTA:-}
+PUERTO=${PUERTO:-8080}
+AUTOCONTENIDO=${AUTOCONTENIDO:-0}
+
+mkdir -p target/carga
+if [ "$AUTOCONTENIDO" = "1" ]; then
+  ./mvnw -q test-compile dependency:build-classpath \
+    -Dmdep.includeScope=test -Dmdep.outputFile=target/carga/classpath.txt
+  CLASSPATH="target/test-classes:target/classes:$(cat target/carga/classpath.txt)"
+  APLICACION=(-cp "$CLASSPATH" com.logistica.agendamiento.carga.ServidorCarga)
+else
+  ./mvnw -q -DskipTests package
+  APLICACION=(-jar "$(ls target/agendamiento-proveedores-*.jar | grep -v '\.original$' | head -n 1)")
+fi
+
+for modo in plataforma virtual; do
+  perfil=""
+  if [ "$modo" = "virtual" ]; then
+    perfil="--spring.profiles.active=hilos-virtuales"
+  fi
+
+  rm -rf target/carga/archivos
+  java -XX:StartFlightRecording=filename=target/carga/$modo.jfr,settings=profile \
+       "${APLICACION[@]}" --server.port="$PUERTO" --spring.jpa.show-sql=false $perfil \
+       > target/carga/$modo.log 2>&1 &
+  pid=$!
+  trap 'kill $pid 2>/dev/null || true' EXIT
+
+  until curl -sf "http://localhost:$PUERTO/actuator/health" > /dev/null; do
+    if ! kill -0 $pid 2>/dev/null; then
+      echo "La aplicación no arrancó en modo $modo; ver target/carga/$modo.log" >&2
+      exit 1
+    fi
+    sleep 1
+  done
+
+  ./mvnw -q -Pcarga test-compile exec:java \
+    -Dcarga.url="http://localhost:$PUERTO" \
+    -Dcarga.clientes="$CLIENTES" \
+    -Dcarga.duracion="$DURACION" \
+    -Dcarga.etiqueta="$modo" \
+    ${RUTA:+-Dcarga.ruta="$RUTA"}
+
+  kill $pid
+  wait $pid 2>/dev/null || true
+  trap - EXIT
+done
+
+echo
+echo "Comparación (target/carga/resultados.jsonl):"
+tail -n 2 target/carga/resultados.jsonl
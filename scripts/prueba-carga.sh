@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Prueba de carga autocontenida: arranca la aplicación con el perfil carga (H2 en modo MySQL, servidor SMTP
+# local y datos sintéticos de varios meses), ejecuta la mezcla de operaciones de EscenarioCarga y la detiene.
+# No necesita MySQL ni Docker.
+#
+#   CLIENTES=50 DURACION=PT60S scripts/prueba-carga.sh
+#
+# Resultados: target/carga/escenario.jsonl (una línea por ejecución con p50/p95/p99 por endpoint),
+# target/carga/servidor.jfr (grabación JFR del servidor) y target/carga/servidor.log.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CLIENTES=${CLIENTES:-50}
+CALENTAMIENTO=${CALENTAMIENTO:-PT15S}
+DURACION=${DURACION:-PT60S}
+ETIQUETA=${ETIQUETA:-escenario}
+PUERTO=${PUERTO:-8080}
+OPCIONES_JVM=${OPCIONES_JVM:-}
+
+mkdir -p target/carga
+rm -rf target/carga/archivos
+./mvnw -q test-compile dependency:build-classpath \
+  -Dmdep.includeScope=test -Dmdep.outputFile=target/carga/classpath.txt
+CLASSPATH="target/test-classes:target/classes:$(cat target/carga/classpath.txt)"
+
+# shellcheck disable=SC2086
+java -XX:StartFlightRecording=filename=target/carga/servidor.jfr,settings=profile $OPCIONES_JVM \
+     -cp "$CLASSPATH" com.logistica.agendamiento.carga.ServidorCarga --server.port="$PUERTO" \
+     > target/carga/servidor.log 2>&1 &
+pid=$!
+trap 'kill $pid 2>/dev/null || true' EXIT
+
+# La generación de datos termina antes de que la aplicación quede lista
+until curl -sf "http://localhost:$PUERTO/actuator/health" > /dev/null; do
+  if ! kill -0 $pid 2>/dev/null; then
+    echo "La aplicación no arrancó; ver target/carga/servidor.log" >&2
+    exit 1
+  fi
+  sleep 1
+done
+grep -h "Datos de carga generados" target/carga/servidor.log || true
+
+java -cp "$CLASSPATH" \
+     -Dcarga.url="http://localhost:$PUERTO" \
+     -Dcarga.clientes="$CLIENTES" \
+     -Dcarga.calentamiento="$CALENTAMIENTO" \
+     -Dcarga.duracion="$DURACION" \
+     -Dcarga.etiqueta="$ETIQUETA" \
+     com.logistica.agendamiento.carga.EscenarioCarga
+
+# Al detenerse, la JVM escribe la grabación JFR
+kill $pid
+wait $pid 2>/dev/null || true
+trap - EXIT
+echo "Grabación JFR: target/carga/servidor.jfr (jfr summary target/carga/servidor.jfr)"
@@ -0,0 +1,174 @@
+package com.logistica.agendamiento.agenda;
+
+import com.logistica.agendamiento.dto.HorarioReservadoDTO;
+import com.logistica.agendamiento.dto.IntervaloReservaDTO;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+// Reservas activas de un andén en un día, ordenadas por hora de inicio.
+// Es inmutable: cada cambio produce una nueva instancia, así las consultas no necesitan bloqueo.
+// Los tiempos se guardan en segundos del día y maxFin[i] es el mayor fin entre 0..i,
+// lo que permite cortar la búsqueda de solapamientos sin recorrer todos los tramos.
+// Además mantiene un mapa de bits con los minutos ocupados del día para el cálculo de disponibilidad.
+public final class AgendaAndenDia {
+
+    static final AgendaAndenDia VACIA = new AgendaAndenDia(new long[0], new int[0], new int[0]);
+
+    private final long[] ids;
+    private final int[] inicios;
+    private final int[] fines;
+    private final int[] maxFin;
+    private final BitSet minutosOcupados;
+
+    private AgendaAndenDia(long[] ids, int[] inicios, int[] fines) {
+        this.ids = ids;
+        this.inicios = inicios;
+        this.fines = fines;
+        this.maxFin = new int[fines.length];
+        this.minutosOcupados = new BitSet(MapaOcupacion.MINUTOS_DIA);
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < fines.length; i++) {
+            max = Math.max(max, fines[i]);
+            maxFin[i] = max;
+            minutosOcupados.set(inicios[i] / 60, fines[i] / 60 + 1);
+        }
+    }
+
+    static AgendaAndenDia de(List<IntervaloReservaDTO> intervalos) {
+        IntervaloReservaDTO[] ordenados = intervalos.toArray(new IntervaloReservaDTO[0]);
+        Arrays.sort(ordenados, Comparator.comparing(IntervaloReservaDTO::getHoraInicio));
+
+        long[] ids = new long[ordenados.length];
+        int[] inicios = new int[ordenados.length];
+        int[] fines = new int[ordenados.length];
+        for (int i = 0; i < ordenados.length; i++) {
+            ids[i] = ordenados[i].getId();
+            inicios[i] = ordenados[i].getHoraInicio().toSecondOfDay();
+            fines[i] = ordenados[i].getHoraFin().toSecondOfDay();
+        }
+        return new AgendaAndenDia(ids, inicios, fines);
+    }
+
+    // Los límites se consideran inclusivos: una reserva que termina a las 10:00 choca con otra que empieza a esa hora
+    public boolean tieneConflicto(LocalTime horaInicio, LocalTime horaFin, Long reservaExcluida) {
+        int inicio = horaInicio.toSecondOfDay();
+        int fin = horaFin.toSecondOfDay();
+
+        for (int i = ultimoConInicioHasta(fin); i >= 0 && maxFin[i] >= inicio; i--) {
+            if (fines[i] >= inicio && (reservaExcluida == null || ids[i] != reservaExcluida)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int tamano() {
+        return ids.length;
+    }
+
+    public List<HorarioReservadoDTO> horariosReservados() {
+        List<HorarioReservadoDTO> horarios = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            horarios.add(new HorarioReservadoDTO(LocalTime.ofSecondOfDay(inicios[i]), LocalTime.ofSecondOfDay(fines[i])));
+        }
+        return horarios;
+    }
+
+    // Segundos reservados entre dos segundos del día; las reservas que empiezan antes o terminan después se recortan
+    public long segundosReservados(int desde, int hasta) {
+        long total = 0;
+        for (int i = 0; i < ids.length; i++) {
+            total += Math.max(0, Math.min(fines[i], hasta) - Math.max(inicios[i], desde));
+        }
+        return total;
+    }
+
+    // Franja k: desde primerMinuto + k * granularidad hasta el inicio de la franja siguiente, ambos incluidos.
+    // Está libre si ninguno de esos minutos está ocupado, así dos franjas libres seguidas forman un tramo reservable.
+    public BitSet franjasLibres(int primerMinuto, int granularidad, int cantidad) {
+        BitSet libres = new BitSet(cantidad);
+        for (int k = 0; k < cantidad; k++) {
+            int desde = primerMinuto + k * granularidad;
+            int ocupado = minutosOcupados.nextSetBit(desde);
+            if (ocupado < 0 || ocupado > desde + granularidad) {
+                libres.set(k);
+            }
+        }
+        return libres;
+    }
+
+    AgendaAndenDia con(long reservaId, LocalTime horaInicio, LocalTime horaFin) {
+        AgendaAndenDia base = sin(reservaId);
+        int inicio = horaInicio.toSecondOfDay();
+        int posicion = base.ultimoConInicioHasta(inicio) + 1;
+
+        long[] nuevosIds = insertar(base.ids, posicion, reservaId);
+        int[] nuevosInicios = insertar(base.inicios, posicion, inicio);
+        int[] nuevosFines = insertar(base.fines, posicion, horaFin.toSecondOfDay());
+        return new AgendaAndenDia(nuevosIds, nuevosInicios, nuevosFines);
+    }
+
+    AgendaAndenDia sin(long reservaId) {
+        int posicion = -1;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == reservaId) {
+                posicion = i;
+                break;
+            }
+        }
+        if (posicion < 0) {
+            return this;
+        }
+        return new AgendaAndenDia(quitar(ids, posicion), quitar(inicios, posicion), quitar(fines, posicion));
+    }
+
+    // Índice del último tramo cuyo inicio es <= segundo, o -1 si no hay ninguno
+    private int ultimoConInicioHasta(int segundo) {
+        int bajo = 0;
+        int alto = inicios.length - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (inicios[medio] <= segundo) {
+                bajo = medio + 1;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return alto;
+    }
+
+    private static long[] insertar(long[] origen, int posicion, long valor) {
+        long[] destino = new long[origen.length + 1];
+        System.arraycopy(origen, 0, destino, 0, posicion);
+        destino[posicion] = valor;
+        System.arraycopy(origen, posicion, destino, posicion + 1, origen.length - posicion);
+        return destino;
+    }
+
+    private static int[] insertar(int[] origen, int posicion, int valor) {
+        int[] destino = new int[origen.length + 1];
+        System.arraycopy(origen, 0, destino, 0, posicion);
+        destino[posicion] = valor;
+        System.arraycopy(origen, posicion, destino, posicion + 1, origen.length - posicion);
+        return destino;
+    }
+
+    private static long[] quitar(long[] origen, int posicion) {
+        long[] destino = new long[origen.length - 1];
+        System.arraycopy(origen, 0, destino, 0, posicion);
+        System.arraycopy(origen, posicion + 1, destino, posicion, origen.length - posicion - 1);
+        return destino;
+    }
+
+    private static int[] quitar(int[] origen, int posicion) {
+        int[] destino = new int[origen.length - 1];
+        System.arraycopy(origen, 0, destino, 0, posicion);
+        System.arraycopy(origen, posicion + 1, destino, posicion, origen.length - posicion - 1);
+        return destino;
+    }
+}
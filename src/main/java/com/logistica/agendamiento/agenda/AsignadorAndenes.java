@@ -0,0 +1,157 @@
+package com.logistica.agendamiento.agenda;
+
+import com.logistica.agendamiento.config.AgendaProperties;
+import com.logistica.agendamiento.dto.HorarioSugeridoDTO;
+import com.logistica.agendamiento.entity.Anden;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+// Asignación automática de andén: elige, entre los andenes compatibles de un área, dónde colocar una reserva.
+// Cada opción (andén, franja de inicio) recibe un puntaje, menor es mejor, que suma:
+//  - la distancia a la hora pedida, en franjas;
+//  - los huecos que deja a cada lado dentro del tramo libre: uno más corto que app.agenda.hueco-minimo-minutos
+//    queda perdido y pesa más que uno utilizable, que solo parte el tramo en dos;
+//  - la ocupación del andén ese día, para repartir la carga entre los andenes del área.
+// Trabaja sobre las agendas del índice en memoria y la cuadrícula de MotorDisponibilidad: para 50 andenes
+// y un día completo son unas 3.000 opciones.
+@Component
+@RequiredArgsConstructor
+public class AsignadorAndenes {
+
+    private static final double PESO_DESVIACION = 4;
+    private static final double PESO_HUECO_PERDIDO = 3;
+    private static final double PESO_HUECO_PARTIDO = 1;
+    private static final double PESO_CARGA = 2;
+
+    // Ante el mismo puntaje gana la hora más temprana y luego el andén de menor número
+    private static final Comparator<Opcion> ORDEN = Comparator.comparingDouble(Opcion::puntaje)
+            .thenComparingInt(Opcion::franja)
+            .thenComparing(opcion -> opcion.anden().getNumero());
+
+    private final IndiceOcupacionAndenes indiceOcupacion;
+    private final MotorDisponibilidad motorDisponibilidad;
+    private final AgendaProperties agendaProperties;
+
+    // Mejor andén para el horario pedido tal cual; vacío si ninguno lo tiene libre
+    public Optional<Anden> asignar(List<Anden> andenes, LocalDate fecha, LocalTime horaInicio, LocalTime horaFin,
+                                   Long reservaExcluida) {
+        MotorDisponibilidad.Cuadricula cuadricula = motorDisponibilidad.cuadricula(fecha);
+        int franja = Math.floorDiv(MapaOcupacion.minuto(horaInicio) - cuadricula.apertura(), cuadricula.granularidad());
+        int necesarias = franjasNecesarias(cuadricula,
+                MapaOcupacion.minuto(horaFin) - MapaOcupacion.minuto(horaInicio));
+
+        Opcion mejor = null;
+        for (Anden anden : andenes) {
+            AgendaAndenDia agenda = indiceOcupacion.obtenerAgenda(anden.getId(), fecha);
+            // La comprobación es la misma que hace la reserva; la cuadrícula solo se usa para puntuar
+            if (agenda.tieneConflicto(horaInicio, horaFin, reservaExcluida)) {
+                continue;
+            }
+            Opcion opcion = new Opcion(anden, franja,
+                    analizar(agenda, cuadricula, reservaExcluida).puntaje(franja, necesarias));
+            if (mejor == null || ORDEN.compare(opcion, mejor) < 0) {
+                mejor = opcion;
+            }
+        }
+        return Optional.ofNullable(mejor).map(Opcion::anden);
+    }
+
+    // Mejores horarios del día en cualquiera de los andenes, de mejor a peor; sin hora deseada se prefieren
+    // los más tempranos. La reserva excluida (la que se está modificando) no ocupa su horario actual
+    public List<HorarioSugeridoDTO> alternativas(List<Anden> andenes, LocalDate fecha, LocalTime horaDeseada,
+                                                int duracionMinutos, int cantidad, Long reservaExcluida) {
+        if (cantidad <= 0) {
+            return List.of();
+        }
+        MotorDisponibilidad.Cuadricula cuadricula = motorDisponibilidad.cuadricula(fecha);
+        int necesarias = franjasNecesarias(cuadricula, duracionMinutos);
+        int deseada = horaDeseada == null ? cuadricula.primeraFranja()
+                : Math.floorDiv(MapaOcupacion.minuto(horaDeseada) - cuadricula.apertura(), cuadricula.granularidad());
+
+        // Las peores de las mejores quedan arriba para descartarlas al encontrar una mejor
+        PriorityQueue<Opcion> mejores = new PriorityQueue<>(ORDEN.reversed());
+        for (Anden anden : andenes) {
+            Analisis analisis = analizar(indiceOcupacion.obtenerAgenda(anden.getId(), fecha), cuadricula,
+                    reservaExcluida);
+            for (int k = cuadricula.primeraFranja(); k + necesarias <= cuadricula.franjas(); k++) {
+                if (analisis.corridas[k] < necesarias) {
+                    continue;
+                }
+                Opcion opcion = new Opcion(anden, k,
+                        PESO_DESVIACION * Math.abs(k - deseada) + analisis.puntaje(k, necesarias));
+                if (mejores.size() < cantidad) {
+                    mejores.add(opcion);
+                } else if (ORDEN.compare(opcion, mejores.peek()) < 0) {
+                    mejores.poll();
+                    mejores.add(opcion);
+                }
+            }
+        }
+
+        List<Opcion> ordenadas = new ArrayList<>(mejores);
+        ordenadas.sort(ORDEN);
+        List<HorarioSugeridoDTO> horarios = new ArrayList<>(ordenadas.size());
+        for (Opcion opcion : ordenadas) {
+            LocalTime horaInicio = cuadricula.hora(opcion.franja());
+            horarios.add(new HorarioSugeridoDTO(opcion.anden().getId(), opcion.anden().getNumero(), fecha,
+                    horaInicio, horaInicio.plusMinutes(duracionMinutos)));
+        }
+        return horarios;
+    }
+
+    private Analisis analizar(AgendaAndenDia agenda, MotorDisponibilidad.Cuadricula cuadricula, Long reservaExcluida) {
+        if (reservaExcluida != null) {
+            agenda = agenda.sin(reservaExcluida);
+        }
+        int franjas = cuadricula.franjas();
+        BitSet libres = agenda.franjasLibres(cuadricula.apertura(), cuadricula.granularidad(), franjas);
+
+        // inicioTramo[k]: primera franja del tramo libre que contiene a k (sin contar franjas ya pasadas)
+        int[] inicioTramo = new int[franjas];
+        for (int k = 0; k < franjas; k++) {
+            inicioTramo[k] = k > cuadricula.primeraFranja() && libres.get(k - 1) ? inicioTramo[k - 1] : k;
+        }
+
+        double carga = franjas == 0 ? 0 : 1 - (double) libres.cardinality() / franjas;
+        int minimo = franjasNecesarias(cuadricula, agendaProperties.getHuecoMinimoMinutos());
+        return new Analisis(MotorDisponibilidad.corridas(libres, franjas), inicioTramo, carga, minimo);
+    }
+
+    private static int franjasNecesarias(MotorDisponibilidad.Cuadricula cuadricula, int minutos) {
+        return (minutos + cuadricula.granularidad() - 1) / cuadricula.granularidad();
+    }
+
+    private record Opcion(Anden anden, int franja, double puntaje) {
+    }
+
+    private record Analisis(int[] corridas, int[] inicioTramo, double carga, int minimo) {
+
+        // Huecos y carga de una reserva de 'necesarias' franjas desde la franja k. Si el horario no cae en un
+        // tramo libre de la cuadrícula (p. ej. horas fuera de las franjas) solo cuenta la carga.
+        double puntaje(int k, int necesarias) {
+            double puntaje = PESO_CARGA * carga;
+            if (k < 0 || k >= inicioTramo.length || corridas[k] < necesarias) {
+                return puntaje;
+            }
+            return puntaje + hueco(k - inicioTramo[k]) + hueco(corridas[k] - necesarias);
+        }
+
+        // La franja pegada a la reserva comparte su minuto de inicio o de fin y deja de estar libre
+        private double hueco(int franjas) {
+            int restantes = franjas - 1;
+            if (restantes <= 0) {
+                return 0;
+            }
+            return restantes < minimo ? PESO_HUECO_PERDIDO : PESO_HUECO_PARTIDO;
+        }
+    }
+}
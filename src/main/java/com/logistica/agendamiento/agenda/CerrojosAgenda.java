@@ -0,0 +1,75 @@
+package com.logistica.agendamiento.agenda;
+
+import com.logistica.agendamiento.config.AgendaProperties;
+import com.logistica.agendamiento.exception.BadRequestException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Cerrojos por franjas para serializar, dentro de la JVM, solo las reservas que compiten por el mismo
+// andén y fecha. Se mantienen hasta que termina la transacción, de modo que el siguiente hilo
+// encuentra ya confirmada la ocupación del anterior y no se acumulan esperas en la base de datos.
+@Component
+public class CerrojosAgenda {
+
+    private final ReentrantLock[] franjas;
+    private final long esperaMs;
+
+    public CerrojosAgenda(AgendaProperties agendaProperties) {
+        this.franjas = new ReentrantLock[agendaProperties.getFranjasBloqueo()];
+        for (int i = 0; i < franjas.length; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+        this.esperaMs = agendaProperties.getEsperaBloqueoMs();
+    }
+
+    public void bloquearHastaFinDeTransaccion(ClaveAgenda... claves) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("El bloqueo de la agenda requiere una transacción activa");
+        }
+
+        // Siempre se adquieren en el mismo orden para evitar interbloqueos al mover una reserva de andén
+        int[] indices = Arrays.stream(claves).mapToInt(this::franja).distinct().sorted().toArray();
+        List<ReentrantLock> adquiridos = new ArrayList<>(indices.length);
+        try {
+            for (int indice : indices) {
+                ReentrantLock cerrojo = franjas[indice];
+                if (!cerrojo.tryLock(esperaMs, TimeUnit.MILLISECONDS)) {
+                    throw new BadRequestException("El andén está siendo reservado en este momento, intente nuevamente");
+                }
+                adquiridos.add(cerrojo);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            liberar(adquiridos);
+            throw new BadRequestException("La reserva fue interrumpida, intente nuevamente");
+        } catch (RuntimeException e) {
+            liberar(adquiridos);
+            throw e;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                liberar(adquiridos);
+            }
+        });
+    }
+
+    private int franja(ClaveAgenda clave) {
+        int hash = clave.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), franjas.length);
+    }
+
+    private static void liberar(List<ReentrantLock> cerrojos) {
+        for (int i = cerrojos.size() - 1; i >= 0; i--) {
+            cerrojos.get(i).unlock();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.logistica.agendamiento.agenda;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+@Value
+public class ClaveAgenda {
+
+    Long andenId;
+    LocalDate fecha;
+}
@@ -0,0 +1,117 @@
+package com.logistica.agendamiento.agenda;
+
+import com.logistica.agendamiento.dto.IntervaloReservaDTO;
+import com.logistica.agendamiento.entity.OcupacionAndenDia;
+import com.logistica.agendamiento.entity.enums.EstadoReserva;
+import com.logistica.agendamiento.exception.BadRequestException;
+import com.logistica.agendamiento.exception.HorarioNoDisponibleException;
+import com.logistica.agendamiento.repository.OcupacionAndenDiaRepository;
+import com.logistica.agendamiento.repository.ReservaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Garantía en base de datos contra reservas solapadas: cada andén/fecha tiene una fila con el mapa
+// de minutos ocupados que se bloquea con SELECT ... FOR UPDATE antes de comprobar y marcar el tramo.
+// Funciona también con varios nodos; los cerrojos en memoria solo evitan que los hilos de un mismo
+// nodo compitan por esa fila.
+@Component
+@RequiredArgsConstructor
+public class ControlOcupacionAndenes {
+
+    private static final Comparator<ClaveAgenda> ORDEN_FILAS =
+            Comparator.comparing(ClaveAgenda::getAndenId).thenComparing(ClaveAgenda::getFecha);
+
+    private final OcupacionAndenDiaRepository ocupacionRepository;
+    private final ReservaRepository reservaRepository;
+    private final CerrojosAgenda cerrojos;
+    private final MeterRegistry meterRegistry;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ocupar(Long andenId, LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+        validarTramo(horaInicio, horaFin);
+
+        ClaveAgenda clave = new ClaveAgenda(andenId, fecha);
+        cerrojos.bloquearHastaFinDeTransaccion(clave);
+
+        OcupacionAndenDia ocupacion = bloquearFila(clave);
+        ocuparTramo(ocupacion, horaInicio, horaFin);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void mover(IntervaloReservaDTO anterior, Long andenId, LocalDate fecha,
+                      LocalTime horaInicio, LocalTime horaFin) {
+        validarTramo(horaInicio, horaFin);
+
+        ClaveAgenda claveAnterior = new ClaveAgenda(anterior.getAndenId(), anterior.getFecha());
+        ClaveAgenda claveNueva = new ClaveAgenda(andenId, fecha);
+        cerrojos.bloquearHastaFinDeTransaccion(claveAnterior, claveNueva);
+
+        // Las filas se bloquean siempre en el mismo orden para no interbloquearse con otros nodos
+        Map<ClaveAgenda, OcupacionAndenDia> filas = new HashMap<>();
+        Stream.of(claveAnterior, claveNueva).distinct().sorted(ORDEN_FILAS)
+                .forEach(clave -> filas.put(clave, bloquearFila(clave)));
+
+        liberarTramo(filas.get(claveAnterior), anterior);
+        ocuparTramo(filas.get(claveNueva), horaInicio, horaFin);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void liberar(IntervaloReservaDTO reserva) {
+        ClaveAgenda clave = new ClaveAgenda(reserva.getAndenId(), reserva.getFecha());
+        cerrojos.bloquearHastaFinDeTransaccion(clave);
+
+        liberarTramo(bloquearFila(clave), reserva);
+    }
+
+    // Solo se limpian los minutos de esta reserva: ocupar no deja que dos reservas activas compartan minutos,
+    // así que el resto de la fila bloqueada sigue siendo correcto. No se reconstruye a partir de las reservas
+    // porque esa lectura usa la instantánea de la transacción y podría volver a marcar los minutos de otra
+    // cancelación confirmada mientras tanto.
+    private void liberarTramo(OcupacionAndenDia ocupacion, IntervaloReservaDTO reserva) {
+        byte[] minutos = ocupacion.getMinutos().clone();
+        MapaOcupacion.desmarcar(minutos, reserva.getHoraInicio(), reserva.getHoraFin());
+        ocupacion.setMinutos(minutos);
+        ocupacionRepository.save(ocupacion);
+    }
+
+    private void ocuparTramo(OcupacionAndenDia ocupacion, LocalTime horaInicio, LocalTime horaFin) {
+        byte[] minutos = ocupacion.getMinutos().clone();
+        if (!MapaOcupacion.estaLibre(minutos, horaInicio, horaFin)) {
+            // Otro nodo (o una reserva aún no reflejada en el índice) ganó el tramo
+            meterRegistry.counter("reservas.conflictos", "origen", "base-datos").increment();
+            throw new HorarioNoDisponibleException("El horario seleccionado no está disponible para este andén");
+        }
+        MapaOcupacion.marcar(minutos, horaInicio, horaFin);
+        ocupacion.setMinutos(minutos);
+        ocupacionRepository.save(ocupacion);
+    }
+
+    private OcupacionAndenDia bloquearFila(ClaveAgenda clave) {
+        ocupacionRepository.insertarSiNoExiste(clave.getAndenId(), clave.getFecha());
+        OcupacionAndenDia ocupacion = ocupacionRepository.findParaActualizar(clave.getAndenId(), clave.getFecha())
+                .orElseThrow(() -> new IllegalStateException("No existe la fila de ocupación para " + clave));
+
+        // Primera vez que se usa esta fila: se construye a partir de las reservas ya registradas
+        if (ocupacion.getMinutos() == null) {
+            ocupacion.setMinutos(MapaOcupacion.construir(reservaRepository.findIntervalosActivosPorAndenYFecha(
+                    clave.getAndenId(), clave.getFecha(), EstadoReserva.CANCELADA)));
+        }
+        return ocupacion;
+    }
+
+    private static void validarTramo(LocalTime horaInicio, LocalTime horaFin) {
+        if (!horaFin.isAfter(horaInicio)) {
+            throw new BadRequestException("La hora de fin debe ser posterior a la hora de inicio");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.logistica.agendamiento.agenda;
+
+import com.logistica.agendamiento.config.AgendaProperties;
+import com.logistica.agendamiento.dto.IntervaloReservaDTO;
+import com.logistica.agendamiento.entity.enums.EstadoReserva;
+import com.logistica.agendamiento.repository.AndenRepository;
+import com.logistica.agendamiento.repository.ReservaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Índice en memoria de las reservas activas (no canceladas) por andén y fecha.
+// Se precarga una ventana de días al arrancar y el resto se carga bajo demanda;
+// los cambios se aplican solo después del commit para no reflejar transacciones revertidas.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndiceOcupacionAndenes {
+
+    private final ReservaRepository reservaRepository;
+    private final AndenRepository andenRepository;
+    private final AgendaProperties agendaProperties;
+
+    private final ConcurrentHashMap<ClaveAgenda, AgendaAndenDia> agendas = new ConcurrentHashMap<>();
+
+    public boolean hayConflicto(Long andenId, LocalDate fecha, LocalTime horaInicio, LocalTime horaFin,
+                                Long reservaExcluida) {
+        return obtenerAgenda(andenId, fecha).tieneConflicto(horaInicio, horaFin, reservaExcluida);
+    }
+
+    public AgendaAndenDia obtenerAgenda(Long andenId, LocalDate fecha) {
+        ClaveAgenda clave = new ClaveAgenda(andenId, fecha);
+        AgendaAndenDia agenda = agendas.get(clave);
+        if (agenda != null) {
+            return agenda;
+        }
+        // Dentro de una transacción la lectura usa su instantánea, que puede no incluir commits recientes:
+        // se usa para esta consulta pero no se guarda en el índice
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return cargar(clave);
+        }
+        // La carga se hace dentro de compute para que no se intercale con una actualización de la misma clave
+        return agendas.computeIfAbsent(clave, this::cargar);
+    }
+
+    public void agregarDespuesDelCommit(Long reservaId, Long andenId, LocalDate fecha,
+                                        LocalTime horaInicio, LocalTime horaFin) {
+        ejecutarDespuesDelCommit(() -> agendas.computeIfPresent(new ClaveAgenda(andenId, fecha),
+                (clave, agenda) -> agenda.con(reservaId, horaInicio, horaFin)));
+    }
+
+    public void retirarDespuesDelCommit(Long reservaId, Long andenId, LocalDate fecha) {
+        ejecutarDespuesDelCommit(() -> agendas.computeIfPresent(new ClaveAgenda(andenId, fecha),
+                (clave, agenda) -> agenda.sin(reservaId)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        LocalDate hoy = LocalDate.now();
+        precargar(hoy, hoy.plusDays(agendaProperties.getVentanaDias()));
+    }
+
+    // Cada día descarta las agendas pasadas y precarga el día que entra en la ventana
+    @Scheduled(cron = "${app.agenda.limpieza-cron:0 5 0 * * *}")
+    public void desplazarVentana() {
+        LocalDate hoy = LocalDate.now();
+        agendas.keySet().removeIf(clave -> clave.getFecha().isBefore(hoy));
+
+        LocalDate nuevoDia = hoy.plusDays(agendaProperties.getVentanaDias());
+        precargar(nuevoDia, nuevoDia);
+    }
+
+    private void precargar(LocalDate desde, LocalDate hasta) {
+        List<IntervaloReservaDTO> intervalos =
+                reservaRepository.findIntervalosActivos(desde, hasta, EstadoReserva.CANCELADA);
+        Map<ClaveAgenda, List<IntervaloReservaDTO>> porClave = intervalos.stream()
+                .collect(Collectors.groupingBy(i -> new ClaveAgenda(i.getAndenId(), i.getFecha())));
+
+        // También se registran los andenes sin reservas, para que sus consultas no vayan a la base de datos
+        List<Long> andenIds = andenRepository.findAllIds();
+        for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+            for (Long andenId : andenIds) {
+                ClaveAgenda clave = new ClaveAgenda(andenId, fecha);
+                List<IntervaloReservaDTO> lista = porClave.get(clave);
+                agendas.putIfAbsent(clave, lista == null ? AgendaAndenDia.VACIA : AgendaAndenDia.de(lista));
+            }
+        }
+
+        log.info("Índice de ocupación precargado: {} reservas de {} andenes ({} a {})",
+                intervalos.size(), andenIds.size(), desde, hasta);
+    }
+
+    private AgendaAndenDia cargar(ClaveAgenda clave) {
+        List<IntervaloReservaDTO> intervalos = reservaRepository.findIntervalosActivosPorAndenYFecha(
+                clave.getAndenId(), clave.getFecha(), EstadoReserva.CANCELADA);
+        return intervalos.isEmpty() ? AgendaAndenDia.VACIA : AgendaAndenDia.de(intervalos);
+    }
+
+    private void ejecutarDespuesDelCommit(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,54 @@
+package com.logistica.agendamiento.agenda;
+
+import com.logistica.agendamiento.dto.IntervaloReservaDTO;
+
+import java.time.LocalTime;
+import java.util.List;
+
+// Operaciones sobre el mapa de bits de un andén en un día: un bit por minuto.
+// Un tramo ocupa desde el minuto de inicio hasta el minuto de fin, ambos incluidos,
+// con el mismo criterio de límites que el índice de ocupación.
+public final class MapaOcupacion {
+
+    public static final int MINUTOS_DIA = 24 * 60;
+
+    private MapaOcupacion() {
+    }
+
+    public static byte[] vacio() {
+        return new byte[MINUTOS_DIA / 8];
+    }
+
+    public static byte[] construir(List<IntervaloReservaDTO> intervalos) {
+        byte[] mapa = vacio();
+        for (IntervaloReservaDTO intervalo : intervalos) {
+            marcar(mapa, intervalo.getHoraInicio(), intervalo.getHoraFin());
+        }
+        return mapa;
+    }
+
+    public static boolean estaLibre(byte[] mapa, LocalTime horaInicio, LocalTime horaFin) {
+        for (int minuto = minuto(horaInicio); minuto <= minuto(horaFin); minuto++) {
+            if ((mapa[minuto >>> 3] & (1 << (minuto & 7))) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void marcar(byte[] mapa, LocalTime horaInicio, LocalTime horaFin) {
+        for (int minuto = minuto(horaInicio); minuto <= minuto(horaFin); minuto++) {
+            mapa[minuto >>> 3] |= (byte) (1 << (minuto & 7));
+        }
+    }
+
+    public static void desmarcar(byte[] mapa, LocalTime horaInicio, LocalTime horaFin) {
+        for (int minuto = minuto(horaInicio); minuto <= minuto(horaFin); minuto++) {
+            mapa[minuto >>> 3] &= (byte) ~(1 << (minuto & 7));
+        }
+    }
+
+    static int minuto(LocalTime hora) {
+        return hora.getHour() * 60 + hora.getMinute();
+    }
+}
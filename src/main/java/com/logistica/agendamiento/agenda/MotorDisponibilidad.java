@@ -0,0 +1,138 @@
+package com.logistica.agendamiento.agenda;
+
+import com.logistica.agendamiento.config.AgendaProperties;
+import com.logistica.agendamiento.dto.HorarioDisponibleDTO;
+import com.logistica.agendamiento.dto.HorarioSugeridoDTO;
+import com.logistica.agendamiento.entity.Anden;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+// Calcula la disponibilidad sobre la cuadrícula de franjas del horario de atención,
+// a partir de los mapas de minutos ocupados del índice; no consulta reservas en la base de datos.
+@Component
+@RequiredArgsConstructor
+public class MotorDisponibilidad {
+
+    private final IndiceOcupacionAndenes indiceOcupacion;
+    private final AgendaProperties agendaProperties;
+
+    // Tramos libres de un andén, unidos en ventanas máximas alineadas a la cuadrícula
+    public List<HorarioDisponibleDTO> horariosDisponibles(AgendaAndenDia agenda, LocalDate fecha) {
+        Cuadricula cuadricula = cuadricula(fecha);
+        BitSet libres = agenda.franjasLibres(cuadricula.apertura, cuadricula.granularidad, cuadricula.franjas);
+
+        List<HorarioDisponibleDTO> horarios = new ArrayList<>();
+        int inicio = libres.nextSetBit(cuadricula.primeraFranja);
+        while (inicio >= 0 && inicio < cuadricula.franjas) {
+            int fin = libres.nextClearBit(inicio);
+            horarios.add(new HorarioDisponibleDTO(cuadricula.hora(inicio), cuadricula.hora(fin)));
+            inicio = libres.nextSetBit(fin);
+        }
+        return horarios;
+    }
+
+    // Primeros horarios (por hora de inicio y luego por número de andén) donde cabe una reserva de la duración pedida
+    public List<HorarioSugeridoDTO> primerosHorariosLibres(List<Anden> andenes, LocalDate fecha,
+                                                           int duracionMinutos, int cantidad) {
+        Cuadricula cuadricula = cuadricula(fecha);
+        int necesarias = (duracionMinutos + cuadricula.granularidad - 1) / cuadricula.granularidad;
+
+        List<Anden> ordenados = new ArrayList<>(andenes);
+        ordenados.sort((a, b) -> a.getNumero().compareTo(b.getNumero()));
+
+        // corridas[d][k]: cuántas franjas libres seguidas hay desde la franja k en el andén d
+        int[][] corridas = new int[ordenados.size()][];
+        for (int d = 0; d < ordenados.size(); d++) {
+            AgendaAndenDia agenda = indiceOcupacion.obtenerAgenda(ordenados.get(d).getId(), fecha);
+            corridas[d] = corridas(agenda.franjasLibres(cuadricula.apertura, cuadricula.granularidad, cuadricula.franjas),
+                    cuadricula.franjas);
+        }
+
+        List<HorarioSugeridoDTO> horarios = new ArrayList<>(cantidad);
+        for (int k = cuadricula.primeraFranja; k + necesarias <= cuadricula.franjas; k++) {
+            for (int d = 0; d < ordenados.size(); d++) {
+                if (corridas[d][k] >= necesarias) {
+                    Anden anden = ordenados.get(d);
+                    LocalTime horaInicio = cuadricula.hora(k);
+                    horarios.add(new HorarioSugeridoDTO(anden.getId(), anden.getNumero(), fecha,
+                            horaInicio, horaInicio.plusMinutes(duracionMinutos)));
+                    if (horarios.size() == cantidad) {
+                        return horarios;
+                    }
+                }
+            }
+        }
+        return horarios;
+    }
+
+    // Minutos reservables de un andén vacío durante todo el horario de atención
+    public long capacidadMinutosDia() {
+        return (long) franjasDelDia() * agendaProperties.getGranularidadMinutos();
+    }
+
+    // Minutos que aún se pueden reservar en un andén vacío ese día
+    public long capacidadMinutos(LocalDate fecha) {
+        Cuadricula cuadricula = cuadricula(fecha);
+        return (long) (cuadricula.franjas - cuadricula.primeraFranja) * cuadricula.granularidad;
+    }
+
+    // Minutos ya reservados en los andenes dentro de la misma ventana que capacidadMinutos: para hoy, desde
+    // la primera franja que aún no ha comenzado; para los días pasados, ninguno
+    public long minutosReservados(List<Long> andenIds, LocalDate fecha) {
+        Cuadricula cuadricula = cuadricula(fecha);
+        if (cuadricula.primeraFranja >= cuadricula.franjas) {
+            return 0;
+        }
+        int desde = (cuadricula.apertura + cuadricula.primeraFranja * cuadricula.granularidad) * 60;
+        int hasta = (cuadricula.apertura + cuadricula.franjas * cuadricula.granularidad) * 60;
+        long segundos = 0;
+        for (Long andenId : andenIds) {
+            segundos += indiceOcupacion.obtenerAgenda(andenId, fecha).segundosReservados(desde, hasta);
+        }
+        return segundos / 60;
+    }
+
+    static int[] corridas(BitSet libres, int franjas) {
+        int[] corridas = new int[franjas + 1];
+        for (int k = franjas - 1; k >= 0; k--) {
+            corridas[k] = libres.get(k) ? corridas[k + 1] + 1 : 0;
+        }
+        return corridas;
+    }
+
+    Cuadricula cuadricula(LocalDate fecha) {
+        int apertura = MapaOcupacion.minuto(agendaProperties.getHoraApertura());
+        int granularidad = agendaProperties.getGranularidadMinutos();
+        int franjas = franjasDelDia();
+
+        // Para el día de hoy solo se ofrecen franjas que aún no han comenzado; los días pasados no tienen disponibilidad
+        int primeraFranja = 0;
+        LocalDate hoy = LocalDate.now();
+        if (fecha.isBefore(hoy)) {
+            primeraFranja = franjas;
+        } else if (fecha.equals(hoy)) {
+            int transcurridos = MapaOcupacion.minuto(LocalTime.now()) - apertura;
+            primeraFranja = Math.min(franjas, Math.max(0, (transcurridos + granularidad - 1) / granularidad));
+        }
+        return new Cuadricula(apertura, granularidad, franjas, primeraFranja);
+    }
+
+    private int franjasDelDia() {
+        int apertura = MapaOcupacion.minuto(agendaProperties.getHoraApertura());
+        int cierre = MapaOcupacion.minuto(agendaProperties.getHoraCierre());
+        return Math.max(0, (cierre - apertura) / agendaProperties.getGranularidadMinutos());
+    }
+
+    record Cuadricula(int apertura, int granularidad, int franjas, int primeraFranja) {
+
+        LocalTime hora(int franja) {
+            return LocalTime.of(0, 0).plusMinutes(apertura + (long) franja * granularidad);
+        }
+    }
+}
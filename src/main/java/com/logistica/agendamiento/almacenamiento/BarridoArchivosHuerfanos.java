@@ -0,0 +1,111 @@
+package com.logistica.agendamiento.almacenamiento;
+
+import com.logistica.agendamiento.config.FileStorageProperties;
+import com.logistica.agendamiento.dto.EntradaAlmacenamientoDTO;
+import com.logistica.agendamiento.repository.ArchivoAlmacenadoRepository;
+import com.logistica.agendamiento.service.FileStorageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+// Concilia el almacenamiento con la base de datos de a un fragmento por ejecución (sha256/00 ... sha256/ff y
+// luego los temporales), sin recorrer nunca todo el árbol. Recoge los archivos que quedaron sin registro,
+// por ejemplo si el proceso se detuvo entre el commit y el borrado diferido.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BarridoArchivosHuerfanos {
+
+    public static final int FRAGMENTO_TEMPORALES = 256;
+    private static final int FRAGMENTOS = FRAGMENTO_TEMPORALES + 1;
+
+    private final FileStorageService fileStorageService;
+    private final ArchivoAlmacenadoRepository archivoRepository;
+    private final EliminacionArchivos eliminacionArchivos;
+    private final FileStorageProperties propiedades;
+    private final MeterRegistry meterRegistry;
+
+    // Empieza en un fragmento al azar para que varios nodos o reinicios frecuentes no revisen siempre los mismos
+    private final AtomicInteger siguienteFragmento = new AtomicInteger(ThreadLocalRandom.current().nextInt(FRAGMENTOS));
+
+    @Scheduled(fixedDelayString = "${file.limpieza.intervalo-ms:60000}")
+    public void barrer() {
+        if (!propiedades.getLimpieza().isHabilitada()) {
+            return;
+        }
+        int fragmento = siguienteFragmento.getAndUpdate(actual -> (actual + 1) % FRAGMENTOS);
+        try {
+            barrerFragmento(fragmento);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo revisar el fragmento {} del almacenamiento: {}", fragmento, e.toString());
+        }
+    }
+
+    // Devuelve cuántos archivos se eliminaron
+    public int barrerFragmento(int fragmento) {
+        // Los archivos recientes pueden ser de una subida cuya transacción aún no confirma
+        Instant limite = Instant.now().minus(propiedades.getLimpieza().getGracia());
+        if (fragmento == FRAGMENTO_TEMPORALES) {
+            return barrerTemporales(limite);
+        }
+
+        String prefijoHash = String.format("%02x", fragmento);
+        Set<String> registradas = new HashSet<>(archivoRepository.findRutasPorPrefijoHash(prefijoHash + "%"));
+        int eliminados = 0;
+        try (Stream<EntradaAlmacenamientoDTO> archivos =
+                     fileStorageService.list(FileStorageService.PREFIJO_CONTENIDO + prefijoHash + "/")) {
+            Iterator<EntradaAlmacenamientoDTO> iterador = archivos.iterator();
+            while (iterador.hasNext()) {
+                EntradaAlmacenamientoDTO archivo = iterador.next();
+                if (registradas.remove(archivo.getRuta()) || !archivo.getModificado().isBefore(limite)) {
+                    continue;
+                }
+                // eliminar vuelve a comprobar el registro con bloqueo antes de borrar
+                if (eliminacionArchivos.eliminar(archivo.getRuta())) {
+                    eliminados++;
+                }
+            }
+        }
+
+        if (eliminados > 0) {
+            meterRegistry.counter("almacenamiento.huerfanos", "tipo", "contenido").increment(eliminados);
+            log.info("Eliminados {} archivos sin registro en el fragmento {}", eliminados, prefijoHash);
+        }
+        // Registros cuyo archivo no está: no se corrigen solos, requieren revisión
+        if (!registradas.isEmpty()) {
+            meterRegistry.counter("almacenamiento.faltantes").increment(registradas.size());
+            log.warn("{} archivos registrados no existen en el almacenamiento (fragmento {}), por ejemplo {}",
+                    registradas.size(), prefijoHash, registradas.iterator().next());
+        }
+        return eliminados;
+    }
+
+    // Temporales de subidas que no terminaron (el proceso se detuvo antes de descartarlos)
+    private int barrerTemporales(Instant limite) {
+        int eliminados = 0;
+        try (Stream<EntradaAlmacenamientoDTO> archivos = fileStorageService.list(FileStorageService.PREFIJO_TEMPORAL)) {
+            Iterator<EntradaAlmacenamientoDTO> iterador = archivos.iterator();
+            while (iterador.hasNext()) {
+                EntradaAlmacenamientoDTO archivo = iterador.next();
+                if (archivo.getModificado().isBefore(limite)) {
+                    fileStorageService.delete(archivo.getRuta());
+                    eliminados++;
+                }
+            }
+        }
+        if (eliminados > 0) {
+            meterRegistry.counter("almacenamiento.huerfanos", "tipo", "temporal").increment(eliminados);
+        }
+        return eliminados;
+    }
+}
@@ -0,0 +1,97 @@
+package com.logistica.agendamiento.almacenamiento;
+
+import com.logistica.agendamiento.config.AsyncConfig;
+import com.logistica.agendamiento.repository.ArchivoAlmacenadoRepository;
+import com.logistica.agendamiento.repository.DocumentoRepository;
+import com.logistica.agendamiento.service.FileStorageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Elimina archivos fuera de la transacción que los dejó sin uso: el borrado se programa al confirmar,
+// así un rollback nunca deja un documento apuntando a un archivo ya eliminado. Si el proceso se detiene
+// antes de borrarlo, el archivo queda huérfano y lo recoge BarridoArchivosHuerfanos.
+@Component
+@Slf4j
+public class EliminacionArchivos {
+
+    private final FileStorageService fileStorageService;
+    private final ArchivoAlmacenadoRepository archivoRepository;
+    private final DocumentoRepository documentoRepository;
+    private final TaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    public EliminacionArchivos(FileStorageService fileStorageService,
+                               ArchivoAlmacenadoRepository archivoRepository,
+                               DocumentoRepository documentoRepository,
+                               @Qualifier(AsyncConfig.ALMACENAMIENTO_EXECUTOR) TaskExecutor executor,
+                               MeterRegistry meterRegistry,
+                               PlatformTransactionManager transactionManager) {
+        this.fileStorageService = fileStorageService;
+        this.archivoRepository = archivoRepository;
+        this.documentoRepository = documentoRepository;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void eliminarAlConfirmar(String ruta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            programar(ruta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                programar(ruta);
+            }
+        });
+    }
+
+    // Borra el archivo solo si nada lo usa. El registro del hash se lee con bloqueo: una subida simultánea
+    // del mismo contenido espera a que el archivo se elimine y luego lo vuelve a colocar con promote.
+    public boolean eliminar(String ruta) {
+        try {
+            Boolean eliminado = transactionTemplate.execute(status -> {
+                if (enUso(ruta)) {
+                    return false;
+                }
+                fileStorageService.delete(ruta);
+                return true;
+            });
+            boolean resultado = Boolean.TRUE.equals(eliminado);
+            meterRegistry.counter("almacenamiento.eliminaciones", "resultado", resultado ? "eliminado" : "en-uso")
+                    .increment();
+            return resultado;
+        } catch (RuntimeException e) {
+            meterRegistry.counter("almacenamiento.eliminaciones", "resultado", "error").increment();
+            log.warn("No se pudo eliminar el archivo {}: {}", ruta, e.toString());
+            return false;
+        }
+    }
+
+    private void programar(String ruta) {
+        try {
+            executor.execute(() -> eliminar(ruta));
+        } catch (TaskRejectedException e) {
+            log.warn("Cola de eliminación llena; {} quedará para el barrido de huérfanos", ruta);
+        }
+    }
+
+    private boolean enUso(String ruta) {
+        if (ruta.startsWith(FileStorageService.PREFIJO_CONTENIDO)) {
+            String hash = ruta.substring(ruta.lastIndexOf('/') + 1);
+            return archivoRepository.findByHashParaActualizar(hash).isPresent();
+        }
+        // Archivos del esquema anterior: pertenecen a un único documento
+        return documentoRepository.existsByRuta(ruta);
+    }
+}
@@ -0,0 +1,66 @@
+package com.logistica.agendamiento.almacenamiento;
+
+import com.logistica.agendamiento.config.FileStorageProperties;
+import com.logistica.agendamiento.repository.DocumentoRepository;
+import com.logistica.agendamiento.service.DocumentoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Pasa en segundo plano, por lotes, los documentos guardados en {reservaId}/archivo al almacenamiento por hash
+// (sha256/ab/cd/<hash>). Cada documento se migra en su propia transacción; los que fallan se reintentan
+// en la siguiente vuelta. Cuando una vuelta completa no encuentra pendientes, la migración se da por terminada.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MigracionDocumentosAnteriores {
+
+    private final DocumentoRepository documentoRepository;
+    private final DocumentoService documentoService;
+    private final FileStorageProperties propiedades;
+    private final MeterRegistry meterRegistry;
+
+    private volatile long ultimoId = 0;
+    private volatile boolean terminada = false;
+
+    @Scheduled(fixedDelayString = "${file.limpieza.intervalo-ms:60000}")
+    public void migrar() {
+        if (!propiedades.getLimpieza().isHabilitada() || terminada) {
+            return;
+        }
+        migrarLote();
+    }
+
+    public int migrarLote() {
+        List<Long> ids = documentoRepository.findIdsSinArchivo(ultimoId,
+                PageRequest.of(0, propiedades.getLimpieza().getLoteMigracion()));
+        if (ids.isEmpty()) {
+            if (ultimoId == 0) {
+                terminada = true;
+                log.info("No quedan documentos por migrar al almacenamiento por hash");
+            }
+            ultimoId = 0;
+            return 0;
+        }
+
+        int migrados = 0;
+        for (Long id : ids) {
+            try {
+                if (documentoService.migrarArchivo(id)) {
+                    migrados++;
+                    meterRegistry.counter("almacenamiento.migracion", "resultado", "migrado").increment();
+                }
+            } catch (RuntimeException e) {
+                meterRegistry.counter("almacenamiento.migracion", "resultado", "error").increment();
+                log.warn("No se pudo migrar el archivo del documento {}: {}", id, e.toString());
+            }
+            ultimoId = id;
+        }
+        return migrados;
+    }
+}
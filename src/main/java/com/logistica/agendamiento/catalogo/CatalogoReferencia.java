@@ -0,0 +1,330 @@
+package com.logistica.agendamiento.catalogo;
+
+import com.logistica.agendamiento.dto.EstadoAndenDTO;
+import com.logistica.agendamiento.entity.Anden;
+import com.logistica.agendamiento.entity.Area;
+import com.logistica.agendamiento.entity.TipoServicio;
+import com.logistica.agendamiento.entity.enums.CaracteristicaAnden;
+import com.logistica.agendamiento.entity.enums.EstadoAnden;
+import com.logistica.agendamiento.repository.AndenRepository;
+import com.logistica.agendamiento.repository.AreaRepository;
+import com.logistica.agendamiento.repository.TipoServicioRepository;
+import com.logistica.agendamiento.repository.VersionCatalogoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// Copia en memoria de áreas, tipos de servicio y andenes, que cambian muy pocas veces, para que la ruta de
+// reservas no los consulte. Cada recarga arma una instantánea nueva de registros inmutables y la reemplaza
+// entera: quien lee nunca ve una copia a medias, y cada consulta entrega entidades nuevas que el llamador puede
+// modificar sin afectar a otros hilos. El estado del andén cambia con cada recepción y no forma parte de la
+// copia: se lee de la base de datos, con una sola consulta por llamada. Los servicios que modifican estos
+// catálogos llaman a registrarCambio, que al confirmar incrementa la versión en version_catalogo y recarga la
+// copia local; los demás nodos ven la versión nueva en la siguiente revisión. Lo que no está en la copia se
+// lee de la base de datos.
+@Component
+@Slf4j
+public class CatalogoReferencia {
+
+    private final AreaRepository areaRepository;
+    private final TipoServicioRepository tipoServicioRepository;
+    private final AndenRepository andenRepository;
+    private final VersionCatalogoRepository versionRepository;
+    private final TransactionTemplate lectura;
+    private final TransactionTemplate escritura;
+    private final ReentrantLock recarga = new ReentrantLock();
+
+    private volatile Instantanea instantanea = Instantanea.VACIA;
+
+    public CatalogoReferencia(AreaRepository areaRepository,
+                              TipoServicioRepository tipoServicioRepository,
+                              AndenRepository andenRepository,
+                              VersionCatalogoRepository versionRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.areaRepository = areaRepository;
+        this.tipoServicioRepository = tipoServicioRepository;
+        this.andenRepository = andenRepository;
+        this.versionRepository = versionRepository;
+        // Transacciones propias: la recarga y el cambio de versión también se ejecutan después del commit
+        // de otra transacción, cuando sus recursos siguen asociados al hilo
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lectura.setReadOnly(true);
+        this.escritura = new TransactionTemplate(transactionManager);
+        this.escritura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Optional<Area> area(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        AreaCatalogo registro = instantanea.areas().get(id);
+        return registro != null ? Optional.of(registro.entidad()) : leer(id, Instantanea::areas, areaRepository::findById);
+    }
+
+    public Optional<TipoServicio> tipoServicio(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        TipoCatalogo registro = instantanea.tipos().get(id);
+        return registro != null ? Optional.of(registro.entidad())
+                : leer(id, Instantanea::tipos, tipoServicioRepository::findById);
+    }
+
+    // Con el estado actual de la base de datos; vacío si el andén se eliminó después de la última recarga
+    public Optional<Anden> anden(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Instantanea actual = instantanea;
+        AndenCatalogo registro = actual.andenes().get(id);
+        if (registro == null) {
+            return leer(id, Instantanea::andenes, andenRepository::findById);
+        }
+        return andenRepository.findEstadoById(id)
+                .map(estado -> registro.entidad(actual.areas().get(registro.areaId()).entidad(), estado));
+    }
+
+    // Andenes del área ordenados por ID; si el área todavía no está en la copia se consultan
+    public List<Anden> andenesDeArea(Area area) {
+        Instantanea actual = instantanea;
+        if (!actual.areas().containsKey(area.getId())) {
+            return andenRepository.findByArea(area);
+        }
+        return conEstado(actual, actual.andenesPorArea().getOrDefault(area.getId(), List.of()));
+    }
+
+    // Andenes del área que ofrecen lo que exige el tipo de servicio, ordenados por ID; sale de la matriz
+    // calculada al cargar y, si el área o el tipo todavía no están en la copia, de la consulta por características
+    public List<Anden> andenesCompatibles(Area area, TipoServicio tipoServicio) {
+        Instantanea actual = instantanea;
+        Map<Long, List<AndenCatalogo>> porArea = actual.compatibles().get(tipoServicio.getId());
+        if (porArea == null || !actual.areas().containsKey(area.getId())) {
+            return andenRepository.findByAreaAndCaracteristicasInOrderById(area,
+                    CaracteristicaAnden.mascarasQueCumplen(tipoServicio.getCaracteristicasRequeridas()));
+        }
+        return conEstado(actual, porArea.getOrDefault(area.getId(), List.of()));
+    }
+
+    // Lo llaman los servicios que modifican áreas, tipos de servicio o andenes, dentro de su transacción
+    public void registrarCambio() {
+        ejecutarDespuesDelCommit(() -> {
+            try {
+                escritura.executeWithoutResult(status -> versionRepository.incrementar());
+            } catch (RuntimeException e) {
+                // La copia local se recarga igual; los demás nodos lo verán en su recarga completa
+                log.warn("No se pudo publicar el cambio de catálogos a los demás nodos: {}", e.toString());
+            }
+            recargar();
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        escritura.executeWithoutResult(status -> versionRepository.insertarSiNoExiste());
+        recargar();
+        Instantanea actual = instantanea;
+        log.info("Catálogos precargados (versión {}): {} áreas, {} tipos de servicio, {} andenes",
+                actual.version(), actual.areas().size(), actual.tipos().size(), actual.andenes().size());
+    }
+
+    // Cambios confirmados en otro nodo
+    @Scheduled(fixedDelayString = "${app.catalogo.revision-ms:2000}")
+    public void revisar() {
+        long version = versionRepository.findVersion().orElse(0L);
+        if (version != instantanea.version()) {
+            recargar();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalogo.recarga-completa-ms:600000}",
+            initialDelayString = "${app.catalogo.recarga-completa-ms:600000}")
+    public void recargar() {
+        recarga.lock();
+        try {
+            instantanea = lectura.execute(status -> cargar());
+        } finally {
+            recarga.unlock();
+        }
+    }
+
+    // Puede haberse creado hace poco en otro nodo: se lee dentro de la transacción en curso y, si existe,
+    // la copia se recarga cuando esta confirme
+    private <T> Optional<T> leer(Long id, Function<Instantanea, Map<Long, ?>> mapa,
+                                 Function<Long, Optional<T>> repositorio) {
+        Optional<T> encontrado = repositorio.apply(id);
+        if (encontrado.isPresent()) {
+            ejecutarDespuesDelCommit(() -> {
+                if (!mapa.apply(instantanea).containsKey(id)) {
+                    recargar();
+                }
+            });
+        }
+        return encontrado;
+    }
+
+    // Entidades nuevas con el estado que tienen ahora en la base de datos; se omiten los andenes eliminados
+    // después de la última recarga
+    private List<Anden> conEstado(Instantanea actual, List<AndenCatalogo> registros) {
+        if (registros.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, EstadoAnden> estados = new HashMap<>();
+        for (EstadoAndenDTO estado : andenRepository.findEstados(registros.stream().map(AndenCatalogo::id).toList())) {
+            estados.put(estado.getAndenId(), estado.getEstado());
+        }
+
+        Map<Long, Area> areas = new HashMap<>();
+        List<Anden> andenes = new ArrayList<>(registros.size());
+        for (AndenCatalogo registro : registros) {
+            EstadoAnden estado = estados.get(registro.id());
+            if (estado != null) {
+                Area area = areas.computeIfAbsent(registro.areaId(), areaId -> actual.areas().get(areaId).entidad());
+                andenes.add(registro.entidad(area, estado));
+            }
+        }
+        return andenes;
+    }
+
+    // La versión se lee antes que los datos: un cambio que confirme en medio deja la versión anterior
+    // y la siguiente revisión vuelve a cargar
+    private Instantanea cargar() {
+        long version = versionRepository.findVersion().orElse(0L);
+
+        Map<Long, AreaCatalogo> areas = new HashMap<>();
+        for (Area area : areaRepository.findAll()) {
+            areas.put(area.getId(), AreaCatalogo.de(area));
+        }
+
+        Map<Long, TipoCatalogo> tipos = new HashMap<>();
+        for (TipoServicio tipo : tipoServicioRepository.findAll()) {
+            tipos.put(tipo.getId(), TipoCatalogo.de(tipo));
+        }
+
+        Map<Long, AndenCatalogo> andenes = new HashMap<>();
+        Map<Long, List<AndenCatalogo>> andenesPorArea = new HashMap<>();
+        List<Anden> todos = new ArrayList<>(andenRepository.findAll());
+        todos.sort(Comparator.comparing(Anden::getId));
+        for (Anden anden : todos) {
+            AndenCatalogo registro = AndenCatalogo.de(anden);
+            andenes.put(registro.id(), registro);
+            andenesPorArea.computeIfAbsent(registro.areaId(), areaId -> new ArrayList<>()).add(registro);
+        }
+        andenesPorArea.replaceAll((areaId, lista) -> List.copyOf(lista));
+
+        // Matriz de compatibilidad: por cada tipo de servicio, sus andenes compatibles agrupados por área
+        Map<Long, Map<Long, List<AndenCatalogo>>> compatibles = new HashMap<>();
+        for (TipoCatalogo tipo : tipos.values()) {
+            Map<Long, List<AndenCatalogo>> porArea = new HashMap<>();
+            andenesPorArea.forEach((areaId, lista) -> porArea.put(areaId, lista.stream()
+                    .filter(anden -> CaracteristicaAnden.cumple(anden.caracteristicas(), tipo.caracteristicasRequeridas()))
+                    .toList()));
+            compatibles.put(tipo.id(), Map.copyOf(porArea));
+        }
+
+        return new Instantanea(version, Map.copyOf(areas), Map.copyOf(tipos), Map.copyOf(andenes),
+                Map.copyOf(andenesPorArea), Map.copyOf(compatibles));
+    }
+
+    private void ejecutarDespuesDelCommit(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    private record Instantanea(long version, Map<Long, AreaCatalogo> areas, Map<Long, TipoCatalogo> tipos,
+                               Map<Long, AndenCatalogo> andenes, Map<Long, List<AndenCatalogo>> andenesPorArea,
+                               Map<Long, Map<Long, List<AndenCatalogo>>> compatibles) {
+
+        static final Instantanea VACIA = new Instantanea(-1, Map.of(), Map.of(), Map.of(), Map.of(), Map.of());
+    }
+
+    // Sin la lista de andenes del área, que es perezosa y no se puede recorrer fuera de la transacción
+    private record AreaCatalogo(Long id, String nombre, String descripcion,
+                                LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static AreaCatalogo de(Area area) {
+            return new AreaCatalogo(area.getId(), area.getNombre(), area.getDescripcion(),
+                    area.getCreatedAt(), area.getUpdatedAt());
+        }
+
+        Area entidad() {
+            Area area = new Area();
+            area.setId(id);
+            area.setNombre(nombre);
+            area.setDescripcion(descripcion);
+            area.setAndenes(List.of());
+            area.setCreatedAt(createdAt);
+            area.setUpdatedAt(updatedAt);
+            return area;
+        }
+    }
+
+    private record TipoCatalogo(Long id, String nombre, String descripcion, Integer caracteristicasRequeridas,
+                                LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static TipoCatalogo de(TipoServicio tipo) {
+            return new TipoCatalogo(tipo.getId(), tipo.getNombre(), tipo.getDescripcion(),
+                    tipo.getCaracteristicasRequeridas(), tipo.getCreatedAt(), tipo.getUpdatedAt());
+        }
+
+        TipoServicio entidad() {
+            TipoServicio tipo = new TipoServicio();
+            tipo.setId(id);
+            tipo.setNombre(nombre);
+            tipo.setDescripcion(descripcion);
+            tipo.setCaracteristicasRequeridas(caracteristicasRequeridas);
+            tipo.setCreatedAt(createdAt);
+            tipo.setUpdatedAt(updatedAt);
+            return tipo;
+        }
+    }
+
+    private record AndenCatalogo(Long id, Long areaId, Integer numero, String capacidad, Boolean exclusivoContenedor,
+                                 Integer caracteristicas, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static AndenCatalogo de(Anden anden) {
+            return new AndenCatalogo(anden.getId(), anden.getArea().getId(), anden.getNumero(), anden.getCapacidad(),
+                    anden.getExclusivoContenedor(), anden.getCaracteristicas(), anden.getCreatedAt(),
+                    anden.getUpdatedAt());
+        }
+
+        Anden entidad(Area area, EstadoAnden estado) {
+            Anden anden = new Anden();
+            anden.setId(id);
+            anden.setArea(area);
+            anden.setNumero(numero);
+            anden.setEstado(estado);
+            anden.setCapacidad(capacidad);
+            anden.setExclusivoContenedor(exclusivoContenedor);
+            anden.setCaracteristicas(caracteristicas);
+            anden.setCreatedAt(createdAt);
+            anden.setUpdatedAt(updatedAt);
+            return anden;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.logistica.agendamiento.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+
+@Component
+@ConfigurationProperties(prefix = "app.agenda")
+@Data
+public class AgendaProperties {
+
+    // Días (desde hoy) que se precargan en el índice de ocupación de andenes
+    private int ventanaDias = 14;
+
+    // Número de cerrojos entre los que se reparten las combinaciones andén/fecha
+    private int franjasBloqueo = 256;
+
+    // Tiempo máximo de espera por el cerrojo de un andén antes de rechazar la reserva
+    private long esperaBloqueoMs = 5000;
+
+    // Horario de atención y tamaño de las franjas usadas para calcular la disponibilidad
+    private LocalTime horaApertura = LocalTime.of(6, 0);
+    private LocalTime horaCierre = LocalTime.of(22, 0);
+    private int granularidadMinutos = 15;
+
+    // Máximo de días que se pueden pedir en una consulta del calendario de disponibilidad
+    private int diasMaximosCalendario = 62;
+
+    // Asignación automática de andén: los huecos libres más cortos que esto se consideran perdidos
+    private int huecoMinimoMinutos = 30;
+
+    // Horarios alternativos que se devuelven cuando el horario pedido no está disponible
+    private int alternativasConflicto = 5;
+}
@@ -1,10 +1,85 @@
 package com.logistica.agendamiento.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig {
-    // Configuración adicional para hilos asíncronos si es necesario
-}
\ No newline at end of file
+
+    public static final String CORREO_EXECUTOR = "correoExecutor";
+    public static final String ALMACENAMIENTO_EXECUTOR = "almacenamientoExecutor";
+
+    // Al declarar un executor propio Spring Boot deja de crear el suyo, que usan @Async sin nombre
+    // y las respuestas asíncronas de MVC (exportaciones); se declara aquí con la configuración spring.task.execution
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    // Con spring.threads.virtual.enabled=true (perfil hilos-virtuales) cada tarea corre en su propio hilo virtual,
+    // igual que Tomcat y las tareas programadas. Los pools de correo y almacenamiento siguen acotados a propósito:
+    // su límite protege al servidor SMTP y al disco, no ahorra hilos.
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor applicationTaskExecutorVirtual(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    // Pool propio para el envío de correos: acotado en hilos y en cola para que un SMTP lento
+    // no acumule tareas sin límite en memoria. Al llenarse la cola se aplica contrapresión
+    // ejecutando el envío en el hilo que lo solicita, y al apagar se drena lo pendiente.
+    @Bean(name = CORREO_EXECUTOR)
+    public ThreadPoolTaskExecutor correoExecutor(CorreoProperties correoProperties, MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(correoProperties.getHilos());
+        executor.setMaxPoolSize(correoProperties.getHilos());
+        executor.setQueueCapacity(correoProperties.getCapacidadCola());
+        executor.setThreadNamePrefix("correo-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(correoProperties.getEsperaCierreSegundos());
+
+        Gauge.builder("correo.cola.pendientes", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Correos esperando un hilo de envío")
+                .register(meterRegistry);
+        Gauge.builder("correo.envios.activos", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Correos enviándose en este momento")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    // Borrados de archivos diferidos hasta después del commit. Un solo hilo basta; si la cola se llena
+    // se descartan (con aviso) y el barrido de huérfanos los elimina más tarde
+    @Bean(name = ALMACENAMIENTO_EXECUTOR)
+    public ThreadPoolTaskExecutor almacenamientoExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10000);
+        executor.setThreadNamePrefix("almacenamiento-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        Gauge.builder("almacenamiento.eliminaciones.pendientes", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Archivos esperando ser eliminados")
+                .register(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,18 @@
+package com.logistica.agendamiento.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.catalogo")
+@Data
+public class CatalogoProperties {
+
+    // Cada cuánto se consulta la versión de los catálogos para ver cambios hechos en otro nodo (lo lee @Scheduled)
+    private long revisionMs = 2000;
+
+    // Recarga completa periódica, aunque la versión no cambie: cubre cambios hechos directamente en la base
+    // de datos (lo lee @Scheduled)
+    private long recargaCompletaMs = 600000;
+}
@@ -0,0 +1,29 @@
+package com.logistica.agendamiento.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.correo")
+@Data
+public class CorreoProperties {
+
+    // Envíos SMTP simultáneos
+    private int hilos = 4;
+
+    // Correos en espera; con la cola llena el hilo que encola envía el correo él mismo
+    private int capacidadCola = 500;
+
+    // Tiempo que se espera al apagar la aplicación para terminar de enviar lo encolado
+    private int esperaCierreSegundos = 30;
+
+    // Máximo de notificaciones que se envían por una misma conexión SMTP
+    private int mensajesPorSesion = 50;
+
+    // Caché de plantillas de correo parseadas; conviene desactivarla solo al editar plantillas en desarrollo
+    private boolean plantillasCache = true;
+
+    // Vigencia de cada plantilla en la caché (sin valor: no expira)
+    private Long plantillasCacheTtlMs;
+}
@@ -1,9 +1,12 @@
 package com.logistica.agendamiento.config;
 
+import com.logistica.agendamiento.entity.Anden;
 import com.logistica.agendamiento.entity.Area;
 import com.logistica.agendamiento.entity.TipoServicio;
 import com.logistica.agendamiento.entity.Usuario;
+import com.logistica.agendamiento.entity.enums.CaracteristicaAnden;
 import com.logistica.agendamiento.entity.enums.Rol;
+import com.logistica.agendamiento.repository.AndenRepository;
 import com.logistica.agendamiento.repository.AreaRepository;
 import com.logistica.agendamiento.repository.TipoServicioRepository;
 import com.logistica.agendamiento.repository.UsuarioRepository;
@@ -13,12 +16,15 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class DataInitializer implements CommandLineRunner {
 
     private final AreaRepository areaRepository;
+    private final AndenRepository andenRepository;
     private final TipoServicioRepository tipoServicioRepository;
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
@@ -59,11 +65,14 @@ public class DataInitializer implements CommandLineRunner {
             TipoServicio contenedor = new TipoServicio();
             contenedor.setNombre("Contenedor");
             contenedor.setDescripcion("Transporte grande para entregas de gran volumen");
+            contenedor.setCaracteristicasRequeridas(CaracteristicaAnden.CONTENEDOR.getBit());
             tipoServicioRepository.save(contenedor);
 
             log.info("Tipos de servicio inicializados correctamente");
         }
 
+        completarCaracteristicas();
+
         // Crear usuario administrador si no existe
         if (usuarioRepository.count() == 0) {
             log.info("Creando usuario administrador...");
@@ -82,4 +91,26 @@ public class DataInitializer implements CommandLineRunner {
             log.info("Usuario administrador creado correctamente");
         }
     }
+
+    // Bases creadas antes de las características: la columna nueva queda en 0. Los andenes se completan a partir
+    // de exclusivoContenedor y los tipos de servicio por el nombre "Contenedor", que era la regla anterior
+    private void completarCaracteristicas() {
+        List<TipoServicio> tipos = tipoServicioRepository.findByCaracteristicasRequeridas(0);
+        for (TipoServicio tipo : tipos) {
+            tipo.setCaracteristicasRequeridas(tipo.getNombre().equalsIgnoreCase("Contenedor")
+                    ? CaracteristicaAnden.CONTENEDOR.getBit() : CaracteristicaAnden.CARGA_GENERAL.getBit());
+        }
+        tipoServicioRepository.saveAll(tipos);
+
+        List<Anden> andenes = andenRepository.findByCaracteristicas(0);
+        for (Anden anden : andenes) {
+            anden.setCaracteristicas(anden.getExclusivoContenedor()
+                    ? CaracteristicaAnden.CONTENEDOR.getBit() : CaracteristicaAnden.CARGA_GENERAL.getBit());
+        }
+        andenRepository.saveAll(andenes);
+
+        if (!tipos.isEmpty() || !andenes.isEmpty()) {
+            log.info("Características completadas: {} tipos de servicio, {} andenes", tipos.size(), andenes.size());
+        }
+    }
 }
\ No newline at end of file
@@ -3,11 +3,70 @@ package com.logistica.agendamiento.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @Component
 @ConfigurationProperties(prefix = "file")
 @Data
 public class FileStorageProperties {
 
+    // "local" guarda en upload-dir; "s3" en un bucket, para que varias instancias compartan los archivos
+    private String storage = "local";
+
     private String uploadDir;
-}
\ No newline at end of file
+
+    // Tamaño máximo de un documento (también para las subidas sin multipart)
+    private DataSize maxSize = DataSize.ofMegabytes(10);
+
+    private S3 s3 = new S3();
+
+    private Limpieza limpieza = new Limpieza();
+
+    @Data
+    public static class S3 {
+
+        private String bucket;
+
+        private String region = "us-east-1";
+
+        // Solo para servicios compatibles (MinIO, etc.); vacío usa el endpoint de AWS de la región
+        private String endpoint;
+
+        // Sin credenciales explícitas se usa la cadena por defecto del SDK (variables de entorno, perfil, rol)
+        private String accessKey;
+
+        private String secretKey;
+
+        // MinIO y la mayoría de servicios compatibles requieren http://host/bucket/clave
+        private boolean pathStyle = false;
+
+        // Los archivos más grandes se suben por partes; S3 exige al menos 5 MB por parte salvo la última
+        private DataSize tamanoParte = DataSize.ofMegabytes(5);
+
+        // Partes que se suben a la vez mientras se sigue leyendo la petición
+        private int partesEnParalelo = 4;
+
+        // Redirige las descargas a una URL firmada en lugar de enviar los bytes desde la aplicación
+        private boolean descargaDirecta = true;
+
+        private Duration vigenciaDescarga = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Limpieza {
+
+        // Barrido de huérfanos y migración de documentos antiguos en segundo plano
+        private boolean habilitada = true;
+
+        // Cada ejecución revisa un solo fragmento sha256/ab/ (o los temporales); 257 ejecuciones dan la vuelta completa
+        private long intervaloMs = 60000;
+
+        // Un archivo sin registro más reciente que esto puede pertenecer a una subida en curso
+        private Duration gracia = Duration.ofHours(1);
+
+        // Documentos del esquema anterior que se migran en cada ejecución
+        private int loteMigracion = 50;
+    }
+}
@@ -0,0 +1,19 @@
+package com.logistica.agendamiento.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "app.hilos-virtuales")
+@Data
+public class HilosVirtualesProperties {
+
+    // Registra con JFR los hilos virtuales que quedan fijados a su hilo portador (synchronized, código nativo)
+    private boolean monitorFijaciones = true;
+
+    // Fijaciones más cortas que esto no se informan
+    private Duration umbralFijacion = Duration.ofMillis(20);
+}
@@ -0,0 +1,77 @@
+package com.logistica.agendamiento.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Con hilos virtuales, un bloqueo dentro de synchronized (por ejemplo en un driver JDBC) fija el hilo virtual
+// a su portador y deja de liberar al portador mientras espera. Escucha el evento jdk.VirtualThreadPinned de JFR
+// dentro del propio proceso: cuenta las fijaciones y su duración, y registra una vez la pila de cada origen.
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@RequiredArgsConstructor
+@Slf4j
+public class MonitorFijacionHilosVirtuales implements DisposableBean {
+
+    private static final String EVENTO_FIJACION = "jdk.VirtualThreadPinned";
+    private static final int MARCOS_REGISTRADOS = 12;
+
+    private final HilosVirtualesProperties propiedades;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> origenesRegistrados = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream grabacion;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!propiedades.isMonitorFijaciones()) {
+            return;
+        }
+        RecordingStream stream = new RecordingStream();
+        stream.enable(EVENTO_FIJACION).withThreshold(propiedades.getUmbralFijacion()).withStackTrace();
+        stream.onEvent(EVENTO_FIJACION, this::registrar);
+        stream.startAsync();
+        grabacion = stream;
+        log.info("Monitor de fijación de hilos virtuales activo (umbral {})", propiedades.getUmbralFijacion());
+    }
+
+    @Override
+    public void destroy() {
+        if (grabacion != null) {
+            grabacion.close();
+        }
+    }
+
+    private void registrar(RecordedEvent evento) {
+        meterRegistry.timer("hilos.virtuales.fijaciones").record(evento.getDuration());
+
+        List<RecordedFrame> marcos = evento.getStackTrace() != null ? evento.getStackTrace().getFrames() : List.of();
+        String origen = marcos.stream()
+                .map(marco -> marco.getMethod().getType().getName() + "." + marco.getMethod().getName())
+                .filter(metodo -> !metodo.startsWith("java.") && !metodo.startsWith("jdk.") && !metodo.startsWith("sun."))
+                .findFirst()
+                .orElse("desconocido");
+        if (origenesRegistrados.add(origen)) {
+            log.warn("Hilo virtual fijado {} ms en {}:\n\t{}", evento.getDuration().toMillis(), origen,
+                    marcos.stream()
+                            .limit(MARCOS_REGISTRADOS)
+                            .map(marco -> marco.getMethod().getType().getName() + "." + marco.getMethod().getName()
+                                    + ":" + marco.getLineNumber())
+                            .collect(Collectors.joining("\n\t")));
+        }
+    }
+}
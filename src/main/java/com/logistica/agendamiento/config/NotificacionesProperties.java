@@ -0,0 +1,38 @@
+package com.logistica.agendamiento.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.notificaciones")
+@Data
+public class NotificacionesProperties {
+
+    // Permite apagar el despacho en un nodo (las notificaciones se siguen registrando)
+    private boolean despachoHabilitado = true;
+
+    // Pausa entre pasadas del despachador (lo lee @Scheduled)
+    private long intervaloMs = 5000;
+
+    // Notificaciones que toma cada pasada del despachador
+    private int tamanoLote = 50;
+
+    // Intentos antes de marcar la notificación como FALLIDA
+    private int maxIntentos = 8;
+
+    // Espera antes del primer reintento; se duplica en cada intento hasta esperaMaximaSegundos
+    private long esperaInicialSegundos = 30;
+    private long esperaMaximaSegundos = 3600;
+
+    // Tiempo que un nodo tiene para enviar un lote antes de que otro pueda volver a tomarlo
+    private long reclamoSegundos = 300;
+
+    // Resumen al administrador: se envía al cerrar cada ventana, o antes si se acumulan resumenMaxEventos
+    private String resumenDestinatario = "admin@sistema.com";
+    private long resumenVentanaMinutos = 15;
+    private int resumenMaxEventos = 100;
+
+    // Cada cuánto se comprueba si corresponde enviar el resumen (lo lee @Scheduled)
+    private long resumenRevisionMs = 30000;
+}
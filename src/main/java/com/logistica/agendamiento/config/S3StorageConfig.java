@@ -0,0 +1,65 @@
+package com.logistica.agendamiento.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3BaseClientBuilder;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.URI;
+
+// Clientes de S3 para file.storage=s3: el síncrono para operaciones puntuales, el asíncrono para subir
+// las partes en paralelo y el firmador para las URLs de descarga directa
+@Configuration
+@ConditionalOnProperty(prefix = "file", name = "storage", havingValue = "s3")
+public class S3StorageConfig {
+
+    @Bean(destroyMethod = "close")
+    public S3Client s3Client(FileStorageProperties properties) {
+        return configurar(S3Client.builder(), properties.getS3()).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public S3AsyncClient s3AsyncClient(FileStorageProperties properties) {
+        return configurar(S3AsyncClient.builder(), properties.getS3()).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public S3Presigner s3Presigner(FileStorageProperties properties) {
+        FileStorageProperties.S3 s3 = properties.getS3();
+        var builder = S3Presigner.builder()
+                .region(Region.of(s3.getRegion()))
+                .credentialsProvider(credenciales(s3))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(s3.isPathStyle()).build());
+        if (StringUtils.hasText(s3.getEndpoint())) {
+            builder.endpointOverride(URI.create(s3.getEndpoint()));
+        }
+        return builder.build();
+    }
+
+    private static <B extends S3BaseClientBuilder<B, ?>> B configurar(B builder, FileStorageProperties.S3 s3) {
+        builder.region(Region.of(s3.getRegion()))
+                .credentialsProvider(credenciales(s3))
+                .forcePathStyle(s3.isPathStyle());
+        if (StringUtils.hasText(s3.getEndpoint())) {
+            builder.endpointOverride(URI.create(s3.getEndpoint()));
+        }
+        return builder;
+    }
+
+    private static AwsCredentialsProvider credenciales(FileStorageProperties.S3 s3) {
+        if (StringUtils.hasText(s3.getAccessKey())) {
+            return StaticCredentialsProvider.create(AwsBasicCredentials.create(s3.getAccessKey(), s3.getSecretKey()));
+        }
+        return DefaultCredentialsProvider.create();
+    }
+}
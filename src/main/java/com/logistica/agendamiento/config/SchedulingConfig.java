@@ -0,0 +1,10 @@
+package com.logistica.agendamiento.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Habilita las tareas programadas (mantenimiento de índices, despachos en segundo plano)
+}
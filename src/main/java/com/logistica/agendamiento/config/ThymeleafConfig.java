@@ -1,5 +1,6 @@
 package com.logistica.agendamiento.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.ResourceBundleMessageSource;
@@ -11,8 +12,11 @@ import org.thymeleaf.templateresolver.ITemplateResolver;
 import java.nio.charset.StandardCharsets;
 
 @Configuration
+@RequiredArgsConstructor
 public class ThymeleafConfig {
 
+    private final CorreoProperties correoProperties;
+
     @Bean
     public ITemplateResolver templateResolver() {
         ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
@@ -20,7 +24,9 @@ public class ThymeleafConfig {
         templateResolver.setSuffix(".html");
         templateResolver.setTemplateMode(TemplateMode.HTML);
         templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
-        templateResolver.setCacheable(false);
+        // Con caché cada plantilla se lee y parsea una vez; el TTL permite recoger cambios sin reiniciar
+        templateResolver.setCacheable(correoProperties.isPlantillasCache());
+        templateResolver.setCacheTTLMs(correoProperties.getPlantillasCacheTtlMs());
         return templateResolver;
     }
 
@@ -1,25 +1,45 @@
 package com.logistica.agendamiento.controller;
 
+import com.logistica.agendamiento.dto.DescargaDocumentoDTO;
 import com.logistica.agendamiento.dto.DocumentoDTO;
 import com.logistica.agendamiento.service.DocumentoService;
+import com.logistica.agendamiento.service.FileStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/documentos")
 @RequiredArgsConstructor
 public class DocumentoController {
 
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
     private final DocumentoService documentoService;
+    private final FileStorageService fileStorageService;
 
     @GetMapping("/reserva/{reservaId}")
     public ResponseEntity<List<DocumentoDTO>> obtenerDocumentosPorReservaId(@PathVariable Long reservaId) {
@@ -42,15 +62,79 @@ public class DocumentoController {
         return new ResponseEntity<>(documentoDTO, HttpStatus.CREATED);
     }
 
+    // Subida sin multipart: el cuerpo de la petición es el archivo y se guarda a medida que llega,
+    // sin que Spring lo almacene completo antes
+    @PutMapping("/reserva/{reservaId}/archivo")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROVEEDOR')")
+    public ResponseEntity<DocumentoDTO> subirDocumentoDirecto(
+            @PathVariable Long reservaId,
+            @RequestParam("nombre") String nombre,
+            @RequestParam(value = "descripcion", required = false) String descripcion,
+            HttpServletRequest request) throws IOException {
+
+        DocumentoDTO documentoDTO = documentoService.guardarDocumento(reservaId, request.getInputStream(), nombre,
+                request.getContentType(), descripcion);
+        return new ResponseEntity<>(documentoDTO, HttpStatus.CREATED);
+    }
+
+    // Admite descargas parciales (Range, If-Range) y peticiones condicionales (If-None-Match, If-Modified-Since),
+    // así un cliente que reintenta continúa donde quedó en lugar de volver a bajar el archivo completo
     @GetMapping("/{id}/descargar")
-    public ResponseEntity<Resource> descargarDocumento(@PathVariable Long id) {
-        DocumentoDTO documento = documentoService.obtenerDocumentoPorId(id);
-        Resource resource = documentoService.descargarDocumento(id);
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(documento.getTipo()))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + documento.getNombre() + "\"")
-                .body(resource);
+    public void descargarDocumento(@PathVariable Long id, ServletWebRequest webRequest) throws IOException {
+        HttpServletRequest request = webRequest.getRequest();
+        HttpServletResponse response = webRequest.getResponse();
+
+        DescargaDocumentoDTO documento = documentoService.obtenerDescarga(id);
+
+        // Con almacenamiento en S3 el cliente descarga directamente del bucket con una URL firmada de corta
+        // duración; el bucket atiende los rangos y las peticiones condicionales
+        Optional<URI> descargaDirecta = fileStorageService.presignedDownload(documento.getRuta(),
+                documento.getNombre(), documento.getTipo());
+        if (descargaDirecta.isPresent()) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            response.setHeader(HttpHeaders.LOCATION, descargaDirecta.get().toString());
+            response.setStatus(HttpStatus.FOUND.value());
+            return;
+        }
+
+        long tamano = fileStorageService.size(documento.getRuta());
+        long ultimaModificacion = documento.getUpdatedAt() != null
+                ? documento.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+        String etag = "\"" + documento.getId() + "-" + tamano + "-" + ultimaModificacion + "\"";
+
+        // Responde 304 si el cliente ya tiene esta versión; en otro caso agrega ETag y Last-Modified
+        if (webRequest.checkNotModified(etag, ultimaModificacion)) {
+            return;
+        }
+
+        response.setContentType(documento.getTipo());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(documento.getNombre(), StandardCharsets.UTF_8).build().toString());
+
+        long inicio = 0;
+        long longitud = tamano;
+        List<HttpRange> rangos = rangosSolicitados(request, etag, ultimaModificacion);
+        // Con varios rangos se envía el archivo completo, como permite la especificación
+        if (rangos.size() == 1) {
+            // getRangeStart no valida contra el tamaño: un rango que empieza después del final no se puede atender
+            inicio = rangos.get(0).getRangeStart(tamano);
+            if (inicio >= tamano) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + tamano);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            longitud = rangos.get(0).getRangeEnd(tamano) - inicio + 1;
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + (inicio + longitud - 1) + "/" + tamano);
+        }
+        response.setContentLengthLong(longitud);
+
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+        enviarArchivo(request, response, documento.getRuta(), inicio, longitud);
     }
 
     @DeleteMapping("/{id}")
@@ -60,5 +144,51 @@ public class DocumentoController {
         return ResponseEntity.noContent().build();
     }
 
+    // Un If-Range que no coincide con la versión actual invalida el rango: se envía el archivo completo
+    private static List<HttpRange> rangosSolicitados(HttpServletRequest request, String etag, long ultimaModificacion) {
+        String rango = request.getHeader(HttpHeaders.RANGE);
+        if (rango == null) {
+            return List.of();
+        }
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            boolean vigente;
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                vigente = ifRange.equals(etag);
+            } else {
+                try {
+                    vigente = ultimaModificacion >= 0
+                            && request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == ultimaModificacion / 1000;
+                } catch (IllegalArgumentException e) {
+                    vigente = false;
+                }
+            }
+            if (!vigente) {
+                return List.of();
+            }
+        }
 
-}
\ No newline at end of file
+        try {
+            return HttpRange.parseRanges(rango);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    private void enviarArchivo(HttpServletRequest request, HttpServletResponse response, String ruta,
+                               long inicio, long longitud) throws IOException {
+        // Con el conector NIO de Tomcat (sin TLS) el núcleo copia el archivo al socket con sendfile
+        Optional<Path> archivo = fileStorageService.localFile(ruta);
+        if (archivo.isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))) {
+            request.setAttribute(SENDFILE_ARCHIVO, archivo.get().toString());
+            request.setAttribute(SENDFILE_INICIO, inicio);
+            request.setAttribute(SENDFILE_FIN, inicio + longitud);
+            return;
+        }
+
+        try (WritableByteChannel salida = Channels.newChannel(response.getOutputStream())) {
+            fileStorageService.transferTo(ruta, inicio, longitud, salida);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.logistica.agendamiento.controller;
+
+import com.logistica.agendamiento.exportacion.FormatoExportacion;
+import com.logistica.agendamiento.service.ExportacionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/exportaciones")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('ADMIN', 'AGENTE')")
+public class ExportacionController {
+
+    private final ExportacionService exportacionService;
+
+    @GetMapping("/reservas")
+    public ResponseEntity<StreamingResponseBody> exportarReservas(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "CSV") FormatoExportacion formato) {
+        return respuesta("reservas", desde, hasta, formato,
+                salida -> exportacionService.exportarReservas(desde, hasta, formato, salida));
+    }
+
+    @GetMapping("/registros-tiempo")
+    public ResponseEntity<StreamingResponseBody> exportarRegistrosTiempo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "CSV") FormatoExportacion formato) {
+        return respuesta("registros-tiempo", desde, hasta, formato,
+                salida -> exportacionService.exportarRegistrosTiempo(desde, hasta, formato, salida));
+    }
+
+    @GetMapping("/documentos")
+    public ResponseEntity<StreamingResponseBody> exportarDocumentos(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "CSV") FormatoExportacion formato) {
+        return respuesta("documentos", desde, hasta, formato,
+                salida -> exportacionService.exportarDocumentos(desde, hasta, formato, salida));
+    }
+
+    private ResponseEntity<StreamingResponseBody> respuesta(String nombre, LocalDate desde, LocalDate hasta,
+                                                           FormatoExportacion formato, StreamingResponseBody cuerpo) {
+        // Con el cuerpo en streaming el estado y las cabeceras salen antes de ejecutarlo
+        exportacionService.validarRango(desde, hasta);
+        String archivo = nombre + "_" + desde + "_" + hasta + "." + formato.getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getTipoContenido() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(archivo).build().toString())
+                .body(cuerpo);
+    }
+}
@@ -1,6 +1,10 @@
 package com.logistica.agendamiento.controller;
 
+import com.logistica.agendamiento.dto.CalendarioDisponibilidadDTO;
 import com.logistica.agendamiento.dto.DisponibilidadAndenDTO;
+import com.logistica.agendamiento.dto.FiltroReservaDTO;
+import com.logistica.agendamiento.dto.HorarioSugeridoDTO;
+import com.logistica.agendamiento.dto.PaginaReservasDTO;
 import com.logistica.agendamiento.dto.ReservaDTO;
 import com.logistica.agendamiento.dto.ReservaDetalleDTO;
 import com.logistica.agendamiento.entity.enums.EstadoReserva;
@@ -14,6 +18,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 @RestController
@@ -25,34 +30,51 @@ public class ReservaController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'GUARDIA', 'AGENTE')")
-    public ResponseEntity<List<ReservaDTO>> obtenerTodasLasReservas() {
-        return ResponseEntity.ok(reservaService.obtenerTodasLasReservas());
+    public ResponseEntity<PaginaReservasDTO> buscarReservas(
+            FiltroReservaDTO filtro,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(reservaService.buscarReservas(filtro, cursor, tamano));
     }
 
     @GetMapping("/fecha/{fecha}")
-    public ResponseEntity<List<ReservaDTO>> obtenerReservasPorFecha(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
-        return ResponseEntity.ok(reservaService.obtenerReservasPorFecha(fecha));
+    public ResponseEntity<PaginaReservasDTO> obtenerReservasPorFecha(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(reservaService.obtenerReservasPorFecha(fecha, cursor, tamano));
     }
 
     @GetMapping("/proveedor/{proveedorId}")
-    public ResponseEntity<List<ReservaDTO>> obtenerReservasPorProveedorId(@PathVariable Long proveedorId) {
-        return ResponseEntity.ok(reservaService.obtenerReservasPorProveedorId(proveedorId));
+    public ResponseEntity<PaginaReservasDTO> obtenerReservasPorProveedorId(
+            @PathVariable Long proveedorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(reservaService.obtenerReservasPorProveedorId(proveedorId, cursor, tamano));
     }
 
     @GetMapping("/area/{areaId}")
-    public ResponseEntity<List<ReservaDTO>> obtenerReservasPorAreaId(@PathVariable Long areaId) {
-        return ResponseEntity.ok(reservaService.obtenerReservasPorAreaId(areaId));
+    public ResponseEntity<PaginaReservasDTO> obtenerReservasPorAreaId(
+            @PathVariable Long areaId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(reservaService.obtenerReservasPorAreaId(areaId, cursor, tamano));
     }
 
     @GetMapping("/anden/{andenId}")
-    public ResponseEntity<List<ReservaDTO>> obtenerReservasPorAndenId(@PathVariable Long andenId) {
-        return ResponseEntity.ok(reservaService.obtenerReservasPorAndenId(andenId));
+    public ResponseEntity<PaginaReservasDTO> obtenerReservasPorAndenId(
+            @PathVariable Long andenId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(reservaService.obtenerReservasPorAndenId(andenId, cursor, tamano));
     }
 
     @GetMapping("/estado/{estado}")
-    public ResponseEntity<List<ReservaDTO>> obtenerReservasPorEstado(@PathVariable EstadoReserva estado) {
-        return ResponseEntity.ok(reservaService.obtenerReservasPorEstado(estado));
+    public ResponseEntity<PaginaReservasDTO> obtenerReservasPorEstado(
+            @PathVariable EstadoReserva estado,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(reservaService.obtenerReservasPorEstado(estado, cursor, tamano));
     }
 
     @GetMapping("/{id}")
@@ -96,4 +118,36 @@ public class ReservaController {
             @RequestParam(required = false) Long tipoServicioId) {
         return ResponseEntity.ok(reservaService.obtenerDisponibilidadPorFechaYArea(fecha, areaId, tipoServicioId));
     }
+
+    @GetMapping("/disponibilidad/horarios")
+    public ResponseEntity<List<HorarioSugeridoDTO>> obtenerHorariosDisponibles(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam Long areaId,
+            @RequestParam(required = false) Long tipoServicioId,
+            @RequestParam int duracionMinutos,
+            @RequestParam(defaultValue = "5") int cantidad) {
+        return ResponseEntity.ok(reservaService.obtenerHorariosDisponibles(fecha, areaId, tipoServicioId,
+                duracionMinutos, cantidad));
+    }
+
+    @GetMapping("/disponibilidad/sugerencias")
+    public ResponseEntity<List<HorarioSugeridoDTO>> obtenerSugerencias(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam Long areaId,
+            @RequestParam(required = false) Long tipoServicioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime horaInicio,
+            @RequestParam int duracionMinutos,
+            @RequestParam(defaultValue = "5") int cantidad) {
+        return ResponseEntity.ok(reservaService.obtenerSugerencias(fecha, areaId, tipoServicioId, horaInicio,
+                duracionMinutos, cantidad));
+    }
+
+    @GetMapping("/disponibilidad/calendario")
+    public ResponseEntity<CalendarioDisponibilidadDTO> obtenerCalendarioDisponibilidad(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam Long areaId,
+            @RequestParam(required = false) Long tipoServicioId) {
+        return ResponseEntity.ok(reservaService.obtenerCalendarioDisponibilidad(desde, hasta, areaId, tipoServicioId));
+    }
 }
\ No newline at end of file
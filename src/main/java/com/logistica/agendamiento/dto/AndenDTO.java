@@ -1,5 +1,6 @@
 package com.logistica.agendamiento.dto;
 
+import com.logistica.agendamiento.entity.enums.CaracteristicaAnden;
 import com.logistica.agendamiento.entity.enums.EstadoAnden;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -7,6 +8,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Set;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,4 +33,7 @@ public class AndenDTO {
 
     @NotNull(message = "Debe especificar si es exclusivo para contenedores")
     private Boolean exclusivoContenedor = false;
+
+    // Si no se indican, se deducen de exclusivoContenedor (CONTENEDOR o CARGA_GENERAL)
+    private Set<CaracteristicaAnden> caracteristicas;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.logistica.agendamiento.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CalendarioDisponibilidadDTO {
+
+    private LocalDate desde;
+    private LocalDate hasta;
+    private Long areaId;
+    private Long tipoServicioId;
+    private int andenes;
+    // Minutos reservables por día sumando todos los andenes considerados
+    private long capacidadMinutosDia;
+    private List<DiaCalendarioDTO> dias = new ArrayList<>();
+}
@@ -0,0 +1,17 @@
+package com.logistica.agendamiento.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Contenido subido a un archivo temporal, ya con su SHA-256 calculado; ruta es donde quedará al confirmarse
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContenidoAlmacenadoDTO {
+
+    private String hash;
+    private String ruta;
+    private Long tamano;
+    private String rutaTemporal;
+}
@@ -0,0 +1,17 @@
+package com.logistica.agendamiento.dto;
+
+import com.logistica.agendamiento.entity.enums.TipoNotificacion;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CorreoReservaDTO {
+
+    private Long notificacionId;
+    private TipoNotificacion tipo;
+    private ReservaDetalleDTO reserva;
+    private String destinatario;
+}
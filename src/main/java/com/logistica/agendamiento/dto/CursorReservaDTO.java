@@ -0,0 +1,19 @@
+package com.logistica.agendamiento.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Posición de la última reserva entregada, en el orden (fecha, horaInicio, id) de la búsqueda
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorReservaDTO {
+
+    private LocalDate fecha;
+    private LocalTime horaInicio;
+    private Long id;
+}
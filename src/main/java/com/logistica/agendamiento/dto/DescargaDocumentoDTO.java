@@ -0,0 +1,20 @@
+package com.logistica.agendamiento.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Datos mínimos para servir la descarga de un documento
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DescargaDocumentoDTO {
+
+    private Long id;
+    private String nombre;
+    private String ruta;
+    private String tipo;
+    private LocalDateTime updatedAt;
+}
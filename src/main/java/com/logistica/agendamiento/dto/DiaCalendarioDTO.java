@@ -0,0 +1,19 @@
+package com.logistica.agendamiento.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiaCalendarioDTO {
+
+    private LocalDate fecha;
+    private long reservas;
+    private long minutosLibres;
+    // Porcentaje (0-100) de la capacidad del día ya reservada
+    private int ocupacion;
+}
@@ -1,10 +1,12 @@
 package com.logistica.agendamiento.dto;
 
+import com.logistica.agendamiento.entity.enums.CaracteristicaAnden;
 import com.logistica.agendamiento.entity.enums.EstadoAnden;
 import lombok.Data;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Data
 public class DisponibilidadAndenDTO {
@@ -15,5 +17,7 @@ public class DisponibilidadAndenDTO {
     private String areaNombre;
     private EstadoAnden estadoActual;
     private Boolean exclusivoContenedor;
+    private Set<CaracteristicaAnden> caracteristicas;
     private List<HorarioReservadoDTO> horariosReservados = new ArrayList<>();
+    private List<HorarioDisponibleDTO> horariosDisponibles = new ArrayList<>();
 }
\ No newline at end of file
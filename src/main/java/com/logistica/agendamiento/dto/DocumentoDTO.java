@@ -1,10 +1,14 @@
 package com.logistica.agendamiento.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class DocumentoDTO {
 
     private Long id;
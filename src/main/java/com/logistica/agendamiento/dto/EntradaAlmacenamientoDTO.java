@@ -0,0 +1,18 @@
+package com.logistica.agendamiento.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Archivo presente en el almacenamiento, tal como lo ve el barrido de huérfanos
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntradaAlmacenamientoDTO {
+
+    private String ruta;
+    private Long tamano;
+    private Instant modificado;
+}
@@ -0,0 +1,15 @@
+package com.logistica.agendamiento.dto;
+
+import com.logistica.agendamiento.entity.enums.EstadoAnden;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadoAndenDTO {
+
+    private Long andenId;
+    private EstadoAnden estado;
+}
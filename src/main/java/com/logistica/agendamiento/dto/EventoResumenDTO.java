@@ -0,0 +1,22 @@
+package com.logistica.agendamiento.dto;
+
+import com.logistica.agendamiento.entity.enums.TipoNotificacion;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoResumenDTO {
+
+    private TipoNotificacion tipo;
+    private Long reservaId;
+    private String proveedorNombre;
+    private LocalDate fecha;
+    private LocalTime horaInicio;
+    private LocalTime horaFin;
+}
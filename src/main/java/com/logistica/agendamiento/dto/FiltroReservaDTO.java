@@ -0,0 +1,24 @@
+package com.logistica.agendamiento.dto;
+
+import com.logistica.agendamiento.entity.enums.EstadoReserva;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+public class FiltroReservaDTO {
+
+    private Long proveedorId;
+    private Long areaId;
+    private Long andenId;
+    private EstadoReserva estado;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate fechaDesde;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate fechaHasta;
+
+    private String placa;
+}
@@ -0,0 +1,18 @@
+package com.logistica.agendamiento.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GrupoResumenDTO {
+
+    private String areaNombre;
+    private Integer andenNumero;
+    private List<EventoResumenDTO> eventos = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.logistica.agendamiento.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HorarioDisponibleDTO {
+
+    private LocalTime horaInicio;
+    private LocalTime horaFin;
+}
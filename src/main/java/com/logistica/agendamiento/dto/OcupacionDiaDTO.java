@@ -0,0 +1,17 @@
+package com.logistica.agendamiento.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcupacionDiaDTO {
+
+    private LocalDate fecha;
+    private Long reservas;
+    private Long minutosOcupados;
+}
@@ -0,0 +1,18 @@
+package com.logistica.agendamiento.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaReservasDTO {
+
+    private List<ReservaDTO> contenido = new ArrayList<>();
+    // Se envía en la siguiente petición para continuar; es null cuando no hay más resultados
+    private String siguienteCursor;
+}
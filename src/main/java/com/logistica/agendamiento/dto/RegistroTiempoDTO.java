@@ -1,11 +1,15 @@
 package com.logistica.agendamiento.dto;
 
 import com.logistica.agendamiento.entity.enums.TipoRegistro;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class RegistroTiempoDTO {
 
     private Long id;
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -12,6 +13,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Data
+@NoArgsConstructor
 public class ReservaDTO {
 
     private Long id;
@@ -26,7 +28,7 @@ public class ReservaDTO {
 
     private String areaNombre;
 
-    @NotNull(message = "El ID del andén es obligatorio")
+    // Sin andén, la reserva se asigna al andén compatible del área que mejor aprovecha su agenda
     private Long andenId;
 
     private Integer andenNumero;
@@ -77,4 +79,25 @@ public class ReservaDTO {
 
     // Datos de los ayudantes
     private List<AyudanteDTO> ayudantes = new ArrayList<>();
-}
\ No newline at end of file
+
+    // Usado por las consultas de listado, que proyectan la reserva directamente sin cargar entidades
+    public ReservaDTO(Long id, Long proveedorId, String proveedorNombre, Long areaId, String areaNombre,
+                      Long andenId, Integer andenNumero, Long tipoServicioId, String tipoServicioNombre,
+                      LocalDate fecha, LocalTime horaInicio, LocalTime horaFin, EstadoReserva estado,
+                      String transportePlaca) {
+        this.id = id;
+        this.proveedorId = proveedorId;
+        this.proveedorNombre = proveedorNombre;
+        this.areaId = areaId;
+        this.areaNombre = areaNombre;
+        this.andenId = andenId;
+        this.andenNumero = andenNumero;
+        this.tipoServicioId = tipoServicioId;
+        this.tipoServicioNombre = tipoServicioNombre;
+        this.fecha = fecha;
+        this.horaInicio = horaInicio;
+        this.horaFin = horaFin;
+        this.estado = estado;
+        this.transportePlaca = transportePlaca;
+    }
+}
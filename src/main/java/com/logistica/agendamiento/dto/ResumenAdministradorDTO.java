@@ -0,0 +1,23 @@
+package com.logistica.agendamiento.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenAdministradorDTO {
+
+    private LocalDateTime desde;
+    private LocalDateTime hasta;
+    private int reservasNuevas;
+    private int reservasCanceladas;
+
+    // Eventos agrupados por área y andén
+    private List<GrupoResumenDTO> grupos = new ArrayList<>();
+}
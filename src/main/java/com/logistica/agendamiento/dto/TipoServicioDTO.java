@@ -1,11 +1,14 @@
 package com.logistica.agendamiento.dto;
 
+import com.logistica.agendamiento.entity.enums.CaracteristicaAnden;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Set;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,4 +21,7 @@ public class TipoServicioDTO {
     private String nombre;
 
     private String descripcion;
+
+    // Características que debe ofrecer el andén; si no se indican al crear, CARGA_GENERAL
+    private Set<CaracteristicaAnden> caracteristicasRequeridas;
 }
\ No newline at end of file
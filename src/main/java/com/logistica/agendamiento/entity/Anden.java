@@ -1,5 +1,6 @@
 package com.logistica.agendamiento.entity;
 
+import com.logistica.agendamiento.entity.enums.CaracteristicaAnden;
 import com.logistica.agendamiento.entity.enums.EstadoAnden;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -13,6 +14,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "anden", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"area_id", "numero"})
+}, indexes = {
+        @Index(name = "idx_anden_area_caracteristicas", columnList = "area_id, caracteristicas")
 })
 @Data
 @NoArgsConstructor
@@ -39,6 +42,10 @@ public class Anden {
     @Column(nullable = false)
     private Boolean exclusivoContenedor = false;
 
+    // Máscara de CaracteristicaAnden; exclusivoContenedor se mantiene como vista de la misma información
+    @Column(nullable = false)
+    private Integer caracteristicas = CaracteristicaAnden.CARGA_GENERAL.getBit();
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,46 @@
+package com.logistica.agendamiento.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+// Contenido guardado una sola vez por su SHA-256; varios documentos pueden apuntar al mismo archivo.
+// referencias cuenta esos documentos y el archivo se elimina cuando llega a cero.
+@Entity
+@Table(name = "archivo_almacenado", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"hash"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivoAlmacenado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // SHA-256 en hexadecimal
+    @Column(nullable = false, length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private String ruta;
+
+    @Column(nullable = false)
+    private Long tamano;
+
+    @Column(nullable = false)
+    private Integer referencias = 0;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
@@ -10,7 +10,9 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "documento")
+@Table(name = "documento", indexes = {
+        @Index(name = "idx_documento_ruta", columnList = "ruta")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,6 +32,11 @@ public class Documento {
     @Column(nullable = false)
     private String ruta;
 
+    // Contenido compartido; es nulo en documentos subidos antes del almacenamiento por hash
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "archivo_id")
+    private ArchivoAlmacenado archivo;
+
     @Column(nullable = false)
     private String tipo;
 
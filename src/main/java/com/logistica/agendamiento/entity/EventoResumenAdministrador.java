@@ -0,0 +1,53 @@
+package com.logistica.agendamiento.entity;
+
+import com.logistica.agendamiento.entity.enums.TipoNotificacion;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Reserva nueva o cancelada pendiente de incluirse en el resumen periódico al administrador
+@Entity
+@Table(name = "evento_resumen_administrador", indexes = {
+        @Index(name = "idx_evento_resumen_enviado", columnList = "enviado, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoResumenAdministrador {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoNotificacion tipo;
+
+    @Column(name = "reserva_id", nullable = false)
+    private Long reservaId;
+
+    private String proveedorNombre;
+
+    private String areaNombre;
+
+    private Integer andenNumero;
+
+    private LocalDate fecha;
+
+    private LocalTime horaInicio;
+
+    private LocalTime horaFin;
+
+    @Column(nullable = false)
+    private Boolean enviado = false;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,77 @@
+package com.logistica.agendamiento.entity;
+
+import com.logistica.agendamiento.entity.enums.EstadoNotificacion;
+import com.logistica.agendamiento.entity.enums.TipoNotificacion;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+// Bandeja de salida: la notificación se guarda en la misma transacción que el cambio de la reserva
+// y un proceso en segundo plano la envía después del commit
+@Entity
+@Table(name = "notificacion_pendiente", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"clave_deduplicacion"})
+}, indexes = {
+        @Index(name = "idx_notificacion_estado_proximo", columnList = "estado, proximo_intento")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificacionPendiente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoNotificacion tipo;
+
+    @Column(name = "reserva_id", nullable = false)
+    private Long reservaId;
+
+    @Column(nullable = false)
+    private String destinatario;
+
+    // Evita registrar dos veces la misma notificación (por ejemplo, por un reintento del cliente)
+    @Column(name = "clave_deduplicacion", nullable = false, length = 200)
+    private String claveDeduplicacion;
+
+    // Datos de la reserva en el momento del cambio, en JSON
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String datos;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoNotificacion estado = EstadoNotificacion.PENDIENTE;
+
+    @Column(nullable = false)
+    private Integer intentos = 0;
+
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    // Mientras está EN_PROCESO, momento en que otro nodo puede volver a tomarla si este no terminó
+    private LocalDateTime reclamadaHasta;
+
+    // Identifica el reclamo vigente: solo el nodo que lo tiene puede registrar el resultado del envío
+    @Column(length = 36)
+    private String reclamo;
+
+    @Column(columnDefinition = "TEXT")
+    private String ultimoError;
+
+    private LocalDateTime enviadaAt;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
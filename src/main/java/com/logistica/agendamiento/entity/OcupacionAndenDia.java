@@ -0,0 +1,37 @@
+package com.logistica.agendamiento.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ocupacion_anden_dia", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"anden_id", "fecha"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcupacionAndenDia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "anden_id", nullable = false)
+    private Long andenId;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    // Un bit por minuto del día; es null hasta que se construye a partir de las reservas existentes
+    @Column(length = 180)
+    private byte[] minutos;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
@@ -15,8 +15,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "reserva", uniqueConstraints = {
-        @UniqueConstraint(columnNames = {"anden_id", "fecha", "hora_inicio"})
+@Table(name = "reserva", indexes = {
+        @Index(name = "idx_reserva_anden_fecha", columnList = "anden_id, fecha, hora_inicio"),
+        @Index(name = "idx_reserva_fecha", columnList = "fecha, hora_inicio"),
+        @Index(name = "idx_reserva_proveedor_fecha", columnList = "proveedor_id, fecha, hora_inicio"),
+        @Index(name = "idx_reserva_area_fecha", columnList = "area_id, fecha, hora_inicio"),
+        @Index(name = "idx_reserva_estado_fecha", columnList = "estado, fecha, hora_inicio")
 })
 @Data
 @NoArgsConstructor
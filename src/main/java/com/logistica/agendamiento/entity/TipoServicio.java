@@ -1,5 +1,6 @@
 package com.logistica.agendamiento.entity;
 
+import com.logistica.agendamiento.entity.enums.CaracteristicaAnden;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -25,6 +26,10 @@ public class TipoServicio {
 
     private String descripcion;
 
+    // Máscara de CaracteristicaAnden que debe ofrecer el andén
+    @Column(nullable = false)
+    private Integer caracteristicasRequeridas = CaracteristicaAnden.CARGA_GENERAL.getBit();
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
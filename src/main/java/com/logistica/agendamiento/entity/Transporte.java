@@ -12,7 +12,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "transporte")
+@Table(name = "transporte", indexes = {
+        @Index(name = "idx_transporte_placa", columnList = "placa")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,22 @@
+package com.logistica.agendamiento.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Fila única con la versión de los catálogos (áreas, tipos de servicio y andenes). Cada cambio la incrementa
+// y los demás nodos, al ver una versión distinta, recargan su copia en memoria.
+@Entity
+@Table(name = "version_catalogo")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionCatalogo {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long version;
+}
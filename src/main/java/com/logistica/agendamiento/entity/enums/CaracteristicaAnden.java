@@ -0,0 +1,64 @@
+package com.logistica.agendamiento.entity.enums;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+// Características que ofrece un andén y que exige un tipo de servicio. Se guardan como máscara de bits con un
+// bit fijo por valor (no reordenar ni reutilizar bits). Un andén es compatible con un tipo de servicio si
+// ofrece todas las características que este exige; un andén sin CARGA_GENERAL es exclusivo de los servicios
+// que exigen lo que ofrece (p. ej. solo CONTENEDOR).
+public enum CaracteristicaAnden {
+    CARGA_GENERAL(1),
+    CONTENEDOR(1 << 1),
+    REFRIGERADO(1 << 2),
+    GRAN_TONELAJE(1 << 3);
+
+    private static final int TODAS = mascara(EnumSet.allOf(CaracteristicaAnden.class));
+
+    private final int bit;
+
+    CaracteristicaAnden(int bit) {
+        this.bit = bit;
+    }
+
+    public int getBit() {
+        return bit;
+    }
+
+    public static boolean cumple(int ofrecidas, int requeridas) {
+        return (ofrecidas & requeridas) == requeridas;
+    }
+
+    public static int mascara(Collection<CaracteristicaAnden> caracteristicas) {
+        int mascara = 0;
+        for (CaracteristicaAnden caracteristica : caracteristicas) {
+            mascara |= caracteristica.bit;
+        }
+        return mascara;
+    }
+
+    public static Set<CaracteristicaAnden> de(int mascara) {
+        Set<CaracteristicaAnden> caracteristicas = EnumSet.noneOf(CaracteristicaAnden.class);
+        for (CaracteristicaAnden caracteristica : values()) {
+            if ((mascara & caracteristica.bit) != 0) {
+                caracteristicas.add(caracteristica);
+            }
+        }
+        return caracteristicas;
+    }
+
+    // Todas las máscaras posibles que incluyen las requeridas: la consulta filtra con IN sobre la columna
+    // indexada en lugar de aplicar una operación de bits a cada fila
+    public static List<Integer> mascarasQueCumplen(int requeridas) {
+        List<Integer> mascaras = new ArrayList<>();
+        for (int mascara = 0; mascara <= TODAS; mascara++) {
+            if ((mascara & ~TODAS) == 0 && cumple(mascara, requeridas)) {
+                mascaras.add(mascara);
+            }
+        }
+        return mascaras;
+    }
+}
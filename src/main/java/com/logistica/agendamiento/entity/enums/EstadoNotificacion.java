@@ -0,0 +1,8 @@
+package com.logistica.agendamiento.entity.enums;
+
+public enum EstadoNotificacion {
+    PENDIENTE,
+    EN_PROCESO,
+    ENVIADA,
+    FALLIDA
+}
@@ -0,0 +1,7 @@
+package com.logistica.agendamiento.entity.enums;
+
+public enum TipoNotificacion {
+    CONFIRMACION_RESERVA,
+    CAMBIO_ESTADO,
+    CANCELACION_RESERVA
+}
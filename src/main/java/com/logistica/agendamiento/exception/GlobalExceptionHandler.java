@@ -59,6 +59,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(HorarioNoDisponibleException.class)
+    public ResponseEntity<HorarioNoDisponibleResponse> handleHorarioNoDisponibleException(
+            HorarioNoDisponibleException ex, WebRequest request) {
+
+        HorarioNoDisponibleResponse errorResponse = new HorarioNoDisponibleResponse(
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false),
+                ex.getAlternativas()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ErrorResponse> handleAccessDeniedException(
             AccessDeniedException ex, WebRequest request) {
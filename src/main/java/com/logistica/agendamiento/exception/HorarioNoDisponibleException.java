@@ -0,0 +1,28 @@
+package com.logistica.agendamiento.exception;
+
+import com.logistica.agendamiento.dto.HorarioSugeridoDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.List;
+
+// El horario pedido está ocupado; lleva los horarios alternativos ordenados de mejor a peor.
+// Extiende BadRequestException para que quien ya atrapaba el rechazo lo siga haciendo
+@ResponseStatus(HttpStatus.CONFLICT)
+public class HorarioNoDisponibleException extends BadRequestException {
+
+    private final List<HorarioSugeridoDTO> alternativas;
+
+    public HorarioNoDisponibleException(String message) {
+        this(message, List.of());
+    }
+
+    public HorarioNoDisponibleException(String message, List<HorarioSugeridoDTO> alternativas) {
+        super(message);
+        this.alternativas = alternativas;
+    }
+
+    public List<HorarioSugeridoDTO> getAlternativas() {
+        return alternativas;
+    }
+}
@@ -0,0 +1,21 @@
+package com.logistica.agendamiento.exception;
+
+import com.logistica.agendamiento.dto.HorarioSugeridoDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HorarioNoDisponibleResponse {
+
+    private int status;
+    private String mensaje;
+    private LocalDateTime timestamp;
+    private String ruta;
+    private List<HorarioSugeridoDTO> alternativas;
+}
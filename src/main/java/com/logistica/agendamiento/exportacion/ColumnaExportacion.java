@@ -0,0 +1,17 @@
+package com.logistica.agendamiento.exportacion;
+
+import lombok.Value;
+
+import java.util.function.Function;
+
+// Nombre de la columna (o del campo en NDJSON) y cómo obtener su valor de cada fila
+@Value
+public class ColumnaExportacion<T> {
+
+    String nombre;
+    Function<T, Object> valor;
+
+    public static <T> ColumnaExportacion<T> de(String nombre, Function<T, Object> valor) {
+        return new ColumnaExportacion<>(nombre, valor);
+    }
+}
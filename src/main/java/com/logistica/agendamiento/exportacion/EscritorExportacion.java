@@ -0,0 +1,94 @@
+package com.logistica.agendamiento.exportacion;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Escribe cada fila apenas se lee del cursor de la base de datos; no acumula el resultado en memoria
+@Component
+@RequiredArgsConstructor
+public class EscritorExportacion {
+
+    private final ObjectMapper objectMapper;
+
+    public <T> long escribir(Stream<T> filas, List<ColumnaExportacion<T>> columnas,
+                             FormatoExportacion formato, OutputStream salida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        long total = formato == FormatoExportacion.CSV
+                ? escribirCsv(filas.iterator(), columnas, writer)
+                : escribirNdjson(filas.iterator(), columnas, writer);
+        writer.flush();
+        return total;
+    }
+
+    private <T> long escribirNdjson(Iterator<T> filas, List<ColumnaExportacion<T>> columnas, Writer writer)
+            throws IOException {
+        // Sin vaciar el buffer por cada valor: se envía al cliente a medida que se llena
+        ObjectWriter escritorValores = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Cada objeto va en su propia línea: sin el espacio que Jackson pone por defecto entre valores raíz
+        generator.setRootValueSeparator(null);
+
+        long total = 0;
+        while (filas.hasNext()) {
+            T fila = filas.next();
+            generator.writeStartObject();
+            for (ColumnaExportacion<T> columna : columnas) {
+                generator.writeFieldName(columna.getNombre());
+                escritorValores.writeValue(generator, columna.getValor().apply(fila));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            total++;
+        }
+        generator.flush();
+        return total;
+    }
+
+    private <T> long escribirCsv(Iterator<T> filas, List<ColumnaExportacion<T>> columnas, Writer writer)
+            throws IOException {
+        for (int i = 0; i < columnas.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escaparCsv(columnas.get(i).getNombre()));
+        }
+        writer.write("\r\n");
+
+        long total = 0;
+        while (filas.hasNext()) {
+            T fila = filas.next();
+            for (int i = 0; i < columnas.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object valor = columnas.get(i).getValor().apply(fila);
+                writer.write(valor == null ? "" : escaparCsv(valor.toString()));
+            }
+            writer.write("\r\n");
+            total++;
+        }
+        return total;
+    }
+
+    private static String escaparCsv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
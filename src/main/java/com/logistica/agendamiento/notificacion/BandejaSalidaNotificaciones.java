@@ -0,0 +1,71 @@
+package com.logistica.agendamiento.notificacion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistica.agendamiento.dto.ReservaDetalleDTO;
+import com.logistica.agendamiento.entity.NotificacionPendiente;
+import com.logistica.agendamiento.entity.enums.TipoNotificacion;
+import com.logistica.agendamiento.repository.NotificacionPendienteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+// Registra notificaciones dentro de la transacción que modifica la reserva: si esta se revierte,
+// la notificación también, y si se confirma, queda guardada aunque la aplicación se reinicie
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BandejaSalidaNotificaciones {
+
+    private final NotificacionPendienteRepository notificacionRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(TipoNotificacion tipo, ReservaDetalleDTO reserva, String destinatario) {
+        String clave = claveDeduplicacion(tipo, reserva, destinatario);
+        if (notificacionRepository.existsByClaveDeduplicacion(clave)) {
+            log.debug("Notificación ya registrada: {}", clave);
+            return;
+        }
+
+        NotificacionPendiente notificacion = new NotificacionPendiente();
+        notificacion.setTipo(tipo);
+        notificacion.setReservaId(reserva.getId());
+        notificacion.setDestinatario(destinatario);
+        notificacion.setClaveDeduplicacion(clave);
+        notificacion.setDatos(serializar(reserva));
+        notificacion.setProximoIntento(LocalDateTime.now());
+        notificacionRepository.save(notificacion);
+
+        // Solo cuentan las notificaciones que llegan a confirmarse junto con la reserva
+        String etiqueta = tipo.name();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                meterRegistry.counter("notificaciones.encoladas", "tipo", etiqueta).increment();
+            }
+        });
+    }
+
+    // Un cambio de estado se notifica una vez por estado alcanzado; el resto, una vez por reserva
+    private static String claveDeduplicacion(TipoNotificacion tipo, ReservaDetalleDTO reserva, String destinatario) {
+        String clave = tipo + ":" + reserva.getId() + ":" + destinatario;
+        return tipo == TipoNotificacion.CAMBIO_ESTADO ? clave + ":" + reserva.getEstado() : clave;
+    }
+
+    private String serializar(ReservaDetalleDTO reserva) {
+        try {
+            return objectMapper.writeValueAsString(reserva);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la reserva " + reserva.getId(), e);
+        }
+    }
+}
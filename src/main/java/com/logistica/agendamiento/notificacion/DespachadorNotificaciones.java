@@ -0,0 +1,197 @@
+package com.logistica.agendamiento.notificacion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistica.agendamiento.config.CorreoProperties;
+import com.logistica.agendamiento.config.NotificacionesProperties;
+import com.logistica.agendamiento.dto.CorreoReservaDTO;
+import com.logistica.agendamiento.dto.ReservaDetalleDTO;
+import com.logistica.agendamiento.entity.NotificacionPendiente;
+import com.logistica.agendamiento.entity.enums.EstadoNotificacion;
+import com.logistica.agendamiento.repository.NotificacionPendienteRepository;
+import com.logistica.agendamiento.service.EmailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Envía las notificaciones de la bandeja de salida fuera de las peticiones.
+// Cada lote se reclama en una transacción corta (SKIP LOCKED) y se marca EN_PROCESO, así el envío por SMTP
+// no mantiene filas bloqueadas y varios nodos pueden despachar a la vez sin repetir trabajo.
+// La entrega es "al menos una vez": si un nodo se detiene a mitad de un lote, otro lo retoma al vencer el reclamo.
+@Component
+@Slf4j
+public class DespachadorNotificaciones {
+
+    private final NotificacionPendienteRepository notificacionRepository;
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+    private final NotificacionesProperties propiedades;
+    private final CorreoProperties correoProperties;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    public DespachadorNotificaciones(NotificacionPendienteRepository notificacionRepository,
+                                     EmailService emailService,
+                                     ObjectMapper objectMapper,
+                                     NotificacionesProperties propiedades,
+                                     CorreoProperties correoProperties,
+                                     MeterRegistry meterRegistry,
+                                     PlatformTransactionManager transactionManager) {
+        this.notificacionRepository = notificacionRepository;
+        this.emailService = emailService;
+        this.objectMapper = objectMapper;
+        this.propiedades = propiedades;
+        this.correoProperties = correoProperties;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notificaciones.intervalo-ms:5000}")
+    public void despachar() {
+        if (!propiedades.isDespachoHabilitado()) {
+            return;
+        }
+
+        List<NotificacionPendiente> lote;
+        do {
+            String reclamo = UUID.randomUUID().toString();
+            LocalDateTime vence = LocalDateTime.now().plusSeconds(propiedades.getReclamoSegundos());
+            lote = reclamarLote(reclamo, vence);
+            enviar(lote, reclamo, vence);
+        } while (lote.size() == propiedades.getTamanoLote() && !Thread.currentThread().isInterrupted());
+    }
+
+    private List<NotificacionPendiente> reclamarLote(String reclamo, LocalDateTime vence) {
+        return transactionTemplate.execute(status -> {
+            List<NotificacionPendiente> lote = notificacionRepository.findParaDespachar(
+                    LocalDateTime.now(), PageRequest.of(0, propiedades.getTamanoLote()));
+            for (NotificacionPendiente notificacion : lote) {
+                notificacion.setEstado(EstadoNotificacion.EN_PROCESO);
+                notificacion.setReclamadaHasta(vence);
+                notificacion.setReclamo(reclamo);
+            }
+            return lote;
+        });
+    }
+
+    // El lote se reparte entre los hilos de correo; cada parte viaja por una sola conexión SMTP.
+    // La espera total se acota al vencimiento del reclamo: después de eso el lote ya no es de este nodo
+    private void enviar(List<NotificacionPendiente> lote, String reclamo, LocalDateTime vence) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        Map<Long, Exception> fallos = new HashMap<>();
+        List<CorreoReservaDTO> correos = new ArrayList<>(lote.size());
+        for (NotificacionPendiente notificacion : lote) {
+            try {
+                ReservaDetalleDTO reserva = objectMapper.readValue(notificacion.getDatos(), ReservaDetalleDTO.class);
+                correos.add(new CorreoReservaDTO(notificacion.getId(), notificacion.getTipo(), reserva,
+                        notificacion.getDestinatario()));
+            } catch (JsonProcessingException e) {
+                fallos.put(notificacion.getId(), e);
+            }
+        }
+
+        int porSesion = Math.max(1, Math.min(correoProperties.getMensajesPorSesion(),
+                (correos.size() + correoProperties.getHilos() - 1) / correoProperties.getHilos()));
+        List<List<CorreoReservaDTO>> partes = new ArrayList<>();
+        List<CompletableFuture<Map<Long, Exception>>> envios = new ArrayList<>();
+        for (int i = 0; i < correos.size(); i += porSesion) {
+            List<CorreoReservaDTO> parte = correos.subList(i, Math.min(i + porSesion, correos.size()));
+            partes.add(parte);
+            envios.add(emailService.enviarLote(parte));
+        }
+
+        for (int i = 0; i < envios.size(); i++) {
+            try {
+                long restante = Math.max(0, Duration.between(LocalDateTime.now(), vence).toMillis());
+                fallos.putAll(envios.get(i).get(restante, TimeUnit.MILLISECONDS));
+            } catch (ExecutionException e) {
+                registrarFalloParte(partes.get(i), fallos, e.getCause() instanceof Exception causa ? causa : e);
+            } catch (TimeoutException e) {
+                registrarFalloParte(partes.get(i), fallos, e);
+            } catch (InterruptedException e) {
+                // Al apagar: lo que quede EN_PROCESO se retoma cuando venza el reclamo
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        registrarResultados(lote, reclamo, fallos);
+    }
+
+    private static void registrarFalloParte(List<CorreoReservaDTO> parte, Map<Long, Exception> fallos, Exception error) {
+        parte.forEach(correo -> fallos.put(correo.getNotificacionId(), error));
+    }
+
+    // Los resultados del lote se guardan en una sola transacción, solo para las filas que este nodo sigue
+    // teniendo reclamadas; si el reclamo venció y otro nodo las tomó, el resultado lo registra ese nodo
+    private void registrarResultados(List<NotificacionPendiente> lote, String reclamo, Map<Long, Exception> fallos) {
+        List<Long> ids = lote.stream().map(NotificacionPendiente::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<NotificacionPendiente> reclamadas = notificacionRepository.findReclamadas(ids, reclamo);
+            if (reclamadas.size() < ids.size()) {
+                log.warn("{} notificaciones del lote fueron retomadas por otro nodo tras vencer el reclamo",
+                        ids.size() - reclamadas.size());
+            }
+            for (NotificacionPendiente notificacion : reclamadas) {
+                Exception error = fallos.get(notificacion.getId());
+                if (error == null) {
+                    marcarEnviada(notificacion);
+                } else {
+                    registrarError(notificacion, error);
+                }
+            }
+        });
+    }
+
+    private void marcarEnviada(NotificacionPendiente notificacion) {
+        notificacion.setEstado(EstadoNotificacion.ENVIADA);
+        notificacion.setEnviadaAt(LocalDateTime.now());
+        notificacion.setReclamadaHasta(null);
+        notificacion.setReclamo(null);
+        notificacion.setUltimoError(null);
+        meterRegistry.counter("notificaciones.despachadas", "resultado", "enviada").increment();
+    }
+
+    // Reintento con espera exponencial; al agotar los intentos queda FALLIDA para revisión manual
+    private void registrarError(NotificacionPendiente notificacion, Exception error) {
+        int intentos = notificacion.getIntentos() + 1;
+        notificacion.setIntentos(intentos);
+        notificacion.setReclamadaHasta(null);
+        notificacion.setReclamo(null);
+        notificacion.setUltimoError(String.valueOf(error));
+
+        if (intentos >= propiedades.getMaxIntentos()) {
+            notificacion.setEstado(EstadoNotificacion.FALLIDA);
+            meterRegistry.counter("notificaciones.despachadas", "resultado", "fallida").increment();
+            log.error("Notificación {} descartada tras {} intentos: {}", notificacion.getId(), intentos, error.toString());
+        } else {
+            notificacion.setEstado(EstadoNotificacion.PENDIENTE);
+            notificacion.setProximoIntento(LocalDateTime.now().plusSeconds(espera(intentos)));
+            meterRegistry.counter("notificaciones.despachadas", "resultado", "reintento").increment();
+            log.warn("Notificación {} falló (intento {}), se reintentará: {}", notificacion.getId(), intentos, error.toString());
+        }
+    }
+
+    private long espera(int intentos) {
+        long espera = propiedades.getEsperaInicialSegundos() << Math.min(intentos - 1, 20);
+        return Math.min(espera, propiedades.getEsperaMaximaSegundos());
+    }
+}
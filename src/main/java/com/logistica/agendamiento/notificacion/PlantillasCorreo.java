@@ -0,0 +1,107 @@
+package com.logistica.agendamiento.notificacion;
+
+import com.logistica.agendamiento.dto.EventoResumenDTO;
+import com.logistica.agendamiento.dto.GrupoResumenDTO;
+import com.logistica.agendamiento.dto.ReservaDetalleDTO;
+import com.logistica.agendamiento.dto.ResumenAdministradorDTO;
+import com.logistica.agendamiento.entity.enums.EstadoReserva;
+import com.logistica.agendamiento.entity.enums.TipoNotificacion;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.exceptions.TemplateEngineException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// Genera el HTML de los correos de reservas. Con la caché de plantillas activa (ThymeleafConfig)
+// cada plantilla se parsea una sola vez; al arrancar se renderizan todas para no pagar ese costo en el primer envío.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PlantillasCorreo {
+
+    public static final String CONFIRMACION_RESERVA = "email/confirmacion-reserva";
+    public static final String CAMBIO_ESTADO = "email/cambio-estado";
+    public static final String CANCELACION_RESERVA = "email/cancelacion-reserva";
+    public static final String RESUMEN_ADMINISTRADOR = "email/resumen-administrador";
+
+    private static final List<String> PLANTILLAS_RESERVA = List.of(CONFIRMACION_RESERVA, CAMBIO_ESTADO, CANCELACION_RESERVA);
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final TemplateEngine templateEngine;
+
+    public String renderizar(String plantilla, ReservaDetalleDTO reserva) {
+        Context context = new Context();
+        context.setVariable("reserva", reserva);
+        context.setVariable("fecha", reserva.getFecha().format(DATE_FORMATTER));
+        context.setVariable("horaInicio", reserva.getHoraInicio().format(TIME_FORMATTER));
+        context.setVariable("horaFin", reserva.getHoraFin().format(TIME_FORMATTER));
+        return templateEngine.process(plantilla, context);
+    }
+
+    public String renderizarResumen(ResumenAdministradorDTO resumen) {
+        Context context = new Context();
+        context.setVariable("resumen", resumen);
+        return templateEngine.process(RESUMEN_ADMINISTRADOR, context);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        ReservaDetalleDTO ejemplo = reservaDeEjemplo();
+        for (String plantilla : PLANTILLAS_RESERVA) {
+            try {
+                renderizar(plantilla, ejemplo);
+            } catch (TemplateEngineException e) {
+                log.error("No se pudo precargar la plantilla de correo {}", plantilla, e);
+            }
+        }
+
+        try {
+            renderizarResumen(resumenDeEjemplo(ejemplo));
+        } catch (TemplateEngineException e) {
+            log.error("No se pudo precargar la plantilla de correo {}", RESUMEN_ADMINISTRADOR, e);
+        }
+    }
+
+    static ReservaDetalleDTO reservaDeEjemplo() {
+        ReservaDetalleDTO reserva = new ReservaDetalleDTO();
+        reserva.setId(0L);
+        reserva.setProveedorNombre("Proveedor");
+        reserva.setAreaNombre("Área");
+        reserva.setAndenNumero(1);
+        reserva.setTipoServicioNombre("Camión");
+        reserva.setFecha(LocalDate.now());
+        reserva.setHoraInicio(LocalTime.of(8, 0));
+        reserva.setHoraFin(LocalTime.of(9, 0));
+        reserva.setEstado(EstadoReserva.PENDIENTE);
+        reserva.setTransporteMarca("Marca");
+        reserva.setTransporteModelo("Modelo");
+        reserva.setTransportePlaca("AAA-0000");
+        return reserva;
+    }
+
+    private static ResumenAdministradorDTO resumenDeEjemplo(ReservaDetalleDTO reserva) {
+        GrupoResumenDTO grupo = new GrupoResumenDTO();
+        grupo.setAreaNombre(reserva.getAreaNombre());
+        grupo.setAndenNumero(reserva.getAndenNumero());
+        grupo.getEventos().add(new EventoResumenDTO(TipoNotificacion.CONFIRMACION_RESERVA, reserva.getId(),
+                reserva.getProveedorNombre(), reserva.getFecha(), reserva.getHoraInicio(), reserva.getHoraFin()));
+
+        ResumenAdministradorDTO resumen = new ResumenAdministradorDTO();
+        resumen.setDesde(LocalDateTime.now());
+        resumen.setHasta(LocalDateTime.now());
+        resumen.setReservasNuevas(1);
+        resumen.getGrupos().add(grupo);
+        return resumen;
+    }
+}
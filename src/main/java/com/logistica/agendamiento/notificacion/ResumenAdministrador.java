@@ -0,0 +1,171 @@
+package com.logistica.agendamiento.notificacion;
+
+import com.logistica.agendamiento.config.NotificacionesProperties;
+import com.logistica.agendamiento.dto.EventoResumenDTO;
+import com.logistica.agendamiento.dto.GrupoResumenDTO;
+import com.logistica.agendamiento.dto.ReservaDetalleDTO;
+import com.logistica.agendamiento.dto.ResumenAdministradorDTO;
+import com.logistica.agendamiento.entity.EventoResumenAdministrador;
+import com.logistica.agendamiento.entity.enums.TipoNotificacion;
+import com.logistica.agendamiento.repository.EventoResumenAdministradorRepository;
+import com.logistica.agendamiento.service.EmailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Resumen periódico para el administrador en lugar de una copia por cada reserva nueva o cancelada.
+// Los eventos se guardan con la reserva (no se pierden al reiniciar); en memoria solo se lleva la cuenta
+// de pendientes para adelantar el envío cuando se acumulan demasiados antes de cerrar la ventana.
+@Component
+@Slf4j
+public class ResumenAdministrador {
+
+    // Tope de eventos por correo; el resto pasa al siguiente resumen
+    private static final int MAX_EVENTOS_POR_CORREO = 1000;
+
+    private final EventoResumenAdministradorRepository eventoRepository;
+    private final EmailService emailService;
+    private final NotificacionesProperties propiedades;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicInteger pendientes = new AtomicInteger();
+    private volatile LocalDateTime ultimoEnvio = LocalDateTime.now();
+
+    public ResumenAdministrador(EventoResumenAdministradorRepository eventoRepository,
+                                EmailService emailService,
+                                NotificacionesProperties propiedades,
+                                MeterRegistry meterRegistry,
+                                PlatformTransactionManager transactionManager) {
+        this.eventoRepository = eventoRepository;
+        this.emailService = emailService;
+        this.propiedades = propiedades;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(TipoNotificacion tipo, ReservaDetalleDTO reserva) {
+        EventoResumenAdministrador evento = new EventoResumenAdministrador();
+        evento.setTipo(tipo);
+        evento.setReservaId(reserva.getId());
+        evento.setProveedorNombre(reserva.getProveedorNombre());
+        evento.setAreaNombre(reserva.getAreaNombre());
+        evento.setAndenNumero(reserva.getAndenNumero());
+        evento.setFecha(reserva.getFecha());
+        evento.setHoraInicio(reserva.getHoraInicio());
+        evento.setHoraFin(reserva.getHoraFin());
+        eventoRepository.save(evento);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pendientes.incrementAndGet();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        pendientes.set((int) Math.min(Integer.MAX_VALUE, eventoRepository.countByEnviadoFalse()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.notificaciones.resumen-revision-ms:30000}")
+    public void revisar() {
+        if (!propiedades.isDespachoHabilitado()) {
+            return;
+        }
+
+        boolean ventanaCumplida = !LocalDateTime.now()
+                .isBefore(ultimoEnvio.plusMinutes(propiedades.getResumenVentanaMinutos()));
+        if (ventanaCumplida || pendientes.get() >= propiedades.getResumenMaxEventos()) {
+            try {
+                enviarResumen();
+            } catch (RuntimeException e) {
+                // Los eventos siguen pendientes y se reintentan en la próxima revisión
+                meterRegistry.counter("notificaciones.resumen", "resultado", "error").increment();
+                log.warn("No se pudo enviar el resumen al administrador: {}", e.toString());
+            }
+        }
+    }
+
+    // El correo se envía con los eventos bloqueados: si falla, la transacción se revierte y siguen pendientes
+    public void enviarResumen() {
+        LocalDateTime hasta = LocalDateTime.now();
+        Integer incluidos = transactionTemplate.execute(status -> {
+            List<EventoResumenAdministrador> eventos = eventoRepository.findPendientesParaResumen(
+                    PageRequest.of(0, MAX_EVENTOS_POR_CORREO));
+            if (eventos.isEmpty()) {
+                return 0;
+            }
+
+            emailService.enviarResumenAdministrador(construirResumen(eventos, hasta),
+                    propiedades.getResumenDestinatario()).join();
+            eventos.forEach(evento -> evento.setEnviado(true));
+            return eventos.size();
+        });
+
+        ultimoEnvio = hasta;
+        if (incluidos != null && incluidos > 0) {
+            pendientes.updateAndGet(actual -> Math.max(0, actual - incluidos));
+            meterRegistry.counter("notificaciones.resumen", "resultado", "enviado").increment();
+            meterRegistry.summary("notificaciones.resumen.eventos").record(incluidos);
+        }
+    }
+
+    static ResumenAdministradorDTO construirResumen(List<EventoResumenAdministrador> eventos, LocalDateTime hasta) {
+        ResumenAdministradorDTO resumen = new ResumenAdministradorDTO();
+        resumen.setHasta(hasta);
+        resumen.setDesde(eventos.stream()
+                .map(EventoResumenAdministrador::getCreatedAt)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(hasta));
+
+        List<EventoResumenAdministrador> ordenados = eventos.stream()
+                .sorted(Comparator.comparing(EventoResumenAdministrador::getAreaNombre, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(EventoResumenAdministrador::getAndenNumero, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(EventoResumenAdministrador::getFecha, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(EventoResumenAdministrador::getHoraInicio, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+
+        Map<String, GrupoResumenDTO> grupos = new LinkedHashMap<>();
+        for (EventoResumenAdministrador evento : ordenados) {
+            GrupoResumenDTO grupo = grupos.computeIfAbsent(evento.getAreaNombre() + "|" + evento.getAndenNumero(),
+                    clave -> {
+                        GrupoResumenDTO nuevo = new GrupoResumenDTO();
+                        nuevo.setAreaNombre(evento.getAreaNombre());
+                        nuevo.setAndenNumero(evento.getAndenNumero());
+                        return nuevo;
+                    });
+            grupo.getEventos().add(new EventoResumenDTO(evento.getTipo(), evento.getReservaId(),
+                    evento.getProveedorNombre(), evento.getFecha(), evento.getHoraInicio(), evento.getHoraFin()));
+
+            if (evento.getTipo() == TipoNotificacion.CANCELACION_RESERVA) {
+                resumen.setReservasCanceladas(resumen.getReservasCanceladas() + 1);
+            } else {
+                resumen.setReservasNuevas(resumen.getReservasNuevas() + 1);
+            }
+        }
+        resumen.getGrupos().addAll(grupos.values());
+        return resumen;
+    }
+}
@@ -1,11 +1,15 @@
 package com.logistica.agendamiento.repository;
 
+import com.logistica.agendamiento.dto.EstadoAndenDTO;
 import com.logistica.agendamiento.entity.Anden;
 import com.logistica.agendamiento.entity.Area;
 import com.logistica.agendamiento.entity.enums.EstadoAnden;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,9 +20,22 @@ public interface AndenRepository extends JpaRepository<Anden, Long> {
 
     List<Anden> findByAreaAndEstado(Area area, EstadoAnden estado);
 
-    List<Anden> findByAreaAndExclusivoContenedor(Area area, Boolean exclusivoContenedor);
+    // Las máscaras salen de CaracteristicaAnden.mascarasQueCumplen; usa el índice (area_id, caracteristicas)
+    List<Anden> findByAreaAndCaracteristicasInOrderById(Area area, Collection<Integer> caracteristicas);
+
+    List<Anden> findByCaracteristicas(Integer caracteristicas);
 
     Optional<Anden> findByAreaAndNumero(Area area, Integer numero);
 
     boolean existsByAreaAndNumero(Area area, Integer numero);
+
+    @Query("SELECT a.id FROM Anden a")
+    List<Long> findAllIds();
+
+    // Solo el estado, que cambia con cada recepción y por eso no forma parte de los catálogos en memoria
+    @Query("SELECT a.estado FROM Anden a WHERE a.id = :id")
+    Optional<EstadoAnden> findEstadoById(@Param("id") Long id);
+
+    @Query("SELECT new com.logistica.agendamiento.dto.EstadoAndenDTO(a.id, a.estado) FROM Anden a WHERE a.id IN :ids")
+    List<EstadoAndenDTO> findEstados(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.logistica.agendamiento.repository;
+
+import com.logistica.agendamiento.entity.ArchivoAlmacenado;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivoAlmacenadoRepository extends JpaRepository<ArchivoAlmacenado, Long> {
+
+    Optional<ArchivoAlmacenado> findByHash(String hash);
+
+    // Lectura con bloqueo sobre el índice único del hash: si no hay fila, bloquea el hueco y una subida
+    // simultánea del mismo contenido (registrarReferencia) espera a que termine la transacción
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM ArchivoAlmacenado a WHERE a.hash = :hash")
+    Optional<ArchivoAlmacenado> findByHashParaActualizar(@Param("hash") String hash);
+
+    // Rutas de un fragmento del almacenamiento (hash que empieza por "ab"), por el índice del hash
+    @Query("SELECT a.ruta FROM ArchivoAlmacenado a WHERE a.hash LIKE :prefijo")
+    List<String> findRutasPorPrefijoHash(@Param("prefijo") String prefijo);
+
+    // Crea el archivo con una referencia o suma una si el hash ya existe, en una sola sentencia
+    // (sin carreras entre dos subidas simultáneas del mismo contenido)
+    @Modifying
+    @Query(value = "INSERT INTO archivo_almacenado (hash, ruta, tamano, referencias, created_at, updated_at) " +
+            "VALUES (:hash, :ruta, :tamano, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+            "ON DUPLICATE KEY UPDATE referencias = referencias + 1, updated_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    int registrarReferencia(@Param("hash") String hash, @Param("ruta") String ruta, @Param("tamano") Long tamano);
+
+    @Modifying
+    @Query("UPDATE ArchivoAlmacenado a SET a.referencias = a.referencias - 1 WHERE a.id = :id AND a.referencias > 0")
+    int liberarReferencia(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM ArchivoAlmacenado a WHERE a.id = :id AND a.referencias = 0")
+    int eliminarSinReferencias(@Param("id") Long id);
+}
@@ -1,11 +1,24 @@
 package com.logistica.agendamiento.repository;
 
+import com.logistica.agendamiento.dto.DescargaDocumentoDTO;
+import com.logistica.agendamiento.dto.DocumentoDTO;
 import com.logistica.agendamiento.entity.Documento;
 import com.logistica.agendamiento.entity.Reserva;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface DocumentoRepository extends JpaRepository<Documento, Long> {
@@ -13,4 +26,27 @@ public interface DocumentoRepository extends JpaRepository<Documento, Long> {
     List<Documento> findByReserva(Reserva reserva);
 
     List<Documento> findByTipo(String tipo);
+
+    boolean existsByRuta(String ruta);
+
+    // Documentos del esquema anterior ({reservaId}/archivo) pendientes de pasar al almacenamiento por hash
+    @Query("SELECT d.id FROM Documento d WHERE d.archivo IS NULL AND d.id > :desdeId ORDER BY d.id")
+    List<Long> findIdsSinArchivo(@Param("desdeId") Long desdeId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Documento d WHERE d.id = :id")
+    Optional<Documento> findByIdParaActualizar(@Param("id") Long id);
+
+    // Sin cargar la reserva asociada: una sola consulta sobre la tabla documento
+    @Query("SELECT new com.logistica.agendamiento.dto.DescargaDocumentoDTO(d.id, d.nombre, d.ruta, d.tipo, d.updatedAt) " +
+            "FROM Documento d WHERE d.id = :id")
+    Optional<DescargaDocumentoDTO> findDescargaById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new com.logistica.agendamiento.dto.DocumentoDTO(d.id, d.reserva.id, d.nombre, d.ruta, d.tipo, " +
+            "d.tamano, d.descripcion, d.createdAt, d.updatedAt) " +
+            "FROM Documento d WHERE d.createdAt >= :fechaInicio AND d.createdAt < :fechaFin ORDER BY d.createdAt, d.id")
+    Stream<DocumentoDTO> streamPorRangoFechas(
+            @Param("fechaInicio") LocalDateTime fechaInicio,
+            @Param("fechaFin") LocalDateTime fechaFin);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.logistica.agendamiento.repository;
+
+import com.logistica.agendamiento.entity.EventoResumenAdministrador;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EventoResumenAdministradorRepository extends JpaRepository<EventoResumenAdministrador, Long> {
+
+    long countByEnviadoFalse();
+
+    // SKIP LOCKED: si dos nodos cierran la ventana a la vez, cada evento entra en un solo resumen
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EventoResumenAdministrador e WHERE e.enviado = false ORDER BY e.createdAt, e.id")
+    List<EventoResumenAdministrador> findPendientesParaResumen(Pageable lote);
+}
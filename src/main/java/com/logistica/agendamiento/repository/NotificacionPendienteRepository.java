@@ -0,0 +1,39 @@
+package com.logistica.agendamiento.repository;
+
+import com.logistica.agendamiento.entity.NotificacionPendiente;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificacionPendienteRepository extends JpaRepository<NotificacionPendiente, Long> {
+
+    boolean existsByClaveDeduplicacion(String claveDeduplicacion);
+
+    // FOR UPDATE SKIP LOCKED (timeout de bloqueo -2 en Hibernate): cada nodo toma un lote distinto sin esperar
+    // a los demás. También se recuperan las que quedaron EN_PROCESO en un nodo que se detuvo.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM NotificacionPendiente n " +
+            "WHERE (n.estado = com.logistica.agendamiento.entity.enums.EstadoNotificacion.PENDIENTE AND n.proximoIntento <= :ahora) " +
+            "OR (n.estado = com.logistica.agendamiento.entity.enums.EstadoNotificacion.EN_PROCESO AND n.reclamadaHasta < :ahora) " +
+            "ORDER BY n.proximoIntento")
+    List<NotificacionPendiente> findParaDespachar(@Param("ahora") LocalDateTime ahora, Pageable lote);
+
+    // Las filas del lote que siguen reclamadas por este nodo, bloqueadas hasta guardar el resultado;
+    // las que otro nodo volvió a tomar al vencer el reclamo no se devuelven
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM NotificacionPendiente n WHERE n.id IN :ids AND n.reclamo = :reclamo " +
+            "AND n.estado = com.logistica.agendamiento.entity.enums.EstadoNotificacion.EN_PROCESO")
+    List<NotificacionPendiente> findReclamadas(@Param("ids") Collection<Long> ids, @Param("reclamo") String reclamo);
+}
@@ -0,0 +1,26 @@
+package com.logistica.agendamiento.repository;
+
+import com.logistica.agendamiento.entity.OcupacionAndenDia;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface OcupacionAndenDiaRepository extends JpaRepository<OcupacionAndenDia, Long> {
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO ocupacion_anden_dia (anden_id, fecha) VALUES (:andenId, :fecha)",
+            nativeQuery = true)
+    int insertarSiNoExiste(@Param("andenId") Long andenId, @Param("fecha") LocalDate fecha);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OcupacionAndenDia o WHERE o.andenId = :andenId AND o.fecha = :fecha")
+    Optional<OcupacionAndenDia> findParaActualizar(@Param("andenId") Long andenId, @Param("fecha") LocalDate fecha);
+}
@@ -1,17 +1,22 @@
 package com.logistica.agendamiento.repository;
 
+import com.logistica.agendamiento.dto.RegistroTiempoDTO;
 import com.logistica.agendamiento.entity.RegistroTiempo;
 import com.logistica.agendamiento.entity.Reserva;
 import com.logistica.agendamiento.entity.Usuario;
 import com.logistica.agendamiento.entity.enums.TipoRegistro;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RegistroTiempoRepository extends JpaRepository<RegistroTiempo, Long> {
@@ -29,6 +34,15 @@ public interface RegistroTiempoRepository extends JpaRepository<RegistroTiempo,
             @Param("fechaInicio") LocalDateTime fechaInicio,
             @Param("fechaFin") LocalDateTime fechaFin);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new com.logistica.agendamiento.dto.RegistroTiempoDTO(rt.id, r.id, p.nombre, u.id, " +
+            "CONCAT(u.nombre, ' ', u.apellido), rt.tipo, rt.horaInicio, rt.horaFin, rt.duracion) " +
+            "FROM RegistroTiempo rt JOIN rt.reserva r JOIN r.proveedor p JOIN rt.usuario u " +
+            "WHERE rt.horaInicio >= :fechaInicio AND rt.horaInicio < :fechaFin ORDER BY rt.horaInicio, rt.id")
+    Stream<RegistroTiempoDTO> streamPorRangoFechas(
+            @Param("fechaInicio") LocalDateTime fechaInicio,
+            @Param("fechaFin") LocalDateTime fechaFin);
+
     @Query("SELECT AVG(rt.duracion) FROM RegistroTiempo rt WHERE rt.tipo = :tipo AND rt.duracion IS NOT NULL")
     Double findPromedioDuracionByTipo(@Param("tipo") TipoRegistro tipo);
 }
\ No newline at end of file
@@ -1,48 +1,69 @@
 package com.logistica.agendamiento.repository;
 
-import com.logistica.agendamiento.entity.*;
+import com.logistica.agendamiento.dto.IntervaloReservaDTO;
+import com.logistica.agendamiento.dto.OcupacionDiaDTO;
+import com.logistica.agendamiento.dto.ReservaDTO;
+import com.logistica.agendamiento.entity.Reserva;
 import com.logistica.agendamiento.entity.enums.EstadoReserva;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
-import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface ReservaRepository extends JpaRepository<Reserva, Long> {
+public interface ReservaRepository extends JpaRepository<Reserva, Long>, ReservaRepositoryCustom {
 
-    List<Reserva> findByProveedor(Proveedor proveedor);
+    // Proyección de los listados: una sola sentencia con joins, sin cargar las entidades relacionadas
+    String SELECT_RESERVA_DTO = "SELECT new com.logistica.agendamiento.dto.ReservaDTO(" +
+            "r.id, p.id, p.nombre, a.id, a.nombre, an.id, an.numero, ts.id, ts.nombre, " +
+            "r.fecha, r.horaInicio, r.horaFin, r.estado, t.placa) " +
+            "FROM Reserva r JOIN r.proveedor p JOIN r.area a JOIN r.anden an " +
+            "JOIN r.tipoServicio ts JOIN r.transporte t ";
 
-    List<Reserva> findByArea(Area area);
-
-    List<Reserva> findByAnden(Anden anden);
-
-    List<Reserva> findByTipoServicio(TipoServicio tipoServicio);
-
-    List<Reserva> findByEstado(EstadoReserva estado);
-
-    List<Reserva> findByFecha(LocalDate fecha);
-
-    List<Reserva> findByFechaAndAnden(LocalDate fecha, Anden anden);
-
-    List<Reserva> findByFechaAndArea(LocalDate fecha, Area area);
+    // Para exportaciones: debe consumirse dentro de una transacción. Con Integer.MIN_VALUE como tamaño de
+    // lectura Connector/J trae las filas de MySQL una a una solo en esta sentencia, sin cursores ni sentencias
+    // preparadas en el servidor para el resto de consultas (H2 no acepta este valor: solo para MySQL)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(SELECT_RESERVA_DTO + "WHERE r.fecha >= :fechaInicio AND r.fecha <= :fechaFin ORDER BY r.fecha, r.horaInicio, r.id")
+    Stream<ReservaDTO> streamPorRangoFechas(
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin);
 
-    @Query("SELECT r FROM Reserva r WHERE r.fecha = :fecha AND r.estado = :estado")
-    List<Reserva> findByFechaAndEstado(@Param("fecha") LocalDate fecha, @Param("estado") EstadoReserva estado);
+    @Query("SELECT new com.logistica.agendamiento.dto.IntervaloReservaDTO(r.id, r.anden.id, r.fecha, r.horaInicio, r.horaFin) " +
+            "FROM Reserva r WHERE r.fecha >= :fechaInicio AND r.fecha <= :fechaFin AND r.estado <> :excluido")
+    List<IntervaloReservaDTO> findIntervalosActivos(
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin,
+            @Param("excluido") EstadoReserva excluido);
 
-    @Query("SELECT r FROM Reserva r WHERE r.fecha = :fecha AND r.anden = :anden " +
-            "AND ((r.horaInicio <= :horaFin AND r.horaFin >= :horaInicio))")
-    List<Reserva> findConflictos(
+    @Query("SELECT new com.logistica.agendamiento.dto.IntervaloReservaDTO(r.id, r.anden.id, r.fecha, r.horaInicio, r.horaFin) " +
+            "FROM Reserva r WHERE r.anden.id = :andenId AND r.fecha = :fecha AND r.estado <> :excluido")
+    List<IntervaloReservaDTO> findIntervalosActivosPorAndenYFecha(
+            @Param("andenId") Long andenId,
             @Param("fecha") LocalDate fecha,
-            @Param("anden") Anden anden,
-            @Param("horaInicio") LocalTime horaInicio,
-            @Param("horaFin") LocalTime horaFin);
+            @Param("excluido") EstadoReserva excluido);
 
     @Query("SELECT DISTINCT r.fecha FROM Reserva r WHERE r.fecha >= :fechaInicio AND r.fecha <= :fechaFin")
     List<LocalDate> findFechasConReservas(
             @Param("fechaInicio") LocalDate fechaInicio,
             @Param("fechaFin") LocalDate fechaFin);
+
+    // Reservas y minutos ocupados por día para un conjunto de andenes, agregados en una sola consulta
+    @Query("SELECT new com.logistica.agendamiento.dto.OcupacionDiaDTO(r.fecha, COUNT(r), " +
+            "SUM((hour(r.horaFin) * 60 + minute(r.horaFin)) - (hour(r.horaInicio) * 60 + minute(r.horaInicio)))) " +
+            "FROM Reserva r WHERE r.anden.id IN :andenIds AND r.fecha >= :fechaInicio AND r.fecha <= :fechaFin " +
+            "AND r.estado <> :excluido GROUP BY r.fecha")
+    List<OcupacionDiaDTO> findOcupacionPorDia(
+            @Param("andenIds") Collection<Long> andenIds,
+            @Param("fechaInicio") LocalDate fechaInicio,
+            @Param("fechaFin") LocalDate fechaFin,
+            @Param("excluido") EstadoReserva excluido);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.logistica.agendamiento.repository;
+
+import com.logistica.agendamiento.dto.CursorReservaDTO;
+import com.logistica.agendamiento.dto.FiltroReservaDTO;
+import com.logistica.agendamiento.dto.ReservaDTO;
+
+import java.util.List;
+
+public interface ReservaRepositoryCustom {
+
+    // Hasta limite reservas que cumplen el filtro, ordenadas por (fecha, horaInicio, id) y posteriores al cursor
+    // si se indica
+    List<ReservaDTO> buscar(FiltroReservaDTO filtro, CursorReservaDTO despuesDe, int limite);
+}
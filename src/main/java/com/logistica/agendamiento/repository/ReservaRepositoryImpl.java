@@ -0,0 +1,74 @@
+package com.logistica.agendamiento.repository;
+
+import com.logistica.agendamiento.dto.CursorReservaDTO;
+import com.logistica.agendamiento.dto.FiltroReservaDTO;
+import com.logistica.agendamiento.dto.ReservaDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Búsqueda por clave (keyset): en lugar de OFFSET se continúa desde la última fila entregada,
+// así cada página cuesta lo mismo sin importar lo profundo que esté en el resultado.
+// Cada filtro tiene un índice compuesto en reserva que termina en (fecha, hora_inicio); InnoDB
+// agrega el id al final de todo índice secundario, de modo que el orden completo sale del índice.
+public class ReservaRepositoryImpl implements ReservaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ReservaDTO> buscar(FiltroReservaDTO filtro, CursorReservaDTO despuesDe, int limite) {
+        StringBuilder jpql = new StringBuilder(ReservaRepository.SELECT_RESERVA_DTO).append("WHERE 1 = 1");
+        Map<String, Object> parametros = new HashMap<>();
+
+        if (filtro.getProveedorId() != null) {
+            jpql.append(" AND p.id = :proveedorId");
+            parametros.put("proveedorId", filtro.getProveedorId());
+        }
+        if (filtro.getAreaId() != null) {
+            jpql.append(" AND a.id = :areaId");
+            parametros.put("areaId", filtro.getAreaId());
+        }
+        if (filtro.getAndenId() != null) {
+            jpql.append(" AND an.id = :andenId");
+            parametros.put("andenId", filtro.getAndenId());
+        }
+        if (filtro.getEstado() != null) {
+            jpql.append(" AND r.estado = :estado");
+            parametros.put("estado", filtro.getEstado());
+        }
+        if (filtro.getFechaDesde() != null) {
+            jpql.append(" AND r.fecha >= :fechaDesde");
+            parametros.put("fechaDesde", filtro.getFechaDesde());
+        }
+        if (filtro.getFechaHasta() != null) {
+            jpql.append(" AND r.fecha <= :fechaHasta");
+            parametros.put("fechaHasta", filtro.getFechaHasta());
+        }
+        if (filtro.getPlaca() != null && !filtro.getPlaca().isBlank()) {
+            jpql.append(" AND t.placa = :placa");
+            parametros.put("placa", filtro.getPlaca().trim());
+        }
+
+        // La primera condición acota el rango del índice; el resto desempata dentro de la misma fecha y hora
+        if (despuesDe != null) {
+            jpql.append(" AND r.fecha >= :cursorFecha AND (r.fecha > :cursorFecha")
+                    .append(" OR (r.fecha = :cursorFecha AND r.horaInicio > :cursorHora)")
+                    .append(" OR (r.fecha = :cursorFecha AND r.horaInicio = :cursorHora AND r.id > :cursorId))");
+            parametros.put("cursorFecha", despuesDe.getFecha());
+            parametros.put("cursorHora", despuesDe.getHoraInicio());
+            parametros.put("cursorId", despuesDe.getId());
+        }
+
+        jpql.append(" ORDER BY r.fecha, r.horaInicio, r.id");
+
+        TypedQuery<ReservaDTO> query = entityManager.createQuery(jpql.toString(), ReservaDTO.class);
+        parametros.forEach(query::setParameter);
+        query.setMaxResults(limite);
+        return query.getResultList();
+    }
+}
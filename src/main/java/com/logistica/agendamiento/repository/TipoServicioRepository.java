@@ -4,6 +4,7 @@ import com.logistica.agendamiento.entity.TipoServicio;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +13,6 @@ public interface TipoServicioRepository extends JpaRepository<TipoServicio, Long
     Optional<TipoServicio> findByNombre(String nombre);
 
     boolean existsByNombre(String nombre);
+
+    List<TipoServicio> findByCaracteristicasRequeridas(Integer caracteristicasRequeridas);
 }
\ No newline at end of file
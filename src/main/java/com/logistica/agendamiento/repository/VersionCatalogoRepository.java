@@ -0,0 +1,24 @@
+package com.logistica.agendamiento.repository;
+
+import com.logistica.agendamiento.entity.VersionCatalogo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface VersionCatalogoRepository extends JpaRepository<VersionCatalogo, Long> {
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO version_catalogo (id, version) VALUES (1, 0)", nativeQuery = true)
+    int insertarSiNoExiste();
+
+    @Modifying
+    @Query("UPDATE VersionCatalogo v SET v.version = v.version + 1 WHERE v.id = 1")
+    int incrementar();
+
+    @Query("SELECT v.version FROM VersionCatalogo v WHERE v.id = 1")
+    Optional<Long> findVersion();
+}
@@ -0,0 +1,51 @@
+package com.logistica.agendamiento.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.logistica.agendamiento.entity.Usuario;
+import com.logistica.agendamiento.repository.UsuarioRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Estado de los usuarios autenticados por token, para no consultar la tabla usuario en cada petición.
+// Las entradas caducan solas; los servicios que desactivan o modifican un usuario las invalidan al momento.
+@Component
+public class CachePrincipales {
+
+    private final UsuarioRepository usuarioRepository;
+    private final Cache<String, EstadoPrincipal> estados;
+
+    public CachePrincipales(UsuarioRepository usuarioRepository, JwtProperties jwtProperties) {
+        this.usuarioRepository = usuarioRepository;
+        this.estados = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.getPrincipalCacheMaxSize())
+                .expireAfterWrite(Duration.ofMillis(jwtProperties.getPrincipalCacheTtlMs()))
+                .build();
+    }
+
+    // Autoridad vigente del usuario ("ROLE_..."), o vacío si no existe o está desactivado
+    public Optional<String> autoridadVigente(String username) {
+        return Optional.ofNullable(estados.get(username, this::cargar).autoridad());
+    }
+
+    public void invalidar(String... usernames) {
+        for (String username : usernames) {
+            if (username != null) {
+                estados.invalidate(username);
+            }
+        }
+    }
+
+    private EstadoPrincipal cargar(String username) {
+        return usuarioRepository.findByUsername(username)
+                .filter(Usuario::getEstado)
+                .map(usuario -> new EstadoPrincipal("ROLE_" + usuario.getRol().name()))
+                .orElse(EstadoPrincipal.INACTIVO);
+    }
+
+    private record EstadoPrincipal(String autoridad) {
+        static final EstadoPrincipal INACTIVO = new EstadoPrincipal(null);
+    }
+}
@@ -1,12 +1,12 @@
 package com.logistica.agendamiento.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -26,10 +26,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = tokenProvider.resolveToken(request);
 
-            if (jwt != null && tokenProvider.validateToken(jwt)) {
-                Authentication authentication = tokenProvider.getAuthentication(jwt);
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (jwt != null) {
+                // El token se verifica y se decodifica una sola vez por petición
+                tokenProvider.autenticar(jwt)
+                        .ifPresent(authentication -> SecurityContextHolder.getContext().setAuthentication(authentication));
             }
+        } catch (JwtException | IllegalArgumentException ex) {
+            log.debug("Token JWT rechazado: {}", ex.getMessage());
         } catch (Exception ex) {
             log.error("No se pudo establecer la autenticación del usuario en el contexto de seguridad", ex);
         }
@@ -4,10 +4,25 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Component
 @ConfigurationProperties(prefix = "app.jwt")
 @Data
 public class JwtProperties {
+
+    // kid con el que se registra la clave de "secret"
+    public static final String KID_POR_DEFECTO = "default";
+
     private String secret;
     private long expirationMs;
+
+    // Claves adicionales por kid para rotación; se firma con activeKid y se aceptan todas
+    private Map<String, String> keys = new LinkedHashMap<>();
+    private String activeKid;
+
+    // Caché del estado de los usuarios autenticados por token
+    private long principalCacheTtlMs = 300000;
+    private long principalCacheMaxSize = 10000;
 }
\ No newline at end of file
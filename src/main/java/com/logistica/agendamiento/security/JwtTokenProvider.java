@@ -3,25 +3,57 @@ package com.logistica.agendamiento.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+// Las claves y el parser se construyen una sola vez; el parser de jjwt es inmutable y seguro entre hilos.
+// Cada token lleva en la cabecera el "kid" de la clave con que se firmó, así se pueden tener varias claves
+// activas durante una rotación: se firma con la activa y se aceptan todas las configuradas.
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtTokenProvider {
 
     private final JwtProperties jwtProperties;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final CachePrincipales cachePrincipales;
+    private final Map<String, SecretKey> claves;
+    private final String kidActivo;
+    private final SecretKey claveFirma;
+    private final JwtParser parser;
+
+    public JwtTokenProvider(JwtProperties jwtProperties, CachePrincipales cachePrincipales) {
+        this.jwtProperties = jwtProperties;
+        this.cachePrincipales = cachePrincipales;
+        this.claves = construirClaves(jwtProperties);
+        this.kidActivo = jwtProperties.getActiveKid() != null ? jwtProperties.getActiveKid() : JwtProperties.KID_POR_DEFECTO;
+        this.claveFirma = claves.get(kidActivo);
+        if (claveFirma == null) {
+            throw new IllegalStateException("No hay una clave JWT configurada para el kid activo: " + kidActivo);
+        }
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return claveDe(header.getKeyId());
+                    }
+                })
+                .build();
+        log.info("Claves JWT cargadas: {} (activa: {})", claves.keySet(), kidActivo);
+    }
 
     // Genera un token JWT para un nombre de usuario y rol
     public String generateToken(String username, String rol) {
@@ -30,51 +62,23 @@ public class JwtTokenProvider {
 
         return Jwts.builder()
                 .setHeaderParam("typ", "JWT")
+                .setHeaderParam(JwsHeader.KEY_ID, kidActivo)
                 .setSubject(username)
                 .claim("rol", rol)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes()), SignatureAlgorithm.HS256)
+                .signWith(claveFirma, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    // Obtiene el nombre de usuario desde un token JWT
-    public String getUsernameFromJWT(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
-
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
+    // Verifica la firma y la expiración del token y devuelve sus claims; lanza JwtException si no es válido
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    // Valida un token JWT
-    public boolean validateToken(String authToken) {
-        try {
-            // Imprimir la clave que estás usando para validar
-            String secretKey = jwtProperties.getSecret();
-            log.info("Using secret key: {}", secretKey);
-
-            // Parsear el token y extraer las partes
-            String[] parts = authToken.split("\\.");
-            log.info("Token header: {}", parts[0]);
-            log.info("Token payload: {}", parts[1]);
-            log.info("Token signature: {}", parts[2]);
-
-            // Intenta validar normalmente
-            Jwts.parserBuilder()
-                    .setSigningKey(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)))
-                    .build()
-                    .parseClaimsJws(authToken);
-
-            return true;
-        } catch (Exception e) {
-            log.error("Error validating JWT token: {}", e.getMessage());
-            return false;
-        }
+    // Único camino de autenticación por token: verifica, decodifica y construye la autenticación
+    public Optional<Authentication> autenticar(String token) {
+        return getAuthentication(parseClaims(token));
     }
 
     // Extrae el token JWT del encabezado de la solicitud
@@ -86,9 +90,44 @@ public class JwtTokenProvider {
         return null;
     }
 
-    // Crea un objeto Authentication basado en un token JWT
-    public Authentication getAuthentication(String token) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(getUsernameFromJWT(token));
-        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+    // Crea un objeto Authentication a partir de los claims ya verificados, usando el rol incluido en el token.
+    // Solo se acepta si el usuario sigue activo y con el mismo rol con el que se emitió el token.
+    public Optional<Authentication> getAuthentication(Claims claims) {
+        String username = claims.getSubject();
+        String rol = claims.get("rol", String.class);
+        if (username == null || rol == null) {
+            return Optional.empty();
+        }
+
+        Optional<String> autoridadVigente = cachePrincipales.autoridadVigente(username);
+        if (autoridadVigente.isEmpty() || !autoridadVigente.get().equals(rol)) {
+            return Optional.empty();
+        }
+
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(rol));
+        UserDetails principal = new User(username, "", authorities);
+        return Optional.of(new UsernamePasswordAuthenticationToken(principal, "", authorities));
+    }
+
+    // Los tokens emitidos antes de usar kid no lo traen; se validan con la clave por defecto
+    private Key claveDe(String kid) {
+        SecretKey clave = claves.get(kid != null ? kid : JwtProperties.KID_POR_DEFECTO);
+        if (clave == null) {
+            throw new UnsupportedJwtException("Clave de firma desconocida: " + kid);
+        }
+        return clave;
+    }
+
+    private static Map<String, SecretKey> construirClaves(JwtProperties jwtProperties) {
+        Map<String, SecretKey> claves = new HashMap<>();
+        if (StringUtils.hasText(jwtProperties.getSecret())) {
+            claves.put(JwtProperties.KID_POR_DEFECTO, clave(jwtProperties.getSecret()));
+        }
+        jwtProperties.getKeys().forEach((kid, secreto) -> claves.put(kid, clave(secreto)));
+        return Map.copyOf(claves);
+    }
+
+    private static SecretKey clave(String secreto) {
+        return Keys.hmacShaKeyFor(secreto.getBytes(StandardCharsets.UTF_8));
     }
-}
\ No newline at end of file
+}
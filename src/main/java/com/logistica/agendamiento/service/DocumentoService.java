@@ -1,9 +1,10 @@
 package com.logistica.agendamiento.service;
 
+import com.logistica.agendamiento.dto.DescargaDocumentoDTO;
 import com.logistica.agendamiento.dto.DocumentoDTO;
-import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface DocumentoService {
@@ -14,7 +15,12 @@ public interface DocumentoService {
 
     DocumentoDTO guardarDocumento(Long reservaId, MultipartFile archivo, String descripcion);
 
-    Resource descargarDocumento(Long id);
+    DocumentoDTO guardarDocumento(Long reservaId, InputStream contenido, String nombre, String tipo, String descripcion);
+
+    DescargaDocumentoDTO obtenerDescarga(Long id);
 
     void eliminarDocumento(Long id);
+
+    // Pasa un documento del esquema {reservaId}/archivo al almacenamiento por hash; false si ya estaba migrado
+    boolean migrarArchivo(Long id);
 }
\ No newline at end of file
@@ -1,14 +1,27 @@
 package com.logistica.agendamiento.service;
 
+import com.logistica.agendamiento.dto.CorreoReservaDTO;
 import com.logistica.agendamiento.dto.ReservaDetalleDTO;
+import com.logistica.agendamiento.dto.ResumenAdministradorDTO;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Los envíos son asíncronos; el futuro termina con error si el correo no se pudo entregar
 public interface EmailService {
 
-    void enviarConfirmacionReserva(ReservaDetalleDTO reserva, String destinatario);
+    CompletableFuture<Void> enviarConfirmacionReserva(ReservaDetalleDTO reserva, String destinatario);
+
+    CompletableFuture<Void> enviarNotificacionCambioEstado(ReservaDetalleDTO reserva, String destinatario);
+
+    CompletableFuture<Void> enviarNotificacionCancelacion(ReservaDetalleDTO reserva, String destinatario);
 
-    void enviarNotificacionCambioEstado(ReservaDetalleDTO reserva, String destinatario);
+    CompletableFuture<Void> enviarCorreo(String to, String subject, String content);
 
-    void enviarNotificacionCancelacion(ReservaDetalleDTO reserva, String destinatario);
+    CompletableFuture<Void> enviarResumenAdministrador(ResumenAdministradorDTO resumen, String destinatario);
 
-    void enviarCorreo(String to, String subject, String content);
+    // Envía varios correos de reservas por una misma conexión SMTP; el mapa contiene,
+    // por id de notificación, el error de las que no se pudieron entregar
+    CompletableFuture<Map<Long, Exception>> enviarLote(List<CorreoReservaDTO> correos);
 }
\ No newline at end of file
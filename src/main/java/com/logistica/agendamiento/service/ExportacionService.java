@@ -0,0 +1,18 @@
+package com.logistica.agendamiento.service;
+
+import com.logistica.agendamiento.exportacion.FormatoExportacion;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface ExportacionService {
+
+    void validarRango(LocalDate desde, LocalDate hasta);
+
+    void exportarReservas(LocalDate desde, LocalDate hasta, FormatoExportacion formato, OutputStream salida) throws IOException;
+
+    void exportarRegistrosTiempo(LocalDate desde, LocalDate hasta, FormatoExportacion formato, OutputStream salida) throws IOException;
+
+    void exportarDocumentos(LocalDate desde, LocalDate hasta, FormatoExportacion formato, OutputStream salida) throws IOException;
+}
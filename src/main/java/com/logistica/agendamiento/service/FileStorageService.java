@@ -1,20 +1,55 @@
 package com.logistica.agendamiento.service;
 
+import com.logistica.agendamiento.dto.ContenidoAlmacenadoDTO;
+import com.logistica.agendamiento.dto.EntradaAlmacenamientoDTO;
 import org.springframework.core.io.Resource;
-import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
+import java.util.Optional;
 import java.util.stream.Stream;
 
+// Almacenamiento de los archivos de documentos. La implementación se elige con file.storage:
+// "local" (directorio en disco, por defecto) o "s3" (S3 o un servicio compatible como MinIO)
 public interface FileStorageService {
 
-    String store(MultipartFile file, Long reservaId);
+    // Distribución común a todas las implementaciones: sha256/ab/cd/<hash> para el contenido y tmp/ para las subidas en curso
+    String PREFIJO_CONTENIDO = "sha256/";
+    String PREFIJO_TEMPORAL = "tmp/";
 
-    Stream<Path> loadAll();
+    static String rutaContenido(String hash) {
+        return PREFIJO_CONTENIDO + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
 
-    Path load(String filename);
+    // Copia el contenido a un archivo temporal calculando su SHA-256 en la misma pasada
+    ContenidoAlmacenadoDTO storeTemporary(InputStream content, long maxBytes);
+
+    // Deja el contenido en su ruta definitiva; si ya había un archivo con ese hash no se escribe de nuevo
+    void promote(ContenidoAlmacenadoDTO content);
+
+    // Elimina el archivo temporal si aún existe
+    void discard(ContenidoAlmacenadoDTO content);
+
+    void delete(String filename);
+
+    // Archivos bajo un prefijo (por ejemplo un fragmento sha256/ab/); no recorre todo el almacenamiento.
+    // El stream debe cerrarse
+    Stream<EntradaAlmacenamientoDTO> list(String prefix);
 
     Resource loadAsResource(String filename);
 
-    void deleteAll();
-}
\ No newline at end of file
+    long size(String filename);
+
+    // Copia count bytes desde position directamente al canal de salida, sin pasar por un búfer de la aplicación
+    long transferTo(String filename, long position, long count, WritableByteChannel target) throws IOException;
+
+    // Archivo en el disco local, si el almacenamiento lo tiene; permite enviarlo con sendfile
+    Optional<Path> localFile(String filename);
+
+    // Dirección temporal para que el cliente descargue el archivo directamente del almacenamiento,
+    // sin que los bytes pasen por la aplicación; vacío si el almacenamiento no la ofrece
+    Optional<URI> presignedDownload(String filename, String downloadName, String contentType);
+}
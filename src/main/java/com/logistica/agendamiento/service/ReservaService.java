@@ -1,26 +1,31 @@
 package com.logistica.agendamiento.service;
 
+import com.logistica.agendamiento.dto.CalendarioDisponibilidadDTO;
 import com.logistica.agendamiento.dto.DisponibilidadAndenDTO;
+import com.logistica.agendamiento.dto.FiltroReservaDTO;
+import com.logistica.agendamiento.dto.HorarioSugeridoDTO;
+import com.logistica.agendamiento.dto.PaginaReservasDTO;
 import com.logistica.agendamiento.dto.ReservaDTO;
 import com.logistica.agendamiento.dto.ReservaDetalleDTO;
 import com.logistica.agendamiento.entity.enums.EstadoReserva;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 public interface ReservaService {
 
-    List<ReservaDTO> obtenerTodasLasReservas();
+    PaginaReservasDTO buscarReservas(FiltroReservaDTO filtro, String cursor, int tamano);
 
-    List<ReservaDTO> obtenerReservasPorFecha(LocalDate fecha);
+    PaginaReservasDTO obtenerReservasPorFecha(LocalDate fecha, String cursor, int tamano);
 
-    List<ReservaDTO> obtenerReservasPorProveedorId(Long proveedorId);
+    PaginaReservasDTO obtenerReservasPorProveedorId(Long proveedorId, String cursor, int tamano);
 
-    List<ReservaDTO> obtenerReservasPorAreaId(Long areaId);
+    PaginaReservasDTO obtenerReservasPorAreaId(Long areaId, String cursor, int tamano);
 
-    List<ReservaDTO> obtenerReservasPorAndenId(Long andenId);
+    PaginaReservasDTO obtenerReservasPorAndenId(Long andenId, String cursor, int tamano);
 
-    List<ReservaDTO> obtenerReservasPorEstado(EstadoReserva estado);
+    PaginaReservasDTO obtenerReservasPorEstado(EstadoReserva estado, String cursor, int tamano);
 
     ReservaDetalleDTO obtenerReservaPorId(Long id);
 
@@ -33,4 +38,13 @@ public interface ReservaService {
     void cancelarReserva(Long id);
 
     List<DisponibilidadAndenDTO> obtenerDisponibilidadPorFechaYArea(LocalDate fecha, Long areaId, Long tipoServicioId);
+
+    List<HorarioSugeridoDTO> obtenerHorariosDisponibles(LocalDate fecha, Long areaId, Long tipoServicioId,
+                                                        int duracionMinutos, int cantidad);
+
+    List<HorarioSugeridoDTO> obtenerSugerencias(LocalDate fecha, Long areaId, Long tipoServicioId,
+                                                LocalTime horaDeseada, int duracionMinutos, int cantidad);
+
+    CalendarioDisponibilidadDTO obtenerCalendarioDisponibilidad(LocalDate desde, LocalDate hasta,
+                                                              Long areaId, Long tipoServicioId);
 }
\ No newline at end of file
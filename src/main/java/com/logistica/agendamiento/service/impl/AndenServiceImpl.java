@@ -1,26 +1,33 @@
 package com.logistica.agendamiento.service.impl;
 
+import com.logistica.agendamiento.catalogo.CatalogoReferencia;
 import com.logistica.agendamiento.dto.AndenDTO;
 import com.logistica.agendamiento.entity.Anden;
 import com.logistica.agendamiento.entity.Area;
+import com.logistica.agendamiento.entity.TipoServicio;
+import com.logistica.agendamiento.entity.enums.CaracteristicaAnden;
 import com.logistica.agendamiento.entity.enums.EstadoAnden;
 import com.logistica.agendamiento.exception.ResourceAlreadyExistsException;
 import com.logistica.agendamiento.exception.ResourceNotFoundException;
 import com.logistica.agendamiento.repository.AndenRepository;
 import com.logistica.agendamiento.repository.AreaRepository;
 import com.logistica.agendamiento.service.AndenService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "servicio.andenes", histogram = true)
 public class AndenServiceImpl implements AndenService {
 
     private final AndenRepository andenRepository;
     private final AreaRepository areaRepository;
+    private final CatalogoReferencia catalogo;
 
     @Override
     public List<AndenDTO> obtenerTodosLosAndenes() {
@@ -54,10 +61,12 @@ public class AndenServiceImpl implements AndenService {
         Area area = areaRepository.findById(areaId)
                 .orElseThrow(() -> new ResourceNotFoundException("Área no encontrada con ID: " + areaId));
 
-        // Si el tipo de servicio es "Contenedor" (asumimos ID = 3), solo retornar andenes exclusivos
-        boolean esContenedor = tipoServicioId == 3;
+        TipoServicio tipoServicio = catalogo.tipoServicio(tipoServicioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tipo de servicio no encontrado con ID: " + tipoServicioId));
 
-        return andenRepository.findByAreaAndExclusivoContenedor(area, esContenedor).stream()
+        // Andenes que ofrecen todas las características que exige el tipo de servicio
+        List<Integer> mascaras = CaracteristicaAnden.mascarasQueCumplen(tipoServicio.getCaracteristicasRequeridas());
+        return andenRepository.findByAreaAndCaracteristicasInOrderById(area, mascaras).stream()
                 .map(this::convertirADTO)
                 .collect(Collectors.toList());
     }
@@ -70,6 +79,7 @@ public class AndenServiceImpl implements AndenService {
     }
 
     @Override
+    @Transactional
     public AndenDTO crearAnden(AndenDTO andenDTO) {
         Area area = areaRepository.findById(andenDTO.getAreaId())
                 .orElseThrow(() -> new ResourceNotFoundException("Área no encontrada con ID: " + andenDTO.getAreaId()));
@@ -85,13 +95,15 @@ public class AndenServiceImpl implements AndenService {
         anden.setNumero(andenDTO.getNumero());
         anden.setEstado(andenDTO.getEstado());
         anden.setCapacidad(andenDTO.getCapacidad());
-        anden.setExclusivoContenedor(andenDTO.getExclusivoContenedor());
+        asignarCaracteristicas(anden, andenDTO);
 
         Anden andenSaved = andenRepository.save(anden);
+        catalogo.registrarCambio();
         return convertirADTO(andenSaved);
     }
 
     @Override
+    @Transactional
     public AndenDTO actualizarAnden(Long id, AndenDTO andenDTO) {
         Anden anden = andenRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Andén no encontrado con ID: " + id));
@@ -112,13 +124,15 @@ public class AndenServiceImpl implements AndenService {
         anden.setNumero(andenDTO.getNumero());
         anden.setEstado(andenDTO.getEstado());
         anden.setCapacidad(andenDTO.getCapacidad());
-        anden.setExclusivoContenedor(andenDTO.getExclusivoContenedor());
+        asignarCaracteristicas(anden, andenDTO);
 
         Anden andenActualizado = andenRepository.save(anden);
+        catalogo.registrarCambio();
         return convertirADTO(andenActualizado);
     }
 
     @Override
+    @Transactional
     public AndenDTO actualizarEstadoAnden(Long id, EstadoAnden estado) {
         Anden anden = andenRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Andén no encontrado con ID: " + id));
@@ -129,11 +143,13 @@ public class AndenServiceImpl implements AndenService {
     }
 
     @Override
+    @Transactional
     public void eliminarAnden(Long id) {
         if (!andenRepository.existsById(id)) {
             throw new ResourceNotFoundException("Andén no encontrado con ID: " + id);
         }
         andenRepository.deleteById(id);
+        catalogo.registrarCambio();
     }
 
     private AndenDTO convertirADTO(Anden anden) {
@@ -145,6 +161,23 @@ public class AndenServiceImpl implements AndenService {
         dto.setEstado(anden.getEstado());
         dto.setCapacidad(anden.getCapacidad());
         dto.setExclusivoContenedor(anden.getExclusivoContenedor());
+        dto.setCaracteristicas(CaracteristicaAnden.de(anden.getCaracteristicas()));
         return dto;
     }
+
+    // Sin características explícitas se conserva el significado de exclusivoContenedor; con ellas,
+    // exclusivoContenedor indica un andén que recibe contenedores y no carga general
+    private static void asignarCaracteristicas(Anden anden, AndenDTO andenDTO) {
+        int mascara;
+        if (andenDTO.getCaracteristicas() != null && !andenDTO.getCaracteristicas().isEmpty()) {
+            mascara = CaracteristicaAnden.mascara(andenDTO.getCaracteristicas());
+        } else if (Boolean.TRUE.equals(andenDTO.getExclusivoContenedor())) {
+            mascara = CaracteristicaAnden.CONTENEDOR.getBit();
+        } else {
+            mascara = CaracteristicaAnden.CARGA_GENERAL.getBit();
+        }
+        anden.setCaracteristicas(mascara);
+        anden.setExclusivoContenedor(CaracteristicaAnden.cumple(mascara, CaracteristicaAnden.CONTENEDOR.getBit())
+                && !CaracteristicaAnden.cumple(mascara, CaracteristicaAnden.CARGA_GENERAL.getBit()));
+    }
 }
\ No newline at end of file
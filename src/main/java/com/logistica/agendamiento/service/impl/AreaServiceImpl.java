@@ -1,5 +1,6 @@
 package com.logistica.agendamiento.service.impl;
 
+import com.logistica.agendamiento.catalogo.CatalogoReferencia;
 import com.logistica.agendamiento.dto.AreaDTO;
 import com.logistica.agendamiento.entity.Area;
 import com.logistica.agendamiento.exception.ResourceAlreadyExistsException;
@@ -8,6 +9,7 @@ import com.logistica.agendamiento.repository.AreaRepository;
 import com.logistica.agendamiento.service.AreaService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -17,6 +19,7 @@ import java.util.stream.Collectors;
 public class AreaServiceImpl implements AreaService {
 
     private final AreaRepository areaRepository;
+    private final CatalogoReferencia catalogo;
 
     @Override
     public List<AreaDTO> obtenerTodasLasAreas() {
@@ -33,6 +36,7 @@ public class AreaServiceImpl implements AreaService {
     }
 
     @Override
+    @Transactional
     public AreaDTO crearArea(AreaDTO areaDTO) {
         // Verificar que no exista un área con el mismo nombre
         if (areaRepository.existsByNombre(areaDTO.getNombre())) {
@@ -44,10 +48,12 @@ public class AreaServiceImpl implements AreaService {
         area.setDescripcion(areaDTO.getDescripcion());
 
         Area areaSaved = areaRepository.save(area);
+        catalogo.registrarCambio();
         return convertirADTO(areaSaved);
     }
 
     @Override
+    @Transactional
     public AreaDTO actualizarArea(Long id, AreaDTO areaDTO) {
         Area area = areaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Área no encontrada con ID: " + id));
@@ -62,15 +68,18 @@ public class AreaServiceImpl implements AreaService {
         area.setDescripcion(areaDTO.getDescripcion());
 
         Area areaActualizada = areaRepository.save(area);
+        catalogo.registrarCambio();
         return convertirADTO(areaActualizada);
     }
 
     @Override
+    @Transactional
     public void eliminarArea(Long id) {
         if (!areaRepository.existsById(id)) {
             throw new ResourceNotFoundException("Área no encontrada con ID: " + id);
         }
         areaRepository.deleteById(id);
+        catalogo.registrarCambio();
     }
 
     private AreaDTO convertirADTO(Area area) {
@@ -1,21 +1,30 @@
 package com.logistica.agendamiento.service.impl;
 
+import com.logistica.agendamiento.almacenamiento.EliminacionArchivos;
+import com.logistica.agendamiento.config.FileStorageProperties;
+import com.logistica.agendamiento.dto.ContenidoAlmacenadoDTO;
+import com.logistica.agendamiento.dto.DescargaDocumentoDTO;
 import com.logistica.agendamiento.dto.DocumentoDTO;
+import com.logistica.agendamiento.entity.ArchivoAlmacenado;
 import com.logistica.agendamiento.entity.Documento;
 import com.logistica.agendamiento.entity.Reserva;
+import com.logistica.agendamiento.exception.BadRequestException;
+import com.logistica.agendamiento.exception.FileStorageException;
 import com.logistica.agendamiento.exception.ResourceNotFoundException;
+import com.logistica.agendamiento.repository.ArchivoAlmacenadoRepository;
 import com.logistica.agendamiento.repository.DocumentoRepository;
 import com.logistica.agendamiento.repository.ReservaRepository;
 import com.logistica.agendamiento.service.DocumentoService;
 import com.logistica.agendamiento.service.FileStorageService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,6 +35,9 @@ public class DocumentoServiceImpl implements DocumentoService {
     private final DocumentoRepository documentoRepository;
     private final ReservaRepository reservaRepository;
     private final FileStorageService fileStorageService;
+    private final ArchivoAlmacenadoRepository archivoRepository;
+    private final FileStorageProperties fileStorageProperties;
+    private final EliminacionArchivos eliminacionArchivos;
 
     @Override
     public List<DocumentoDTO> obtenerDocumentosPorReservaId(Long reservaId) {
@@ -48,19 +60,35 @@ public class DocumentoServiceImpl implements DocumentoService {
     @Override
     @Transactional
     public DocumentoDTO guardarDocumento(Long reservaId, MultipartFile archivo, String descripcion) {
+        if (archivo.isEmpty()) {
+            throw new BadRequestException("No se puede almacenar un archivo vacío");
+        }
+        try (InputStream contenido = archivo.getInputStream()) {
+            return guardarDocumento(reservaId, contenido, archivo.getOriginalFilename(), archivo.getContentType(), descripcion);
+        } catch (IOException e) {
+            throw new FileStorageException("Error al leer el archivo subido", e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public DocumentoDTO guardarDocumento(Long reservaId, InputStream contenido, String nombre, String tipo,
+                                         String descripcion) {
         Reserva reserva = reservaRepository.findById(reservaId)
                 .orElseThrow(() -> new ResourceNotFoundException("Reserva no encontrada con ID: " + reservaId));
+        if (!StringUtils.hasText(nombre)) {
+            throw new BadRequestException("El nombre del archivo es obligatorio");
+        }
 
-        // Almacenar el archivo y obtener la ruta
-        String rutaArchivo = fileStorageService.store(archivo, reservaId);
+        ArchivoAlmacenado archivo = almacenarContenido(contenido, fileStorageProperties.getMaxSize().toBytes());
 
-        // Crear el registro de documento
         Documento documento = new Documento();
         documento.setReserva(reserva);
-        documento.setNombre(archivo.getOriginalFilename());
-        documento.setRuta(rutaArchivo);
-        documento.setTipo(archivo.getContentType());
-        documento.setTamano(archivo.getSize());
+        documento.setNombre(StringUtils.getFilename(StringUtils.cleanPath(nombre)));
+        documento.setRuta(archivo.getRuta());
+        documento.setArchivo(archivo);
+        documento.setTipo(StringUtils.hasText(tipo) ? tipo : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        documento.setTamano(archivo.getTamano());
         documento.setDescripcion(descripcion);
 
         Documento documentoGuardado = documentoRepository.save(documento);
@@ -68,11 +96,9 @@ public class DocumentoServiceImpl implements DocumentoService {
     }
 
     @Override
-    public Resource descargarDocumento(Long id) {
-        Documento documento = documentoRepository.findById(id)
+    public DescargaDocumentoDTO obtenerDescarga(Long id) {
+        return documentoRepository.findDescargaById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Documento no encontrado con ID: " + id));
-
-        return fileStorageService.loadAsResource(documento.getRuta());
     }
 
     @Override
@@ -81,16 +107,62 @@ public class DocumentoServiceImpl implements DocumentoService {
         Documento documento = documentoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Documento no encontrado con ID: " + id));
 
+        String ruta = documento.getRuta();
+        Long archivoId = documento.getArchivo() != null ? documento.getArchivo().getId() : null;
+        documentoRepository.delete(documento);
+        documentoRepository.flush();
+
+        // Documentos anteriores al almacenamiento por hash: el archivo es solo suyo
+        if (archivoId == null) {
+            eliminacionArchivos.eliminarAlConfirmar(ruta);
+            return;
+        }
+
+        // El archivo compartido se borra solo al quitar la última referencia, y después del commit
+        archivoRepository.liberarReferencia(archivoId);
+        if (archivoRepository.eliminarSinReferencias(archivoId) > 0) {
+            eliminacionArchivos.eliminarAlConfirmar(ruta);
+        }
+    }
+
+    // El documento se bloquea mientras se copia su archivo para que otro nodo no lo migre (ni lo elimine) a la vez;
+    // el archivo anterior se borra recién cuando el documento ya apunta al nuevo
+    @Override
+    @Transactional
+    public boolean migrarArchivo(Long id) {
+        Documento documento = documentoRepository.findByIdParaActualizar(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Documento no encontrado con ID: " + id));
+        if (documento.getArchivo() != null) {
+            return false;
+        }
+
+        String rutaAnterior = documento.getRuta();
+        ArchivoAlmacenado archivo;
+        try (InputStream contenido = fileStorageService.loadAsResource(rutaAnterior).getInputStream()) {
+            archivo = almacenarContenido(contenido, Long.MAX_VALUE);
+        } catch (IOException e) {
+            throw new FileStorageException("Error al leer el archivo: " + rutaAnterior, e);
+        }
+
+        documento.setArchivo(archivo);
+        documento.setRuta(archivo.getRuta());
+        eliminacionArchivos.eliminarAlConfirmar(rutaAnterior);
+        return true;
+    }
+
+    // El contenido se guarda una sola vez por hash: si ya existe solo se suma una referencia y el temporal se descarta
+    private ArchivoAlmacenado almacenarContenido(InputStream contenido, long maxBytes) {
+        ContenidoAlmacenadoDTO almacenado = fileStorageService.storeTemporary(contenido, maxBytes);
         try {
-            // Eliminar el archivo físico
-            Path archivo = fileStorageService.load(documento.getRuta());
-            Files.deleteIfExists(archivo);
-
-            // Eliminar el registro de la base de datos
-            documentoRepository.delete(documento);
-        } catch (Exception e) {
-            throw new RuntimeException("Error al eliminar el documento", e);
+            // La referencia se registra antes de mover el archivo: si a la vez se elimina el último documento
+            // con este hash, el registro espera a esa transacción y el archivo borrado se vuelve a colocar
+            archivoRepository.registrarReferencia(almacenado.getHash(), almacenado.getRuta(), almacenado.getTamano());
+            fileStorageService.promote(almacenado);
+        } finally {
+            fileStorageService.discard(almacenado);
         }
+        return archivoRepository.findByHash(almacenado.getHash())
+                .orElseThrow(() -> new IllegalStateException("Archivo no registrado: " + almacenado.getHash()));
     }
 
     private DocumentoDTO convertirADTO(Documento documento) {
@@ -1,20 +1,32 @@
 package com.logistica.agendamiento.service.impl;
 
+import com.logistica.agendamiento.config.AsyncConfig;
+import com.logistica.agendamiento.dto.CorreoReservaDTO;
 import com.logistica.agendamiento.dto.ReservaDetalleDTO;
+import com.logistica.agendamiento.dto.ResumenAdministradorDTO;
+import com.logistica.agendamiento.entity.enums.TipoNotificacion;
+import com.logistica.agendamiento.notificacion.PlantillasCorreo;
 import com.logistica.agendamiento.service.EmailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -22,98 +34,168 @@ import java.time.format.DateTimeFormatter;
 public class EmailServiceImpl implements EmailService {
 
     private final JavaMailSender emailSender;
-    private final TemplateEngine templateEngine;
-
-    private static final String ADMIN_EMAIL = "admin@sistema.com";
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    private final PlantillasCorreo plantillas;
+    private final MeterRegistry meterRegistry;
 
     @Override
-    @Async
-    public void enviarConfirmacionReserva(ReservaDetalleDTO reserva, String destinatario) {
-        try {
-            Context context = new Context();
-            context.setVariable("reserva", reserva);
-            context.setVariable("fecha", reserva.getFecha().format(DATE_FORMATTER));
-            context.setVariable("horaInicio", reserva.getHoraInicio().format(TIME_FORMATTER));
-            context.setVariable("horaFin", reserva.getHoraFin().format(TIME_FORMATTER));
-
-            String subject = "Confirmación de Reserva #" + reserva.getId();
-            String content = templateEngine.process("templates/email/confirmacion-reserva", context);
+    @Async(AsyncConfig.CORREO_EXECUTOR)
+    public CompletableFuture<Void> enviarConfirmacionReserva(ReservaDetalleDTO reserva, String destinatario) {
+        return enviarNotificacion(TipoNotificacion.CONFIRMACION_RESERVA, reserva, destinatario);
+    }
 
-            enviarCorreoHTML(destinatario, subject, content);
+    @Override
+    @Async(AsyncConfig.CORREO_EXECUTOR)
+    public CompletableFuture<Void> enviarNotificacionCambioEstado(ReservaDetalleDTO reserva, String destinatario) {
+        return enviarNotificacion(TipoNotificacion.CAMBIO_ESTADO, reserva, destinatario);
+    }
 
-            // Enviar copia al administrador
-            enviarCorreoHTML(ADMIN_EMAIL, "Nueva Reserva #" + reserva.getId(), content);
+    @Override
+    @Async(AsyncConfig.CORREO_EXECUTOR)
+    public CompletableFuture<Void> enviarNotificacionCancelacion(ReservaDetalleDTO reserva, String destinatario) {
+        return enviarNotificacion(TipoNotificacion.CANCELACION_RESERVA, reserva, destinatario);
+    }
 
+    @Override
+    @Async(AsyncConfig.CORREO_EXECUTOR)
+    public CompletableFuture<Void> enviarCorreo(String to, String subject, String content) {
+        try {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(to);
+            message.setSubject(subject);
+            message.setText(content);
+            medirEnvio("texto", () -> emailSender.send(message));
+            return CompletableFuture.completedFuture(null);
         } catch (Exception e) {
-            log.error("Error al enviar correo de confirmación de reserva", e);
+            registrarFallo("texto");
+            log.error("Error al enviar correo", e);
+            return CompletableFuture.failedFuture(e);
         }
     }
 
     @Override
-    @Async
-    public void enviarNotificacionCambioEstado(ReservaDetalleDTO reserva, String destinatario) {
+    @Async(AsyncConfig.CORREO_EXECUTOR)
+    public CompletableFuture<Void> enviarResumenAdministrador(ResumenAdministradorDTO resumen, String destinatario) {
         try {
-            Context context = new Context();
-            context.setVariable("reserva", reserva);
-            context.setVariable("fecha", reserva.getFecha().format(DATE_FORMATTER));
-            context.setVariable("horaInicio", reserva.getHoraInicio().format(TIME_FORMATTER));
-            context.setVariable("horaFin", reserva.getHoraFin().format(TIME_FORMATTER));
-
-            String subject = "Actualización de Estado - Reserva #" + reserva.getId();
-            String content = templateEngine.process("templates/email/cambio-estado", context);
-
-            enviarCorreoHTML(destinatario, subject, content);
-
+            String subject = "Resumen de Reservas: " + resumen.getReservasNuevas() + " nuevas, "
+                    + resumen.getReservasCanceladas() + " canceladas";
+            MimeMessage mensaje = crearMensajeHTML(destinatario, subject, plantillas.renderizarResumen(resumen));
+            medirEnvio("resumen", () -> emailSender.send(mensaje));
+            return CompletableFuture.completedFuture(null);
         } catch (Exception e) {
-            log.error("Error al enviar correo de cambio de estado", e);
+            registrarFallo("resumen");
+            log.error("Error al enviar el resumen al administrador", e);
+            return CompletableFuture.failedFuture(e);
         }
     }
 
+    // JavaMailSender.send(MimeMessage...) abre una sola conexión SMTP (y un solo saludo TLS) para todo el lote
+    // y sigue con el resto si un mensaje es rechazado, informando cuáles fallaron
     @Override
-    @Async
-    public void enviarNotificacionCancelacion(ReservaDetalleDTO reserva, String destinatario) {
-        try {
-            Context context = new Context();
-            context.setVariable("reserva", reserva);
-            context.setVariable("fecha", reserva.getFecha().format(DATE_FORMATTER));
-            context.setVariable("horaInicio", reserva.getHoraInicio().format(TIME_FORMATTER));
-            context.setVariable("horaFin", reserva.getHoraFin().format(TIME_FORMATTER));
-
-            String subject = "Cancelación de Reserva #" + reserva.getId();
-            String content = templateEngine.process("templates/email/cancelacion-reserva", context);
-
-            enviarCorreoHTML(destinatario, subject, content);
+    @Async(AsyncConfig.CORREO_EXECUTOR)
+    public CompletableFuture<Map<Long, Exception>> enviarLote(List<CorreoReservaDTO> correos) {
+        Map<Long, Exception> fallos = new HashMap<>();
+        Map<MimeMessage, Long> mensajes = new IdentityHashMap<>();
+        List<MimeMessage> orden = new ArrayList<>();
+
+        for (CorreoReservaDTO correo : correos) {
+            try {
+                MimeMessage mensaje = prepararMensaje(correo.getTipo(), correo.getReserva(), correo.getDestinatario());
+                mensajes.put(mensaje, correo.getNotificacionId());
+                orden.add(mensaje);
+            } catch (Exception e) {
+                fallos.put(correo.getNotificacionId(), e);
+            }
+        }
 
-            // Enviar copia al administrador
-            enviarCorreoHTML(ADMIN_EMAIL, "Reserva Cancelada #" + reserva.getId(), content);
+        if (!orden.isEmpty()) {
+            Timer.Sample muestra = Timer.start(meterRegistry);
+            int rechazados = 0;
+            try {
+                emailSender.send(orden.toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    mensajes.values().forEach(id -> fallos.putIfAbsent(id, e));
+                    rechazados = orden.size();
+                } else {
+                    for (Map.Entry<Object, Exception> fallo : e.getFailedMessages().entrySet()) {
+                        fallos.putIfAbsent(mensajes.get(fallo.getKey()), fallo.getValue());
+                    }
+                    rechazados = e.getFailedMessages().size();
+                }
+            } catch (MailException e) {
+                mensajes.values().forEach(id -> fallos.putIfAbsent(id, e));
+                rechazados = orden.size();
+            }
+
+            String resultado = rechazados == 0 ? "ok" : rechazados == orden.size() ? "error" : "parcial";
+            muestra.stop(meterRegistry.timer("correo.lote", "resultado", resultado));
+            meterRegistry.summary("correo.lote.mensajes").record(orden.size());
+            meterRegistry.counter("correo.lote.enviados").increment(orden.size() - rechazados);
+        }
 
-        } catch (Exception e) {
-            log.error("Error al enviar correo de cancelación de reserva", e);
+        if (!fallos.isEmpty()) {
+            meterRegistry.counter("correo.fallidos", "tipo", "lote").increment(fallos.size());
+            log.warn("{} de {} notificaciones del lote no se pudieron enviar", fallos.size(), correos.size());
         }
+        return CompletableFuture.completedFuture(fallos);
     }
 
-    @Override
-    @Async
-    public void enviarCorreo(String to, String subject, String content) {
+    private CompletableFuture<Void> enviarNotificacion(TipoNotificacion tipo, ReservaDetalleDTO reserva, String destinatario) {
+        String etiqueta = etiqueta(tipo);
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(content);
-            emailSender.send(message);
+            MimeMessage mensaje = prepararMensaje(tipo, reserva, destinatario);
+            medirEnvio(etiqueta, () -> emailSender.send(mensaje));
+            return CompletableFuture.completedFuture(null);
         } catch (Exception e) {
-            log.error("Error al enviar correo", e);
+            registrarFallo(etiqueta);
+            log.error("Error al enviar correo de {} de la reserva {}", etiqueta, reserva.getId(), e);
+            return CompletableFuture.failedFuture(e);
         }
     }
 
-    private void enviarCorreoHTML(String to, String subject, String htmlContent) throws MessagingException {
+    // El administrador no recibe copia de cada reserva: las nuevas y canceladas le llegan en ResumenAdministrador
+    private MimeMessage prepararMensaje(TipoNotificacion tipo, ReservaDetalleDTO reserva, String destinatario)
+            throws MessagingException {
+        return switch (tipo) {
+            case CONFIRMACION_RESERVA -> crearMensajeHTML(destinatario, "Confirmación de Reserva #" + reserva.getId(),
+                    plantillas.renderizar(PlantillasCorreo.CONFIRMACION_RESERVA, reserva));
+            case CAMBIO_ESTADO -> crearMensajeHTML(destinatario, "Actualización de Estado - Reserva #" + reserva.getId(),
+                    plantillas.renderizar(PlantillasCorreo.CAMBIO_ESTADO, reserva));
+            case CANCELACION_RESERVA -> crearMensajeHTML(destinatario, "Cancelación de Reserva #" + reserva.getId(),
+                    plantillas.renderizar(PlantillasCorreo.CANCELACION_RESERVA, reserva));
+        };
+    }
+
+    private MimeMessage crearMensajeHTML(String to, String subject, String htmlContent) throws MessagingException {
         MimeMessage message = emailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
         helper.setTo(to);
         helper.setSubject(subject);
         helper.setText(htmlContent, true);
-        emailSender.send(message);
+        return message;
+    }
+
+    private static String etiqueta(TipoNotificacion tipo) {
+        return switch (tipo) {
+            case CONFIRMACION_RESERVA -> "confirmacion";
+            case CAMBIO_ESTADO -> "cambio-estado";
+            case CANCELACION_RESERVA -> "cancelacion";
+        };
+    }
+
+    // Latencia de la entrega al servidor SMTP, separada por tipo de correo y resultado
+    private void medirEnvio(String tipo, Runnable envio) {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        String resultado = "error";
+        try {
+            envio.run();
+            resultado = "ok";
+        } finally {
+            muestra.stop(meterRegistry.timer("correo.envio", "tipo", tipo, "resultado", resultado));
+        }
+    }
+
+    private void registrarFallo(String tipo) {
+        meterRegistry.counter("correo.fallidos", "tipo", tipo).increment();
     }
-}
\ No newline at end of file
+}
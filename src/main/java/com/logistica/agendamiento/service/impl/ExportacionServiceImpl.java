@@ -0,0 +1,134 @@
+package com.logistica.agendamiento.service.impl;
+
+import com.logistica.agendamiento.dto.DocumentoDTO;
+import com.logistica.agendamiento.dto.RegistroTiempoDTO;
+import com.logistica.agendamiento.dto.ReservaDTO;
+import com.logistica.agendamiento.exception.BadRequestException;
+import com.logistica.agendamiento.exportacion.ColumnaExportacion;
+import com.logistica.agendamiento.exportacion.EscritorExportacion;
+import com.logistica.agendamiento.exportacion.FormatoExportacion;
+import com.logistica.agendamiento.repository.DocumentoRepository;
+import com.logistica.agendamiento.repository.RegistroTiempoRepository;
+import com.logistica.agendamiento.repository.ReservaRepository;
+import com.logistica.agendamiento.service.ExportacionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.logistica.agendamiento.exportacion.ColumnaExportacion.de;
+
+// Las consultas devuelven proyecciones (no entidades), así el contexto de persistencia no crece
+// mientras se recorre el cursor y la memoria usada no depende del tamaño del rango.
+@Service
+@Slf4j
+public class ExportacionServiceImpl implements ExportacionService {
+
+    private static final List<ColumnaExportacion<ReservaDTO>> COLUMNAS_RESERVA = List.of(
+            de("id", ReservaDTO::getId),
+            de("fecha", ReservaDTO::getFecha),
+            de("horaInicio", ReservaDTO::getHoraInicio),
+            de("horaFin", ReservaDTO::getHoraFin),
+            de("estado", ReservaDTO::getEstado),
+            de("proveedorId", ReservaDTO::getProveedorId),
+            de("proveedorNombre", ReservaDTO::getProveedorNombre),
+            de("areaNombre", ReservaDTO::getAreaNombre),
+            de("andenNumero", ReservaDTO::getAndenNumero),
+            de("tipoServicioNombre", ReservaDTO::getTipoServicioNombre),
+            de("transportePlaca", ReservaDTO::getTransportePlaca));
+
+    private static final List<ColumnaExportacion<RegistroTiempoDTO>> COLUMNAS_REGISTRO = List.of(
+            de("id", RegistroTiempoDTO::getId),
+            de("reservaId", RegistroTiempoDTO::getReservaId),
+            de("proveedorNombre", RegistroTiempoDTO::getProveedorNombre),
+            de("usuarioId", RegistroTiempoDTO::getUsuarioId),
+            de("usuarioNombre", RegistroTiempoDTO::getUsuarioNombre),
+            de("tipo", RegistroTiempoDTO::getTipo),
+            de("horaInicio", RegistroTiempoDTO::getHoraInicio),
+            de("horaFin", RegistroTiempoDTO::getHoraFin),
+            de("duracion", RegistroTiempoDTO::getDuracion));
+
+    private static final List<ColumnaExportacion<DocumentoDTO>> COLUMNAS_DOCUMENTO = List.of(
+            de("id", DocumentoDTO::getId),
+            de("reservaId", DocumentoDTO::getReservaId),
+            de("nombre", DocumentoDTO::getNombre),
+            de("tipo", DocumentoDTO::getTipo),
+            de("tamano", DocumentoDTO::getTamano),
+            de("descripcion", DocumentoDTO::getDescripcion),
+            de("createdAt", DocumentoDTO::getCreatedAt));
+
+    private final ReservaRepository reservaRepository;
+    private final RegistroTiempoRepository registroTiempoRepository;
+    private final DocumentoRepository documentoRepository;
+    private final EscritorExportacion escritor;
+    private final TransactionTemplate transactionTemplate;
+
+    public ExportacionServiceImpl(ReservaRepository reservaRepository,
+                                  RegistroTiempoRepository registroTiempoRepository,
+                                  DocumentoRepository documentoRepository,
+                                  EscritorExportacion escritor,
+                                  PlatformTransactionManager transactionManager) {
+        this.reservaRepository = reservaRepository;
+        this.registroTiempoRepository = registroTiempoRepository;
+        this.documentoRepository = documentoRepository;
+        this.escritor = escritor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void exportarReservas(LocalDate desde, LocalDate hasta, FormatoExportacion formato, OutputStream salida)
+            throws IOException {
+        validarRango(desde, hasta);
+        exportar("reservas", () -> reservaRepository.streamPorRangoFechas(desde, hasta),
+                COLUMNAS_RESERVA, formato, salida);
+    }
+
+    @Override
+    public void exportarRegistrosTiempo(LocalDate desde, LocalDate hasta, FormatoExportacion formato, OutputStream salida)
+            throws IOException {
+        validarRango(desde, hasta);
+        exportar("registros de tiempo", () -> registroTiempoRepository.streamPorRangoFechas(
+                desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay()), COLUMNAS_REGISTRO, formato, salida);
+    }
+
+    @Override
+    public void exportarDocumentos(LocalDate desde, LocalDate hasta, FormatoExportacion formato, OutputStream salida)
+            throws IOException {
+        validarRango(desde, hasta);
+        exportar("documentos", () -> documentoRepository.streamPorRangoFechas(
+                desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay()), COLUMNAS_DOCUMENTO, formato, salida);
+    }
+
+    // El cursor solo es válido mientras la transacción (y su conexión) siga abierta
+    private <T> void exportar(String descripcion, Supplier<Stream<T>> consulta, List<ColumnaExportacion<T>> columnas,
+                              FormatoExportacion formato, OutputStream salida) throws IOException {
+        try {
+            Long total = transactionTemplate.execute(status -> {
+                try (Stream<T> filas = consulta.get()) {
+                    return escritor.escribir(filas, columnas, formato, salida);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.info("Exportación de {} en {}: {} filas", descripcion, formato, total);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public void validarRango(LocalDate desde, LocalDate hasta) {
+        if (hasta.isBefore(desde)) {
+            throw new BadRequestException("La fecha final no puede ser anterior a la fecha inicial");
+        }
+    }
+}
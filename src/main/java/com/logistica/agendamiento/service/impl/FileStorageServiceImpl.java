@@ -1,33 +1,49 @@
 package com.logistica.agendamiento.service.impl;
 
 import com.logistica.agendamiento.config.FileStorageProperties;
+import com.logistica.agendamiento.dto.ContenidoAlmacenadoDTO;
+import com.logistica.agendamiento.dto.EntradaAlmacenamientoDTO;
+import com.logistica.agendamiento.exception.BadRequestException;
 import com.logistica.agendamiento.exception.FileStorageException;
 import com.logistica.agendamiento.exception.ResourceNotFoundException;
 import com.logistica.agendamiento.service.FileStorageService;
-import org.apache.commons.io.FilenameUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.Objects;
-import java.util.UUID;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 @Service
+@ConditionalOnProperty(prefix = "file", name = "storage", havingValue = "local", matchIfMissing = true)
+@Slf4j
 public class FileStorageServiceImpl implements FileStorageService {
 
     private final Path rootLocation;
+    private final Path temporales;
 
     public FileStorageServiceImpl(FileStorageProperties properties) {
         this.rootLocation = Paths.get(properties.getUploadDir());
+        // Dentro de la misma raíz para que mover el temporal a su ruta final sea un simple renombrado
+        this.temporales = rootLocation.resolve(PREFIJO_TEMPORAL);
         try {
             Files.createDirectories(rootLocation);
         } catch (IOException e) {
@@ -36,48 +52,90 @@ public class FileStorageServiceImpl implements FileStorageService {
     }
 
     @Override
-    public String store(MultipartFile file, Long reservaId) {
+    public ContenidoAlmacenadoDTO storeTemporary(InputStream content, long maxBytes) {
+        Path temporal = null;
         try {
-            if (file.isEmpty()) {
-                throw new FileStorageException("No se puede almacenar un archivo vacío");
-            }
+            Files.createDirectories(temporales);
+            temporal = Files.createTempFile(temporales, "subida-", ".tmp");
 
-            // Crear directorio para la reserva si no existe
-            Path reservaDir = rootLocation.resolve(reservaId.toString());
-            if (!Files.exists(reservaDir)) {
-                Files.createDirectories(reservaDir);
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            long tamano;
+            try (InputStream entrada = new DigestInputStream(content, sha256);
+                 OutputStream salida = Files.newOutputStream(temporal)) {
+                tamano = copiar(entrada, salida, maxBytes);
+            }
+            if (tamano == 0) {
+                throw new BadRequestException("No se puede almacenar un archivo vacío");
             }
 
-            // Generar nombre único para el archivo
-            String originalFileName = StringUtils.cleanPath(Objects.requireNonNull(file.getOriginalFilename()));
-            String extension = FilenameUtils.getExtension(originalFileName);
-            String newFileName = UUID.randomUUID().toString() + "." + extension;
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            ContenidoAlmacenadoDTO contenido = new ContenidoAlmacenadoDTO(hash, FileStorageService.rutaContenido(hash),
+                    tamano, rootLocation.relativize(temporal).toString());
+            temporal = null;
+            return contenido;
+        } catch (IOException e) {
+            throw new FileStorageException("Error al almacenar el archivo", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        } finally {
+            eliminarSilenciosamente(temporal);
+        }
+    }
 
-            Path destinationFile = reservaDir.resolve(Paths.get(newFileName))
-                    .normalize().toAbsolutePath();
+    @Override
+    public void promote(ContenidoAlmacenadoDTO content) {
+        Path destino = load(content.getRuta());
+        if (Files.exists(destino)) {
+            return;
+        }
+        try {
+            Files.createDirectories(destino.getParent());
+            // El renombrado es atómico: nadie ve el archivo a medio escribir. Si otra subida con el mismo
+            // contenido llega a la vez, uno reemplaza al otro con bytes idénticos.
+            Files.move(load(content.getRutaTemporal()), destino, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new FileStorageException("Error al almacenar el archivo", e);
+        }
+    }
 
-            try (var inputStream = file.getInputStream()) {
-                Files.copy(inputStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
-            }
+    @Override
+    public void discard(ContenidoAlmacenadoDTO content) {
+        eliminarSilenciosamente(load(content.getRutaTemporal()));
+    }
 
-            return reservaId + "/" + newFileName;
+    @Override
+    public void delete(String filename) {
+        try {
+            Path archivo = load(filename);
+            Files.deleteIfExists(archivo);
+            // Los directorios por reserva del esquema anterior se quitan al quedar vacíos;
+            // los fragmentos sha256/ab/cd y tmp se conservan porque su cantidad está acotada
+            Path directorio = archivo.getParent();
+            boolean esquemaAnterior = !filename.startsWith(PREFIJO_CONTENIDO) && !filename.startsWith(PREFIJO_TEMPORAL);
+            if (esquemaAnterior && directorio != null && !directorio.equals(rootLocation)) {
+                eliminarDirectorioVacio(directorio);
+            }
         } catch (IOException e) {
-            throw new FileStorageException("Error al almacenar el archivo", e);
+            throw new FileStorageException("Error al eliminar el archivo: " + filename, e);
         }
     }
 
     @Override
-    public Stream<Path> loadAll() {
+    public Stream<EntradaAlmacenamientoDTO> list(String prefix) {
+        Path base = load(prefix);
+        if (!Files.isDirectory(base)) {
+            return Stream.empty();
+        }
         try {
-            return Files.walk(this.rootLocation, 1)
-                    .filter(path -> !path.equals(this.rootLocation))
-                    .map(this.rootLocation::relativize);
+            return Files.walk(base)
+                    .filter(Files::isRegularFile)
+                    .map(this::entrada)
+                    .flatMap(Optional::stream);
         } catch (IOException e) {
             throw new FileStorageException("Error al leer los archivos almacenados", e);
         }
     }
 
-    @Override
     public Path load(String filename) {
         return rootLocation.resolve(filename);
     }
@@ -98,19 +156,80 @@ public class FileStorageServiceImpl implements FileStorageService {
     }
 
     @Override
-    public void deleteAll() {
+    public long size(String filename) {
+        try {
+            return Files.size(load(filename));
+        } catch (IOException e) {
+            throw new ResourceNotFoundException("No se pudo leer el archivo: " + filename, e);
+        }
+    }
+
+    @Override
+    public long transferTo(String filename, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel canal = FileChannel.open(load(filename), StandardOpenOption.READ)) {
+            long transferidos = 0;
+            while (transferidos < count) {
+                long enviados = canal.transferTo(position + transferidos, count - transferidos, target);
+                if (enviados <= 0) {
+                    break;
+                }
+                transferidos += enviados;
+            }
+            return transferidos;
+        }
+    }
+
+    @Override
+    public Optional<Path> localFile(String filename) {
+        return Optional.of(load(filename).toAbsolutePath());
+    }
+
+    @Override
+    public Optional<URI> presignedDownload(String filename, String downloadName, String contentType) {
+        return Optional.empty();
+    }
+
+    // Un archivo que desaparece mientras se lista (otro nodo lo eliminó) simplemente se omite
+    private Optional<EntradaAlmacenamientoDTO> entrada(Path archivo) {
+        try {
+            String ruta = rootLocation.relativize(archivo).toString().replace('\\', '/');
+            return Optional.of(new EntradaAlmacenamientoDTO(ruta, Files.size(archivo),
+                    Files.getLastModifiedTime(archivo).toInstant()));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static long copiar(InputStream entrada, OutputStream salida, long maximo) throws IOException {
+        byte[] bufer = new byte[64 * 1024];
+        long total = 0;
+        int leidos;
+        while ((leidos = entrada.read(bufer)) != -1) {
+            total += leidos;
+            if (total > maximo) {
+                throw new BadRequestException("El archivo supera el tamaño máximo permitido");
+            }
+            salida.write(bufer, 0, leidos);
+        }
+        return total;
+    }
+
+    private static void eliminarDirectorioVacio(Path directorio) {
+        try {
+            Files.deleteIfExists(directorio);
+        } catch (IOException e) {
+            // No está vacío o lo está usando otra subida
+        }
+    }
+
+    private static void eliminarSilenciosamente(Path archivo) {
+        if (archivo == null) {
+            return;
+        }
         try {
-            Files.walk(rootLocation)
-                    .sorted((a, b) -> -a.compareTo(b))
-                    .forEach(path -> {
-                        try {
-                            Files.delete(path);
-                        } catch (IOException e) {
-                            throw new FileStorageException("Error al eliminar archivos", e);
-                        }
-                    });
+            Files.deleteIfExists(archivo);
         } catch (IOException e) {
-            throw new FileStorageException("Error al eliminar archivos", e);
+            log.warn("No se pudo eliminar el archivo temporal {}", archivo, e);
         }
     }
-}
\ No newline at end of file
+}
@@ -5,6 +5,7 @@ import com.logistica.agendamiento.entity.Proveedor;
 import com.logistica.agendamiento.exception.ResourceAlreadyExistsException;
 import com.logistica.agendamiento.exception.ResourceNotFoundException;
 import com.logistica.agendamiento.repository.ProveedorRepository;
+import com.logistica.agendamiento.security.CachePrincipales;
 import com.logistica.agendamiento.service.ProveedorService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -17,6 +18,7 @@ import java.util.stream.Collectors;
 public class ProveedorServiceImpl implements ProveedorService {
 
     private final ProveedorRepository proveedorRepository;
+    private final CachePrincipales cachePrincipales;
 
     @Override
     public List<ProveedorDTO> obtenerTodosLosProveedores() {
@@ -79,6 +81,9 @@ public class ProveedorServiceImpl implements ProveedorService {
         }
 
         Proveedor proveedorActualizado = proveedorRepository.save(proveedor);
+        if (proveedorActualizado.getUsuario() != null) {
+            cachePrincipales.invalidar(proveedorActualizado.getUsuario().getUsername());
+        }
         return convertirADTO(proveedorActualizado);
     }
 
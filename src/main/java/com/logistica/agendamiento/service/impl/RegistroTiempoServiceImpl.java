@@ -11,6 +11,7 @@ import com.logistica.agendamiento.repository.RegistroTiempoRepository;
 import com.logistica.agendamiento.repository.ReservaRepository;
 import com.logistica.agendamiento.repository.UsuarioRepository;
 import com.logistica.agendamiento.service.RegistroTiempoService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +25,7 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "servicio.registros.tiempo", histogram = true)
 public class RegistroTiempoServiceImpl implements RegistroTiempoService {
 
     private final RegistroTiempoRepository registroTiempoRepository;
@@ -1,86 +1,132 @@
 package com.logistica.agendamiento.service.impl;
 
+import com.logistica.agendamiento.agenda.AgendaAndenDia;
+import com.logistica.agendamiento.agenda.AsignadorAndenes;
+import com.logistica.agendamiento.agenda.ControlOcupacionAndenes;
+import com.logistica.agendamiento.agenda.IndiceOcupacionAndenes;
+import com.logistica.agendamiento.agenda.MotorDisponibilidad;
+import com.logistica.agendamiento.catalogo.CatalogoReferencia;
+import com.logistica.agendamiento.config.AgendaProperties;
 import com.logistica.agendamiento.dto.*;
 import com.logistica.agendamiento.entity.*;
+import com.logistica.agendamiento.entity.enums.CaracteristicaAnden;
 import com.logistica.agendamiento.entity.enums.EstadoAnden;
 import com.logistica.agendamiento.entity.enums.EstadoReserva;
+import com.logistica.agendamiento.entity.enums.TipoNotificacion;
 import com.logistica.agendamiento.exception.BadRequestException;
+import com.logistica.agendamiento.exception.HorarioNoDisponibleException;
 import com.logistica.agendamiento.exception.ResourceNotFoundException;
+import com.logistica.agendamiento.notificacion.BandejaSalidaNotificaciones;
+import com.logistica.agendamiento.notificacion.ResumenAdministrador;
 import com.logistica.agendamiento.repository.*;
-import com.logistica.agendamiento.service.EmailService;
 import com.logistica.agendamiento.service.ReservaService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "servicio.reservas", histogram = true)
 public class ReservaServiceImpl implements ReservaService {
 
+    private static final int TAMANO_MAXIMO_PAGINA = 200;
+
     private final ReservaRepository reservaRepository;
     private final ProveedorRepository proveedorRepository;
     private final AreaRepository areaRepository;
     private final AndenRepository andenRepository;
-    private final TipoServicioRepository tipoServicioRepository;
     private final TransporteRepository transporteRepository;
     private final TransportistaRepository transportistaRepository;
-    private final EmailService emailService;
+    private final BandejaSalidaNotificaciones notificaciones;
+    private final ResumenAdministrador resumenAdministrador;
+    private final IndiceOcupacionAndenes indiceOcupacion;
+    private final ControlOcupacionAndenes controlOcupacion;
+    private final MotorDisponibilidad motorDisponibilidad;
+    private final AsignadorAndenes asignadorAndenes;
+    private final AgendaProperties agendaProperties;
+    private final MeterRegistry meterRegistry;
+    private final CatalogoReferencia catalogo;
 
     @Override
-    public List<ReservaDTO> obtenerTodasLasReservas() {
-        return reservaRepository.findAll().stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public PaginaReservasDTO buscarReservas(FiltroReservaDTO filtro, String cursor, int tamano) {
+        if (filtro.getFechaDesde() != null && filtro.getFechaHasta() != null
+                && filtro.getFechaHasta().isBefore(filtro.getFechaDesde())) {
+            throw new BadRequestException("La fecha final no puede ser anterior a la fecha inicial");
+        }
+        int limite = Math.max(1, Math.min(tamano, TAMANO_MAXIMO_PAGINA));
+
+        // Se pide una fila de más para saber si existe una página siguiente
+        List<ReservaDTO> reservas = reservaRepository.buscar(filtro, decodificarCursor(cursor), limite + 1);
+        if (reservas.size() <= limite) {
+            return new PaginaReservasDTO(reservas, null);
+        }
+
+        List<ReservaDTO> pagina = new ArrayList<>(reservas.subList(0, limite));
+        return new PaginaReservasDTO(pagina, codificarCursor(pagina.get(limite - 1)));
     }
 
     @Override
-    public List<ReservaDTO> obtenerReservasPorFecha(LocalDate fecha) {
-        return reservaRepository.findByFecha(fecha).stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public PaginaReservasDTO obtenerReservasPorFecha(LocalDate fecha, String cursor, int tamano) {
+        FiltroReservaDTO filtro = new FiltroReservaDTO();
+        filtro.setFechaDesde(fecha);
+        filtro.setFechaHasta(fecha);
+        return buscarReservas(filtro, cursor, tamano);
     }
 
+    // En los listados por entidad solo se comprueba que exista cuando la primera página sale vacía,
+    // así el caso habitual se resuelve con una única consulta
     @Override
-    public List<ReservaDTO> obtenerReservasPorProveedorId(Long proveedorId) {
-        Proveedor proveedor = proveedorRepository.findById(proveedorId)
-                .orElseThrow(() -> new ResourceNotFoundException("Proveedor no encontrado con ID: " + proveedorId));
-
-        return reservaRepository.findByProveedor(proveedor).stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public PaginaReservasDTO obtenerReservasPorProveedorId(Long proveedorId, String cursor, int tamano) {
+        FiltroReservaDTO filtro = new FiltroReservaDTO();
+        filtro.setProveedorId(proveedorId);
+        PaginaReservasDTO pagina = buscarReservas(filtro, cursor, tamano);
+        if (cursor == null && pagina.getContenido().isEmpty() && !proveedorRepository.existsById(proveedorId)) {
+            throw new ResourceNotFoundException("Proveedor no encontrado con ID: " + proveedorId);
+        }
+        return pagina;
     }
 
     @Override
-    public List<ReservaDTO> obtenerReservasPorAreaId(Long areaId) {
-        Area area = areaRepository.findById(areaId)
-                .orElseThrow(() -> new ResourceNotFoundException("Área no encontrada con ID: " + areaId));
-
-        return reservaRepository.findByArea(area).stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public PaginaReservasDTO obtenerReservasPorAreaId(Long areaId, String cursor, int tamano) {
+        FiltroReservaDTO filtro = new FiltroReservaDTO();
+        filtro.setAreaId(areaId);
+        PaginaReservasDTO pagina = buscarReservas(filtro, cursor, tamano);
+        if (cursor == null && pagina.getContenido().isEmpty() && !areaRepository.existsById(areaId)) {
+            throw new ResourceNotFoundException("Área no encontrada con ID: " + areaId);
+        }
+        return pagina;
     }
 
     @Override
-    public List<ReservaDTO> obtenerReservasPorAndenId(Long andenId) {
-        Anden anden = andenRepository.findById(andenId)
-                .orElseThrow(() -> new ResourceNotFoundException("Andén no encontrado con ID: " + andenId));
-
-        return reservaRepository.findByAnden(anden).stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public PaginaReservasDTO obtenerReservasPorAndenId(Long andenId, String cursor, int tamano) {
+        FiltroReservaDTO filtro = new FiltroReservaDTO();
+        filtro.setAndenId(andenId);
+        PaginaReservasDTO pagina = buscarReservas(filtro, cursor, tamano);
+        if (cursor == null && pagina.getContenido().isEmpty() && !andenRepository.existsById(andenId)) {
+            throw new ResourceNotFoundException("Andén no encontrado con ID: " + andenId);
+        }
+        return pagina;
     }
 
     @Override
-    public List<ReservaDTO> obtenerReservasPorEstado(EstadoReserva estado) {
-        return reservaRepository.findByEstado(estado).stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+    public PaginaReservasDTO obtenerReservasPorEstado(EstadoReserva estado, String cursor, int tamano) {
+        FiltroReservaDTO filtro = new FiltroReservaDTO();
+        filtro.setEstado(estado);
+        return buscarReservas(filtro, cursor, tamano);
     }
 
     @Override
@@ -93,27 +139,29 @@ public class ReservaServiceImpl implements ReservaService {
     @Override
     @Transactional
     public ReservaDetalleDTO crearReserva(ReservaDTO reservaDTO) {
-        // Validar y obtener entidades relacionadas
+        // Validar y obtener entidades relacionadas; área, andén y tipo de servicio salen de la copia en memoria
         Proveedor proveedor = proveedorRepository.findById(reservaDTO.getProveedorId())
                 .orElseThrow(() -> new ResourceNotFoundException("Proveedor no encontrado con ID: " + reservaDTO.getProveedorId()));
 
-        Area area = areaRepository.findById(reservaDTO.getAreaId())
+        Area area = catalogo.area(reservaDTO.getAreaId())
                 .orElseThrow(() -> new ResourceNotFoundException("Área no encontrada con ID: " + reservaDTO.getAreaId()));
 
-        Anden anden = andenRepository.findById(reservaDTO.getAndenId())
-                .orElseThrow(() -> new ResourceNotFoundException("Andén no encontrado con ID: " + reservaDTO.getAndenId()));
-
-        TipoServicio tipoServicio = tipoServicioRepository.findById(reservaDTO.getTipoServicioId())
+        TipoServicio tipoServicio = catalogo.tipoServicio(reservaDTO.getTipoServicioId())
                 .orElseThrow(() -> new ResourceNotFoundException("Tipo de servicio no encontrado con ID: " + reservaDTO.getTipoServicioId()));
 
+        // Sin andén indicado se asigna el andén compatible que mejor aprovecha la agenda del área
+        Anden anden = reservaDTO.getAndenId() != null
+                ? catalogo.anden(reservaDTO.getAndenId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Andén no encontrado con ID: " + reservaDTO.getAndenId()))
+                : asignarAnden(area, tipoServicio, reservaDTO, null);
+
         // Validar si el andén pertenece al área seleccionada
         if (!anden.getArea().getId().equals(area.getId())) {
             throw new BadRequestException("El andén seleccionado no pertenece al área especificada");
         }
 
-        // Validar si el andén es adecuado para el tipo de servicio
-        boolean esContenedor = tipoServicio.getNombre().equalsIgnoreCase("Contenedor");
-        if (esContenedor && !anden.getExclusivoContenedor() || !esContenedor && anden.getExclusivoContenedor()) {
+        // Validar si el andén ofrece las características que exige el tipo de servicio
+        if (!CaracteristicaAnden.cumple(anden.getCaracteristicas(), tipoServicio.getCaracteristicasRequeridas())) {
             throw new BadRequestException("El andén seleccionado no es compatible con el tipo de servicio");
         }
 
@@ -123,14 +171,19 @@ public class ReservaServiceImpl implements ReservaService {
         }
 
         // Verificar si hay conflictos con otras reservas
-        List<Reserva> conflictos = reservaRepository.findConflictos(
-                reservaDTO.getFecha(),
-                anden,
-                reservaDTO.getHoraInicio(),
-                reservaDTO.getHoraFin());
+        if (indiceOcupacion.hayConflicto(anden.getId(), reservaDTO.getFecha(),
+                reservaDTO.getHoraInicio(), reservaDTO.getHoraFin(), null)) {
+            registrarConflicto();
+            throw horarioNoDisponible(area, tipoServicio, reservaDTO, null,
+                    "El horario seleccionado no está disponible para este andén");
+        }
 
-        if (!conflictos.isEmpty()) {
-            throw new BadRequestException("El horario seleccionado no está disponible para este andén");
+        // Ocupar el horario en la base de datos; serializa a quienes compiten por el mismo andén y fecha
+        try {
+            controlOcupacion.ocupar(anden.getId(), reservaDTO.getFecha(),
+                    reservaDTO.getHoraInicio(), reservaDTO.getHoraFin());
+        } catch (HorarioNoDisponibleException e) {
+            throw horarioNoDisponible(area, tipoServicio, reservaDTO, null, e.getMessage());
         }
 
         // Crear y guardar el transporte
@@ -184,9 +237,12 @@ public class ReservaServiceImpl implements ReservaService {
         reserva.setDescripcion(reservaDTO.getDescripcion());
 
         Reserva reservaSaved = reservaRepository.save(reserva);
+        indiceOcupacion.agregarDespuesDelCommit(reservaSaved.getId(), anden.getId(), reservaSaved.getFecha(),
+                reservaSaved.getHoraInicio(), reservaSaved.getHoraFin());
 
         ReservaDetalleDTO reservaDetalle = convertirADetalleDTO(reservaSaved);
-        emailService.enviarConfirmacionReserva(reservaDetalle, reserva.getProveedor().getEmail());
+        notificaciones.registrar(TipoNotificacion.CONFIRMACION_RESERVA, reservaDetalle, reserva.getProveedor().getEmail());
+        resumenAdministrador.registrar(TipoNotificacion.CONFIRMACION_RESERVA, reservaDetalle);
 
         return reservaDetalle;
     }
@@ -203,23 +259,25 @@ public class ReservaServiceImpl implements ReservaService {
         }
 
         // Validar y obtener entidades relacionadas
-        Area area = areaRepository.findById(reservaDTO.getAreaId())
+        Area area = catalogo.area(reservaDTO.getAreaId())
                 .orElseThrow(() -> new ResourceNotFoundException("Área no encontrada con ID: " + reservaDTO.getAreaId()));
 
-        Anden anden = andenRepository.findById(reservaDTO.getAndenId())
-                .orElseThrow(() -> new ResourceNotFoundException("Andén no encontrado con ID: " + reservaDTO.getAndenId()));
-
-        TipoServicio tipoServicio = tipoServicioRepository.findById(reservaDTO.getTipoServicioId())
+        TipoServicio tipoServicio = catalogo.tipoServicio(reservaDTO.getTipoServicioId())
                 .orElseThrow(() -> new ResourceNotFoundException("Tipo de servicio no encontrado con ID: " + reservaDTO.getTipoServicioId()));
 
+        // Sin andén indicado se asigna el andén compatible que mejor aprovecha la agenda del área
+        Anden anden = reservaDTO.getAndenId() != null
+                ? catalogo.anden(reservaDTO.getAndenId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Andén no encontrado con ID: " + reservaDTO.getAndenId()))
+                : asignarAnden(area, tipoServicio, reservaDTO, id);
+
         // Validar si el andén pertenece al área seleccionada
         if (!anden.getArea().getId().equals(area.getId())) {
             throw new BadRequestException("El andén seleccionado no pertenece al área especificada");
         }
 
-        // Validar si el andén es adecuado para el tipo de servicio
-        boolean esContenedor = tipoServicio.getNombre().equalsIgnoreCase("Contenedor");
-        if (esContenedor && !anden.getExclusivoContenedor() || !esContenedor && anden.getExclusivoContenedor()) {
+        // Validar si el andén ofrece las características que exige el tipo de servicio
+        if (!CaracteristicaAnden.cumple(anden.getCaracteristicas(), tipoServicio.getCaracteristicasRequeridas())) {
             throw new BadRequestException("El andén seleccionado no es compatible con el tipo de servicio");
         }
 
@@ -229,20 +287,19 @@ public class ReservaServiceImpl implements ReservaService {
                 !reserva.getHoraInicio().equals(reservaDTO.getHoraInicio()) ||
                 !reserva.getHoraFin().equals(reservaDTO.getHoraFin())) {
 
-            // Verificar si hay conflictos con otras reservas
-            List<Reserva> conflictos = reservaRepository.findConflictos(
-                    reservaDTO.getFecha(),
-                    anden,
-                    reservaDTO.getHoraInicio(),
-                    reservaDTO.getHoraFin());
-
-            // Excluir la reserva actual de los conflictos
-            conflictos = conflictos.stream()
-                    .filter(r -> !r.getId().equals(id))
-                    .collect(Collectors.toList());
+            // Verificar si hay conflictos con otras reservas, excluyendo la reserva actual
+            if (indiceOcupacion.hayConflicto(anden.getId(), reservaDTO.getFecha(),
+                    reservaDTO.getHoraInicio(), reservaDTO.getHoraFin(), id)) {
+                registrarConflicto();
+                throw horarioNoDisponible(area, tipoServicio, reservaDTO, id,
+                        "El horario seleccionado no está disponible para este andén");
+            }
 
-            if (!conflictos.isEmpty()) {
-                throw new BadRequestException("El horario seleccionado no está disponible para este andén");
+            try {
+                controlOcupacion.mover(intervaloDe(reserva), anden.getId(), reservaDTO.getFecha(),
+                        reservaDTO.getHoraInicio(), reservaDTO.getHoraFin());
+            } catch (HorarioNoDisponibleException e) {
+                throw horarioNoDisponible(area, tipoServicio, reservaDTO, id, e.getMessage());
             }
         }
 
@@ -287,6 +344,7 @@ public class ReservaServiceImpl implements ReservaService {
         transportistaRepository.saveAll(transportistas);
 
         // Actualizar la reserva
+        indiceOcupacion.retirarDespuesDelCommit(id, reserva.getAnden().getId(), reserva.getFecha());
         reserva.setArea(area);
         reserva.setAnden(anden);
         reserva.setTipoServicio(tipoServicio);
@@ -296,6 +354,8 @@ public class ReservaServiceImpl implements ReservaService {
         reserva.setDescripcion(reservaDTO.getDescripcion());
 
         Reserva reservaActualizada = reservaRepository.save(reserva);
+        indiceOcupacion.agregarDespuesDelCommit(id, anden.getId(), reservaActualizada.getFecha(),
+                reservaActualizada.getHoraInicio(), reservaActualizada.getHoraFin());
 
         // TODO: Actualizar documentos si es necesario
 
@@ -311,11 +371,23 @@ public class ReservaServiceImpl implements ReservaService {
                 .orElseThrow(() -> new ResourceNotFoundException("Reserva no encontrada con ID: " + id));
 
         // Validar la transición de estado
-        validarTransicionEstado(reserva.getEstado(), estado);
+        try {
+            validarTransicionEstado(reserva.getEstado(), estado);
+        } catch (BadRequestException e) {
+            meterRegistry.counter("reservas.transiciones.invalidas",
+                    "desde", reserva.getEstado().name(), "hacia", estado.name()).increment();
+            throw e;
+        }
 
         reserva.setEstado(estado);
         Reserva reservaActualizada = reservaRepository.save(reserva);
 
+        // Una reserva cancelada deja libre su horario
+        if (estado == EstadoReserva.CANCELADA) {
+            controlOcupacion.liberar(intervaloDe(reserva));
+            indiceOcupacion.retirarDespuesDelCommit(id, reserva.getAnden().getId(), reserva.getFecha());
+        }
+
         // Si el estado es EN_RECEPCION, actualizar el estado del andén a OCUPADO
         if (estado == EstadoReserva.EN_RECEPCION) {
             Anden anden = reserva.getAnden();
@@ -332,7 +404,7 @@ public class ReservaServiceImpl implements ReservaService {
 
         // Enviar notificación por correo sobre el cambio de estado
         ReservaDetalleDTO reservaDetalle = convertirADetalleDTO(reservaActualizada);
-        emailService.enviarNotificacionCambioEstado(reservaDetalle, reserva.getProveedor().getEmail());
+        notificaciones.registrar(TipoNotificacion.CAMBIO_ESTADO, reservaDetalle, reserva.getProveedor().getEmail());
 
         return reservaDetalle;
     }
@@ -350,38 +422,22 @@ public class ReservaServiceImpl implements ReservaService {
 
         reserva.setEstado(EstadoReserva.CANCELADA);
         reservaRepository.save(reserva);
+        controlOcupacion.liberar(intervaloDe(reserva));
+        indiceOcupacion.retirarDespuesDelCommit(id, reserva.getAnden().getId(), reserva.getFecha());
 
         // Enviar notificación por correo sobre la cancelación
         ReservaDetalleDTO reservaDetalle = convertirADetalleDTO(reserva);
-        emailService.enviarNotificacionCancelacion(reservaDetalle, reserva.getProveedor().getEmail());
+        notificaciones.registrar(TipoNotificacion.CANCELACION_RESERVA, reservaDetalle, reserva.getProveedor().getEmail());
+        resumenAdministrador.registrar(TipoNotificacion.CANCELACION_RESERVA, reservaDetalle);
     }
 
     @Override
     public List<DisponibilidadAndenDTO> obtenerDisponibilidadPorFechaYArea(LocalDate fecha, Long areaId, Long tipoServicioId) {
-        Area area = areaRepository.findById(areaId)
+        Area area = catalogo.area(areaId)
                 .orElseThrow(() -> new ResourceNotFoundException("Área no encontrada con ID: " + areaId));
 
-        // Determinar si se requieren andenes exclusivos para contenedores
-        boolean requiereContenedor = false;
-        if (tipoServicioId != null) {
-            TipoServicio tipoServicio = tipoServicioRepository.findById(tipoServicioId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Tipo de servicio no encontrado con ID: " + tipoServicioId));
-            requiereContenedor = tipoServicio.getNombre().equalsIgnoreCase("Contenedor");
-        }
-
-        // Obtener todos los andenes del área que coincidan con el requisito de contenedor
-        List<Anden> andenes;
-        if (tipoServicioId != null) {
-            andenes = andenRepository.findByAreaAndExclusivoContenedor(area, requiereContenedor);
-        } else {
-            andenes = andenRepository.findByArea(area);
-        }
-
-        // Obtener todas las reservas para esa fecha y área
-        List<Reserva> reservasDelDia = reservaRepository.findByFechaAndArea(fecha, area);
-
-        // Generar disponibilidad para cada andén
-        return andenes.stream().map(anden -> {
+        // Las reservas de cada andén salen del índice de ocupación, sin recorrer las reservas del día por cada andén
+        return andenesCompatibles(area, tipoServicioId).stream().map(anden -> {
             DisponibilidadAndenDTO disponibilidad = new DisponibilidadAndenDTO();
             disponibilidad.setAndenId(anden.getId());
             disponibilidad.setNumero(anden.getNumero());
@@ -389,21 +445,157 @@ public class ReservaServiceImpl implements ReservaService {
             disponibilidad.setAreaNombre(area.getNombre());
             disponibilidad.setEstadoActual(anden.getEstado());
             disponibilidad.setExclusivoContenedor(anden.getExclusivoContenedor());
+            disponibilidad.setCaracteristicas(CaracteristicaAnden.de(anden.getCaracteristicas()));
 
-            // Filtrar reservas para este andén específico
-            List<HorarioReservadoDTO> horariosReservados = reservasDelDia.stream()
-                    .filter(r -> r.getAnden().getId().equals(anden.getId()))
-                    .filter(r -> r.getEstado() != EstadoReserva.CANCELADA)
-                    .map(r -> new HorarioReservadoDTO(r.getHoraInicio(), r.getHoraFin()))
-                    .collect(Collectors.toList());
-
-            disponibilidad.setHorariosReservados(horariosReservados);
+            AgendaAndenDia agenda = indiceOcupacion.obtenerAgenda(anden.getId(), fecha);
+            disponibilidad.setHorariosReservados(agenda.horariosReservados());
+            disponibilidad.setHorariosDisponibles(motorDisponibilidad.horariosDisponibles(agenda, fecha));
 
             return disponibilidad;
         }).collect(Collectors.toList());
     }
 
-    private void validarTransicionEstado(EstadoReserva estadoActual, EstadoReserva nuevoEstado) {
+    @Override
+    public List<HorarioSugeridoDTO> obtenerHorariosDisponibles(LocalDate fecha, Long areaId, Long tipoServicioId,
+                                                               int duracionMinutos, int cantidad) {
+        if (duracionMinutos <= 0 || cantidad <= 0) {
+            throw new BadRequestException("La duración y la cantidad de horarios deben ser mayores a cero");
+        }
+
+        Area area = catalogo.area(areaId)
+                .orElseThrow(() -> new ResourceNotFoundException("Área no encontrada con ID: " + areaId));
+
+        // Solo se sugieren andenes que hoy pueden recibir reservas
+        List<Anden> andenes = andenesCompatibles(area, tipoServicioId).stream()
+                .filter(anden -> anden.getEstado() == EstadoAnden.DISPONIBLE)
+                .collect(Collectors.toList());
+
+        return motorDisponibilidad.primerosHorariosLibres(andenes, fecha, duracionMinutos, cantidad);
+    }
+
+    @Override
+    public List<HorarioSugeridoDTO> obtenerSugerencias(LocalDate fecha, Long areaId, Long tipoServicioId,
+                                                       LocalTime horaDeseada, int duracionMinutos, int cantidad) {
+        if (duracionMinutos <= 0 || cantidad <= 0) {
+            throw new BadRequestException("La duración y la cantidad de horarios deben ser mayores a cero");
+        }
+
+        Area area = catalogo.area(areaId)
+                .orElseThrow(() -> new ResourceNotFoundException("Área no encontrada con ID: " + areaId));
+
+        List<Anden> andenes = andenesCompatibles(area, tipoServicioId).stream()
+                .filter(anden -> anden.getEstado() == EstadoAnden.DISPONIBLE)
+                .collect(Collectors.toList());
+
+        return asignadorAndenes.alternativas(andenes, fecha, horaDeseada, duracionMinutos, cantidad, null);
+    }
+
+    @Override
+    public CalendarioDisponibilidadDTO obtenerCalendarioDisponibilidad(LocalDate desde, LocalDate hasta,
+                                                                     Long areaId, Long tipoServicioId) {
+        if (hasta.isBefore(desde)) {
+            throw new BadRequestException("La fecha final no puede ser anterior a la fecha inicial");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= agendaProperties.getDiasMaximosCalendario()) {
+            throw new BadRequestException("El rango consultado no puede superar "
+                    + agendaProperties.getDiasMaximosCalendario() + " días");
+        }
+
+        Area area = catalogo.area(areaId)
+                .orElseThrow(() -> new ResourceNotFoundException("Área no encontrada con ID: " + areaId));
+
+        List<Long> andenIds = andenesCompatibles(area, tipoServicioId).stream()
+                .filter(anden -> anden.getEstado() == EstadoAnden.DISPONIBLE)
+                .map(Anden::getId)
+                .collect(Collectors.toList());
+
+        // Una sola consulta agrupada por día para todo el rango; los días sin reservas no vienen en el resultado
+        Map<LocalDate, OcupacionDiaDTO> ocupacionPorDia = new HashMap<>();
+        if (!andenIds.isEmpty()) {
+            for (OcupacionDiaDTO ocupacion : reservaRepository.findOcupacionPorDia(
+                    andenIds, desde, hasta, EstadoReserva.CANCELADA)) {
+                ocupacionPorDia.put(ocupacion.getFecha(), ocupacion);
+            }
+        }
+
+        CalendarioDisponibilidadDTO calendario = new CalendarioDisponibilidadDTO();
+        calendario.setDesde(desde);
+        calendario.setHasta(hasta);
+        calendario.setAreaId(areaId);
+        calendario.setTipoServicioId(tipoServicioId);
+        calendario.setAndenes(andenIds.size());
+        calendario.setCapacidadMinutosDia(motorDisponibilidad.capacidadMinutosDia() * andenIds.size());
+
+        LocalDate hoy = LocalDate.now();
+        for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+            OcupacionDiaDTO ocupacion = ocupacionPorDia.get(fecha);
+            long reservas = ocupacion != null ? ocupacion.getReservas() : 0;
+            long ocupados = ocupacion != null ? ocupacion.getMinutosOcupados() : 0;
+            // Hoy la capacidad solo cuenta las franjas que faltan y los días pasados no tienen: los minutos
+            // reservados se cuentan en esa misma ventana, con las agendas del índice
+            if (!fecha.isAfter(hoy)) {
+                ocupados = motorDisponibilidad.minutosReservados(andenIds, fecha);
+            }
+
+            long capacidad = motorDisponibilidad.capacidadMinutos(fecha) * andenIds.size();
+            long libres = Math.max(0, capacidad - ocupados);
+            int porcentaje = capacidad == 0 ? 100 : (int) Math.min(100, (capacidad - libres) * 100 / capacidad);
+
+            calendario.getDias().add(new DiaCalendarioDTO(fecha, reservas, libres, porcentaje));
+        }
+        return calendario;
+    }
+
+    // Andenes del área compatibles con el tipo de servicio, si se indicó uno
+    private List<Anden> andenesCompatibles(Area area, Long tipoServicioId) {
+        if (tipoServicioId == null) {
+            return catalogo.andenesDeArea(area);
+        }
+
+        TipoServicio tipoServicio = catalogo.tipoServicio(tipoServicioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tipo de servicio no encontrado con ID: " + tipoServicioId));
+        return catalogo.andenesCompatibles(area, tipoServicio);
+    }
+
+    // Andén para una reserva que no indica uno: el compatible y disponible del área que mejor aprovecha su agenda
+    private Anden asignarAnden(Area area, TipoServicio tipoServicio, ReservaDTO reservaDTO, Long reservaExcluida) {
+        if (!reservaDTO.getHoraFin().isAfter(reservaDTO.getHoraInicio())) {
+            throw new BadRequestException("La hora de fin debe ser posterior a la hora de inicio");
+        }
+
+        List<Anden> andenes = catalogo.andenesCompatibles(area, tipoServicio).stream()
+                .filter(anden -> anden.getEstado() == EstadoAnden.DISPONIBLE)
+                .collect(Collectors.toList());
+        return asignadorAndenes.asignar(andenes, reservaDTO.getFecha(), reservaDTO.getHoraInicio(),
+                        reservaDTO.getHoraFin(), reservaExcluida)
+                .orElseThrow(() -> {
+                    registrarConflicto();
+                    return horarioNoDisponible(area, tipoServicio, reservaDTO, reservaExcluida,
+                            "Ningún andén del área tiene libre el horario seleccionado");
+                });
+    }
+
+    // Rechazo de un horario ocupado con los mejores horarios de ese día en los andenes compatibles del área
+    private HorarioNoDisponibleException horarioNoDisponible(Area area, TipoServicio tipoServicio,
+                                                             ReservaDTO reservaDTO, Long reservaExcluida,
+                                                             String mensaje) {
+        List<Anden> andenes = catalogo.andenesCompatibles(area, tipoServicio).stream()
+                .filter(anden -> anden.getEstado() == EstadoAnden.DISPONIBLE)
+                .collect(Collectors.toList());
+        int duracion = (int) Math.max(1, ChronoUnit.MINUTES.between(reservaDTO.getHoraInicio(), reservaDTO.getHoraFin()));
+        return new HorarioNoDisponibleException(mensaje, asignadorAndenes.alternativas(andenes,
+                reservaDTO.getFecha(), reservaDTO.getHoraInicio(), duracion, agendaProperties.getAlternativasConflicto(),
+                reservaExcluida));
+    }
+
+    // Conflicto detectado por el índice en memoria; los que solo detecta la fila bloqueada se cuentan
+    // en ControlOcupacionAndenes con origen=base-datos
+    private void registrarConflicto() {
+        meterRegistry.counter("reservas.conflictos", "origen", "indice").increment();
+    }
+
+    // Sin estado y visible en el paquete para medirla en ReservaServiceImplBenchmark
+    static void validarTransicionEstado(EstadoReserva estadoActual, EstadoReserva nuevoEstado) {
         // Definir transiciones válidas
         switch (estadoActual) {
             case PENDIENTE:
@@ -429,26 +621,31 @@ public class ReservaServiceImpl implements ReservaService {
         }
     }
 
-    private ReservaDTO convertirADTO(Reserva reserva) {
-        ReservaDTO dto = new ReservaDTO();
-        dto.setId(reserva.getId());
-        dto.setProveedorId(reserva.getProveedor().getId());
-        dto.setProveedorNombre(reserva.getProveedor().getNombre());
-        dto.setAreaId(reserva.getArea().getId());
-        dto.setAreaNombre(reserva.getArea().getNombre());
-        dto.setAndenId(reserva.getAnden().getId());
-        dto.setAndenNumero(reserva.getAnden().getNumero());
-        dto.setTipoServicioId(reserva.getTipoServicio().getId());
-        dto.setTipoServicioNombre(reserva.getTipoServicio().getNombre());
-        dto.setFecha(reserva.getFecha());
-        dto.setHoraInicio(reserva.getHoraInicio());
-        dto.setHoraFin(reserva.getHoraFin());
-        dto.setEstado(reserva.getEstado());
-        dto.setTransportePlaca(reserva.getTransporte().getPlaca());
-        return dto;
+    // El cursor es la clave de orden de la última reserva entregada, en Base64 apto para URL
+    private String codificarCursor(ReservaDTO ultima) {
+        String clave = ultima.getFecha() + "|" + ultima.getHoraInicio() + "|" + ultima.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(clave.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private CursorReservaDTO decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new CursorReservaDTO(LocalDate.parse(partes[0]), LocalTime.parse(partes[1]), Long.valueOf(partes[2]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("El cursor de paginación no es válido");
+        }
+    }
+
+    private IntervaloReservaDTO intervaloDe(Reserva reserva) {
+        return new IntervaloReservaDTO(reserva.getId(), reserva.getAnden().getId(), reserva.getFecha(),
+                reserva.getHoraInicio(), reserva.getHoraFin());
     }
 
-    private ReservaDetalleDTO convertirADetalleDTO(Reserva reserva) {
+    // Sin estado y visible en el paquete para medirla en ReservaServiceImplBenchmark
+    static ReservaDetalleDTO convertirADetalleDTO(Reserva reserva) {
         ReservaDetalleDTO dto = new ReservaDetalleDTO();
         dto.setId(reserva.getId());
         dto.setProveedorId(reserva.getProveedor().getId());
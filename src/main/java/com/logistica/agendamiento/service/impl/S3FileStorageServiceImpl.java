@@ -0,0 +1,287 @@
+package com.logistica.agendamiento.service.impl;
+
+import com.logistica.agendamiento.config.FileStorageProperties;
+import com.logistica.agendamiento.dto.ContenidoAlmacenadoDTO;
+import com.logistica.agendamiento.dto.EntradaAlmacenamientoDTO;
+import com.logistica.agendamiento.exception.BadRequestException;
+import com.logistica.agendamiento.exception.FileStorageException;
+import com.logistica.agendamiento.exception.ResourceNotFoundException;
+import com.logistica.agendamiento.service.FileStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+// Almacenamiento en un bucket S3 (o compatible, como MinIO) para que varias instancias de la aplicación
+// compartan los archivos. Las claves siguen la misma distribución que el disco local: sha256/ab/cd/<hash>.
+@Service
+@ConditionalOnProperty(prefix = "file", name = "storage", havingValue = "s3")
+@Slf4j
+public class S3FileStorageServiceImpl implements FileStorageService {
+
+    private final S3Client s3;
+    private final S3AsyncClient s3Async;
+    private final S3Presigner presigner;
+    private final FileStorageProperties.S3 propiedades;
+    private final String bucket;
+
+    public S3FileStorageServiceImpl(S3Client s3, S3AsyncClient s3Async, S3Presigner presigner,
+                                    FileStorageProperties properties) {
+        this.s3 = s3;
+        this.s3Async = s3Async;
+        this.presigner = presigner;
+        this.propiedades = properties.getS3();
+        this.bucket = propiedades.getBucket();
+        if (bucket == null || bucket.isBlank()) {
+            throw new FileStorageException("Falta configurar file.s3.bucket para el almacenamiento en S3");
+        }
+    }
+
+    // El hash solo se conoce al terminar de leer, así que el contenido se sube a una clave temporal
+    // y promote lo copia dentro del bucket (sin volver a pasar por la aplicación) a su clave definitiva
+    @Override
+    public ContenidoAlmacenadoDTO storeTemporary(InputStream content, long maxBytes) {
+        String claveTemporal = PREFIJO_TEMPORAL + UUID.randomUUID();
+        int tamanoParte = (int) propiedades.getTamanoParte().toBytes();
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] bloque = leerBloque(content, tamanoParte, 0, maxBytes);
+            if (bloque.length == 0) {
+                throw new BadRequestException("No se puede almacenar un archivo vacío");
+            }
+
+            long tamano;
+            if (bloque.length < tamanoParte) {
+                // Cabe en una sola petición
+                sha256.update(bloque);
+                s3.putObject(peticion -> peticion.bucket(bucket).key(claveTemporal), RequestBody.fromBytes(bloque));
+                tamano = bloque.length;
+            } else {
+                tamano = subirPorPartes(content, bloque, claveTemporal, tamanoParte, maxBytes, sha256);
+            }
+
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            return new ContenidoAlmacenadoDTO(hash, FileStorageService.rutaContenido(hash), tamano, claveTemporal);
+        } catch (IOException | SdkException e) {
+            throw new FileStorageException("Error al almacenar el archivo", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    @Override
+    public void promote(ContenidoAlmacenadoDTO content) {
+        try {
+            if (existe(content.getRuta())) {
+                return;
+            }
+            s3.copyObject(peticion -> peticion
+                    .sourceBucket(bucket).sourceKey(content.getRutaTemporal())
+                    .destinationBucket(bucket).destinationKey(content.getRuta()));
+        } catch (SdkException e) {
+            throw new FileStorageException("Error al almacenar el archivo", e);
+        }
+    }
+
+    @Override
+    public void discard(ContenidoAlmacenadoDTO content) {
+        try {
+            s3.deleteObject(peticion -> peticion.bucket(bucket).key(content.getRutaTemporal()));
+        } catch (SdkException e) {
+            log.warn("No se pudo eliminar el archivo temporal {}", content.getRutaTemporal(), e);
+        }
+    }
+
+    @Override
+    public void delete(String filename) {
+        try {
+            s3.deleteObject(peticion -> peticion.bucket(bucket).key(filename));
+        } catch (SdkException e) {
+            throw new FileStorageException("Error al eliminar el archivo: " + filename, e);
+        }
+    }
+
+    @Override
+    public Stream<EntradaAlmacenamientoDTO> list(String prefix) {
+        try {
+            return s3.listObjectsV2Paginator(peticion -> peticion.bucket(bucket).prefix(prefix))
+                    .contents().stream()
+                    .map(objeto -> new EntradaAlmacenamientoDTO(objeto.key(), objeto.size(), objeto.lastModified()));
+        } catch (SdkException e) {
+            throw new FileStorageException("Error al leer los archivos almacenados", e);
+        }
+    }
+
+    @Override
+    public Resource loadAsResource(String filename) {
+        try {
+            return new InputStreamResource(s3.getObject(peticion -> peticion.bucket(bucket).key(filename)));
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                throw new ResourceNotFoundException("No se pudo leer el archivo: " + filename, e);
+            }
+            throw new FileStorageException("Error al leer el archivo: " + filename, e);
+        }
+    }
+
+    @Override
+    public long size(String filename) {
+        try {
+            return s3.headObject(peticion -> peticion.bucket(bucket).key(filename)).contentLength();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                throw new ResourceNotFoundException("No se pudo leer el archivo: " + filename, e);
+            }
+            throw new FileStorageException("Error al leer el archivo: " + filename, e);
+        }
+    }
+
+    // Solo se usa cuando la descarga directa está desactivada: pide a S3 únicamente el rango necesario
+    @Override
+    public long transferTo(String filename, long position, long count, WritableByteChannel target) throws IOException {
+        if (count <= 0) {
+            return 0;
+        }
+        String rango = "bytes=" + position + "-" + (position + count - 1);
+        try (ResponseInputStream<GetObjectResponse> entrada =
+                     s3.getObject(peticion -> peticion.bucket(bucket).key(filename).range(rango))) {
+            return entrada.transferTo(Channels.newOutputStream(target));
+        } catch (SdkException e) {
+            throw new IOException("Error al leer el archivo: " + filename, e);
+        }
+    }
+
+    @Override
+    public Optional<Path> localFile(String filename) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<URI> presignedDownload(String filename, String downloadName, String contentType) {
+        if (!propiedades.isDescargaDirecta()) {
+            return Optional.empty();
+        }
+        String disposicion = ContentDisposition.attachment()
+                .filename(downloadName, StandardCharsets.UTF_8).build().toString();
+        try {
+            return Optional.of(presigner.presignGetObject(firma -> firma
+                            .signatureDuration(propiedades.getVigenciaDescarga())
+                            .getObjectRequest(peticion -> peticion
+                                    .bucket(bucket)
+                                    .key(filename)
+                                    .responseContentDisposition(disposicion)
+                                    .responseContentType(contentType)))
+                    .url().toURI());
+        } catch (URISyntaxException e) {
+            throw new FileStorageException("No se pudo generar la descarga del archivo: " + filename, e);
+        }
+    }
+
+    // Sube las partes en paralelo mientras se siguen leyendo las siguientes; el semáforo limita cuántas
+    // hay en vuelo y con ello la memoria usada (partesEnParalelo + 1 bloques como máximo)
+    private long subirPorPartes(InputStream content, byte[] primerBloque, String clave, int tamanoParte,
+                                long maxBytes, MessageDigest sha256) throws IOException {
+        String uploadId = s3.createMultipartUpload(peticion -> peticion.bucket(bucket).key(clave)).uploadId();
+        Semaphore enVuelo = new Semaphore(Math.max(1, propiedades.getPartesEnParalelo()));
+        List<CompletableFuture<CompletedPart>> partes = new ArrayList<>();
+        try {
+            byte[] bloque = primerBloque;
+            long total = 0;
+            while (bloque.length > 0) {
+                sha256.update(bloque);
+                total += bloque.length;
+
+                enVuelo.acquire();
+                byte[] datos = bloque;
+                int numero = partes.size() + 1;
+                partes.add(s3Async.uploadPart(peticion -> peticion
+                                        .bucket(bucket).key(clave).uploadId(uploadId).partNumber(numero),
+                                AsyncRequestBody.fromBytes(datos))
+                        .thenApply(respuesta -> CompletedPart.builder().partNumber(numero).eTag(respuesta.eTag()).build())
+                        .whenComplete((parte, error) -> enVuelo.release()));
+
+                bloque = leerBloque(content, tamanoParte, total, maxBytes);
+            }
+
+            List<CompletedPart> completadas = partes.stream().map(CompletableFuture::join).toList();
+            s3.completeMultipartUpload(peticion -> peticion
+                    .bucket(bucket).key(clave).uploadId(uploadId)
+                    .multipartUpload(subida -> subida.parts(completadas)));
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abortar(clave, uploadId, partes);
+            throw new FileStorageException("Subida interrumpida", e);
+        } catch (CompletionException e) {
+            abortar(clave, uploadId, partes);
+            throw new FileStorageException("Error al almacenar el archivo", e.getCause());
+        } catch (IOException | RuntimeException e) {
+            abortar(clave, uploadId, partes);
+            throw e;
+        }
+    }
+
+    // Sin abortar, S3 conserva (y cobra) las partes ya subidas de una subida que nunca se completa
+    private void abortar(String clave, String uploadId, List<CompletableFuture<CompletedPart>> partes) {
+        partes.forEach(parte -> parte.cancel(true));
+        try {
+            s3.abortMultipartUpload(peticion -> peticion.bucket(bucket).key(clave).uploadId(uploadId));
+        } catch (SdkException e) {
+            log.warn("No se pudo abortar la subida por partes {} de {}", uploadId, clave, e);
+        }
+    }
+
+    private boolean existe(String clave) {
+        try {
+            s3.headObject(peticion -> peticion.bucket(bucket).key(clave));
+            return true;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    // Lee hasta completar un bloque del tamaño de parte (o hasta el final del contenido)
+    private static byte[] leerBloque(InputStream entrada, int tamanoParte, long leidos, long maximo)
+            throws IOException {
+        byte[] bloque = entrada.readNBytes(tamanoParte);
+        if (leidos + bloque.length > maximo) {
+            throw new BadRequestException("El archivo supera el tamaño máximo permitido");
+        }
+        return bloque;
+    }
+}
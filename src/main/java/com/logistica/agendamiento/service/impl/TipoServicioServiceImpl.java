@@ -1,13 +1,16 @@
 package com.logistica.agendamiento.service.impl;
 
+import com.logistica.agendamiento.catalogo.CatalogoReferencia;
 import com.logistica.agendamiento.dto.TipoServicioDTO;
 import com.logistica.agendamiento.entity.TipoServicio;
+import com.logistica.agendamiento.entity.enums.CaracteristicaAnden;
 import com.logistica.agendamiento.exception.ResourceAlreadyExistsException;
 import com.logistica.agendamiento.exception.ResourceNotFoundException;
 import com.logistica.agendamiento.repository.TipoServicioRepository;
 import com.logistica.agendamiento.service.TipoServicioService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -17,6 +20,7 @@ import java.util.stream.Collectors;
 public class TipoServicioServiceImpl implements TipoServicioService {
 
     private final TipoServicioRepository tipoServicioRepository;
+    private final CatalogoReferencia catalogo;
 
     @Override
     public List<TipoServicioDTO> obtenerTodosTiposServicio() {
@@ -33,6 +37,7 @@ public class TipoServicioServiceImpl implements TipoServicioService {
     }
 
     @Override
+    @Transactional
     public TipoServicioDTO crearTipoServicio(TipoServicioDTO tipoServicioDTO) {
         // Verificar que no exista un tipo de servicio con el mismo nombre
         if (tipoServicioRepository.existsByNombre(tipoServicioDTO.getNombre())) {
@@ -42,12 +47,18 @@ public class TipoServicioServiceImpl implements TipoServicioService {
         TipoServicio tipoServicio = new TipoServicio();
         tipoServicio.setNombre(tipoServicioDTO.getNombre());
         tipoServicio.setDescripcion(tipoServicioDTO.getDescripcion());
+        if (tipoServicioDTO.getCaracteristicasRequeridas() != null) {
+            tipoServicio.setCaracteristicasRequeridas(
+                    CaracteristicaAnden.mascara(tipoServicioDTO.getCaracteristicasRequeridas()));
+        }
 
         TipoServicio tipoServicioSaved = tipoServicioRepository.save(tipoServicio);
+        catalogo.registrarCambio();
         return convertirADTO(tipoServicioSaved);
     }
 
     @Override
+    @Transactional
     public TipoServicioDTO actualizarTipoServicio(Long id, TipoServicioDTO tipoServicioDTO) {
         TipoServicio tipoServicio = tipoServicioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Tipo de servicio no encontrado con ID: " + id));
@@ -60,17 +71,25 @@ public class TipoServicioServiceImpl implements TipoServicioService {
 
         tipoServicio.setNombre(tipoServicioDTO.getNombre());
         tipoServicio.setDescripcion(tipoServicioDTO.getDescripcion());
+        // Si no se envían, se conservan las características actuales
+        if (tipoServicioDTO.getCaracteristicasRequeridas() != null) {
+            tipoServicio.setCaracteristicasRequeridas(
+                    CaracteristicaAnden.mascara(tipoServicioDTO.getCaracteristicasRequeridas()));
+        }
 
         TipoServicio tipoServicioActualizado = tipoServicioRepository.save(tipoServicio);
+        catalogo.registrarCambio();
         return convertirADTO(tipoServicioActualizado);
     }
 
     @Override
+    @Transactional
     public void eliminarTipoServicio(Long id) {
         if (!tipoServicioRepository.existsById(id)) {
             throw new ResourceNotFoundException("Tipo de servicio no encontrado con ID: " + id);
         }
         tipoServicioRepository.deleteById(id);
+        catalogo.registrarCambio();
     }
 
     private TipoServicioDTO convertirADTO(TipoServicio tipoServicio) {
@@ -78,6 +97,7 @@ public class TipoServicioServiceImpl implements TipoServicioService {
         dto.setId(tipoServicio.getId());
         dto.setNombre(tipoServicio.getNombre());
         dto.setDescripcion(tipoServicio.getDescripcion());
+        dto.setCaracteristicasRequeridas(CaracteristicaAnden.de(tipoServicio.getCaracteristicasRequeridas()));
         return dto;
     }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import com.logistica.agendamiento.entity.enums.Rol;
 import com.logistica.agendamiento.exception.ResourceAlreadyExistsException;
 import com.logistica.agendamiento.exception.ResourceNotFoundException;
 import com.logistica.agendamiento.repository.UsuarioRepository;
+import com.logistica.agendamiento.security.CachePrincipales;
 import com.logistica.agendamiento.service.UsuarioService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +22,7 @@ public class UsuarioServiceImpl implements UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CachePrincipales cachePrincipales;
 
     @Override
     public List<UsuarioDTO> obtenerTodosLosUsuarios() {
@@ -85,6 +87,7 @@ public class UsuarioServiceImpl implements UsuarioService {
             throw new ResourceAlreadyExistsException("El email ya está en uso: " + usuarioDTO.getEmail());
         }
 
+        String usernameAnterior = usuario.getUsername();
         usuario.setUsername(usuarioDTO.getUsername());
         usuario.setEmail(usuarioDTO.getEmail());
         usuario.setNombre(usuarioDTO.getNombre());
@@ -92,6 +95,8 @@ public class UsuarioServiceImpl implements UsuarioService {
         usuario.setRol(usuarioDTO.getRol());
 
         Usuario usuarioActualizado = usuarioRepository.save(usuario);
+        // Los tokens ya emitidos se vuelven a comprobar contra el nuevo rol y nombre de usuario
+        cachePrincipales.invalidar(usernameAnterior, usuarioActualizado.getUsername());
         return convertirADTO(usuarioActualizado);
     }
 
@@ -102,6 +107,7 @@ public class UsuarioServiceImpl implements UsuarioService {
 
         usuario.setEstado(estado);
         Usuario usuarioActualizado = usuarioRepository.save(usuario);
+        cachePrincipales.invalidar(usuarioActualizado.getUsername());
         return convertirADTO(usuarioActualizado);
     }
 
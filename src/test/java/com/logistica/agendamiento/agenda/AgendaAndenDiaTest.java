@@ -0,0 +1,133 @@
+package com.logistica.agendamiento.agenda;
+
+import com.logistica.agendamiento.dto.IntervaloReservaDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AgendaAndenDiaTest {
+
+    private final LocalDate fecha = LocalDate.now().plusDays(1);
+    private final List<IntervaloReservaDTO> intervalos = new ArrayList<>();
+
+    @Test
+    void unaAgendaVaciaNoTieneConflictos() {
+        assertThat(AgendaAndenDia.VACIA.tieneConflicto(hora("00:00"), hora("23:59"), null)).isFalse();
+    }
+
+    // Los límites son inclusivos: quien termina a las 10:00 choca con quien empieza a esa hora
+    @Test
+    void lasReservasQueSeTocanChocan() {
+        reservar(1, "09:00", "10:00");
+        AgendaAndenDia agenda = AgendaAndenDia.de(intervalos);
+
+        assertThat(agenda.tieneConflicto(hora("10:00"), hora("11:00"), null)).isTrue();
+        assertThat(agenda.tieneConflicto(hora("08:00"), hora("09:00"), null)).isTrue();
+        assertThat(agenda.tieneConflicto(hora("10:01"), hora("11:00"), null)).isFalse();
+        assertThat(agenda.tieneConflicto(hora("08:00"), hora("08:59"), null)).isFalse();
+    }
+
+    @Test
+    void detectaLosSolapamientosParcialesYContenidos() {
+        reservar(1, "09:00", "10:00");
+        AgendaAndenDia agenda = AgendaAndenDia.de(intervalos);
+
+        assertThat(agenda.tieneConflicto(hora("08:30"), hora("09:30"), null)).isTrue();
+        assertThat(agenda.tieneConflicto(hora("09:30"), hora("10:30"), null)).isTrue();
+        assertThat(agenda.tieneConflicto(hora("09:15"), hora("09:45"), null)).isTrue();
+        assertThat(agenda.tieneConflicto(hora("08:00"), hora("11:00"), null)).isTrue();
+    }
+
+    // Una reserva larga que empezó antes sigue chocando aunque entre medio haya otras que ya terminaron
+    @Test
+    void unaReservaLargaAnteriorSigueContando() {
+        reservar(1, "08:00", "12:00");
+        reservar(2, "08:30", "09:00");
+        reservar(3, "09:15", "09:30");
+        AgendaAndenDia agenda = AgendaAndenDia.de(intervalos);
+
+        assertThat(agenda.tieneConflicto(hora("11:00"), hora("11:30"), null)).isTrue();
+        assertThat(agenda.tieneConflicto(hora("11:00"), hora("11:30"), 1L)).isFalse();
+    }
+
+    @Test
+    void laReservaExcluidaNoCuentaPeroLasDemasSi() {
+        reservar(1, "09:00", "10:00");
+        reservar(2, "10:00", "11:00");
+        AgendaAndenDia agenda = AgendaAndenDia.de(intervalos);
+
+        assertThat(agenda.tieneConflicto(hora("09:00"), hora("09:45"), 1L)).isFalse();
+        assertThat(agenda.tieneConflicto(hora("09:00"), hora("10:00"), 1L)).isTrue();
+        assertThat(agenda.tieneConflicto(hora("09:00"), hora("10:00"), 2L)).isTrue();
+    }
+
+    @Test
+    void agregarUnaReservaExistenteLaMueve() {
+        AgendaAndenDia agenda = AgendaAndenDia.VACIA
+                .con(1, hora("09:00"), hora("10:00"))
+                .con(2, hora("07:00"), hora("08:00"))
+                .con(1, hora("14:00"), hora("15:00"));
+
+        assertThat(agenda.tamano()).isEqualTo(2);
+        assertThat(agenda.tieneConflicto(hora("09:15"), hora("09:45"), null)).isFalse();
+        assertThat(agenda.tieneConflicto(hora("14:30"), hora("16:00"), null)).isTrue();
+        assertThat(agenda.tieneConflicto(hora("07:30"), hora("07:45"), null)).isTrue();
+    }
+
+    @Test
+    void quitarUnaReservaLiberaSuHorario() {
+        reservar(1, "09:00", "10:00");
+        reservar(2, "11:00", "12:00");
+        AgendaAndenDia agenda = AgendaAndenDia.de(intervalos);
+
+        AgendaAndenDia sinPrimera = agenda.sin(1);
+
+        assertThat(sinPrimera.tamano()).isEqualTo(1);
+        assertThat(sinPrimera.tieneConflicto(hora("09:00"), hora("10:00"), null)).isFalse();
+        assertThat(sinPrimera.tieneConflicto(hora("11:30"), hora("11:45"), null)).isTrue();
+        // La agenda original no cambia
+        assertThat(agenda.tieneConflicto(hora("09:00"), hora("10:00"), null)).isTrue();
+        assertThat(agenda.sin(99)).isSameAs(agenda);
+    }
+
+    // Cuadrícula de 08:00 a 11:00 en franjas de 15 minutos; una franja incluye el minuto en que empieza la siguiente
+    @Test
+    void lasFranjasQueTocanUnaReservaNoEstanLibres() {
+        reservar(1, "09:00", "10:00");
+        AgendaAndenDia agenda = AgendaAndenDia.de(intervalos);
+
+        assertThat(agenda.franjasLibres(8 * 60, 15, 12).stream().toArray()).containsExactly(0, 1, 2, 9, 10, 11);
+    }
+
+    @Test
+    void unaReservaQueNoEsMultiploDeLaGranularidadOcupaLaFranjaEnQueTermina() {
+        reservar(1, "09:00", "09:20");
+        AgendaAndenDia agenda = AgendaAndenDia.de(intervalos);
+
+        assertThat(agenda.franjasLibres(8 * 60, 15, 12).stream().toArray())
+                .containsExactly(0, 1, 2, 6, 7, 8, 9, 10, 11);
+    }
+
+    @Test
+    void noHayFranjasMasAllaDeLaCuadricula() {
+        reservar(1, "10:50", "11:10");
+        AgendaAndenDia agenda = AgendaAndenDia.de(intervalos);
+
+        assertThat(agenda.franjasLibres(8 * 60, 15, 12).stream().toArray())
+                .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        assertThat(AgendaAndenDia.VACIA.franjasLibres(8 * 60, 15, 12).cardinality()).isEqualTo(12);
+    }
+
+    private void reservar(long id, String inicio, String fin) {
+        intervalos.add(new IntervaloReservaDTO(id, 1L, fecha, hora(inicio), hora(fin)));
+    }
+
+    private static LocalTime hora(String hora) {
+        return LocalTime.parse(hora);
+    }
+}
@@ -0,0 +1,157 @@
+package com.logistica.agendamiento.agenda;
+
+import com.logistica.agendamiento.config.AgendaProperties;
+import com.logistica.agendamiento.dto.HorarioSugeridoDTO;
+import com.logistica.agendamiento.dto.IntervaloReservaDTO;
+import com.logistica.agendamiento.entity.Anden;
+import com.logistica.agendamiento.entity.enums.EstadoReserva;
+import com.logistica.agendamiento.repository.AndenRepository;
+import com.logistica.agendamiento.repository.ReservaRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Con la configuración por defecto: atención de 06:00 a 22:00, franjas de 15 minutos y huecos útiles
+// desde 30 minutos
+class AsignadorAndenesTest {
+
+    private final LocalDate fecha = LocalDate.now().plusDays(1);
+    private final List<IntervaloReservaDTO> intervalos = new ArrayList<>();
+    private final List<Anden> andenes = List.of(anden(1), anden(2), anden(3));
+
+    private IndiceOcupacionAndenes indiceOcupacion;
+    private AsignadorAndenes asignador;
+
+    @Test
+    void asignaElUnicoAndenLibreEnEseHorario() {
+        reservar(1, 1L, "09:00", "10:00");
+        reservar(2, 2L, "09:00", "12:00");
+        iniciar();
+
+        assertThat(asignador.asignar(andenes, fecha, LocalTime.of(9, 30), LocalTime.of(10, 30), null))
+                .map(Anden::getId).contains(3L);
+    }
+
+    @Test
+    void laReservaExcluidaNoCuentaComoConflicto() {
+        reservar(1, 1L, "09:00", "10:00");
+        reservar(2, 2L, "09:00", "12:00");
+        iniciar();
+
+        assertThat(asignador.asignar(andenes.subList(0, 2), fecha, LocalTime.of(9, 0), LocalTime.of(10, 0), 1L))
+                .map(Anden::getId).contains(1L);
+    }
+
+    @Test
+    void sinAndenLibreNoAsigna() {
+        reservar(1, 1L, "09:00", "10:00");
+        reservar(2, 2L, "09:00", "12:00");
+        iniciar();
+
+        assertThat(asignador.asignar(andenes.subList(0, 2), fecha, LocalTime.of(9, 30), LocalTime.of(10, 30), null))
+                .isEmpty();
+    }
+
+    // Reservar de 08:30 a 09:30 en el andén 1 deja libre de 07:45 a 08:30, donde no cabe una reserva de
+    // 30 minutos; en el andén 2 queda pegada a la reserva anterior. El andén 2 tiene además más carga.
+    @Test
+    void prefiereElAndenDondeNoQuedaUnHuecoInservible() {
+        reservar(1, 1L, "06:00", "07:45");
+        reservar(2, 2L, "06:00", "08:00");
+        iniciar();
+
+        assertThat(asignador.asignar(andenes.subList(0, 2), fecha, LocalTime.of(8, 30), LocalTime.of(9, 30), null))
+                .map(Anden::getId).contains(2L);
+    }
+
+    // Mismos huecos alrededor del horario pedido en los dos andenes; el andén 1 tiene otra reserva por la tarde
+    @Test
+    void conLosMismosHuecosGanaElAndenMenosCargado() {
+        reservar(1, 1L, "06:00", "08:00");
+        reservar(2, 1L, "18:00", "20:00");
+        reservar(3, 2L, "06:00", "08:00");
+        iniciar();
+
+        assertThat(asignador.asignar(andenes.subList(0, 2), fecha, LocalTime.of(8, 30), LocalTime.of(9, 30), null))
+                .map(Anden::getId).contains(2L);
+    }
+
+    @Test
+    void lasAlternativasSeOrdenanPorCercaniaALaHoraDeseada() {
+        reservar(1, 1L, "12:00", "13:00");
+        iniciar();
+        LocalTime deseada = LocalTime.of(12, 0);
+
+        List<HorarioSugeridoDTO> alternativas = asignador.alternativas(andenes.subList(0, 1), fecha, deseada, 60, 5, null);
+
+        assertThat(alternativas).extracting(HorarioSugeridoDTO::getHoraInicio)
+                .containsExactly(LocalTime.of(10, 45), LocalTime.of(13, 15), LocalTime.of(10, 30),
+                        LocalTime.of(13, 30), LocalTime.of(10, 15))
+                .isSortedAccordingTo(Comparator.comparing((LocalTime hora) -> Duration.between(hora, deseada).abs()));
+    }
+
+    @Test
+    void lasAlternativasSoloProponenHorariosLibres() {
+        reservar(1, 1L, "09:00", "10:00");
+        reservar(2, 2L, "09:00", "12:00");
+        iniciar();
+
+        List<HorarioSugeridoDTO> alternativas = asignador.alternativas(andenes.subList(0, 2), fecha,
+                LocalTime.of(9, 30), 60, 3, null);
+
+        assertThat(alternativas).hasSize(3);
+        for (HorarioSugeridoDTO alternativa : alternativas) {
+            assertThat(indiceOcupacion.hayConflicto(alternativa.getAndenId(), fecha,
+                    alternativa.getHoraInicio(), alternativa.getHoraFin(), null)).isFalse();
+        }
+    }
+
+    @Test
+    void alModificarUnaReservaSeOfreceSuPropioHorario() {
+        reservar(1, 1L, "09:00", "10:00");
+        iniciar();
+
+        List<HorarioSugeridoDTO> alternativas = asignador.alternativas(andenes.subList(0, 1), fecha,
+                LocalTime.of(9, 0), 60, 1, 1L);
+
+        assertThat(alternativas).singleElement().satisfies(alternativa -> {
+            assertThat(alternativa.getAndenId()).isEqualTo(1L);
+            assertThat(alternativa.getHoraInicio()).isEqualTo(LocalTime.of(9, 0));
+        });
+        assertThat(asignador.alternativas(andenes.subList(0, 1), fecha, LocalTime.of(9, 0), 60, 1, null))
+                .extracting(HorarioSugeridoDTO::getHoraInicio).doesNotContain(LocalTime.of(9, 0));
+    }
+
+    private void reservar(long id, Long andenId, String inicio, String fin) {
+        intervalos.add(new IntervaloReservaDTO(id, andenId, fecha, LocalTime.parse(inicio), LocalTime.parse(fin)));
+    }
+
+    private void iniciar() {
+        AgendaProperties propiedades = new AgendaProperties();
+        ReservaRepository reservaRepository = Mockito.mock(ReservaRepository.class);
+        Mockito.when(reservaRepository.findIntervalosActivos(Mockito.any(), Mockito.any(),
+                Mockito.eq(EstadoReserva.CANCELADA))).thenReturn(intervalos);
+        AndenRepository andenRepository = Mockito.mock(AndenRepository.class);
+        Mockito.when(andenRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+
+        indiceOcupacion = new IndiceOcupacionAndenes(reservaRepository, andenRepository, propiedades);
+        indiceOcupacion.precargar();
+        asignador = new AsignadorAndenes(indiceOcupacion,
+                new MotorDisponibilidad(indiceOcupacion, propiedades), propiedades);
+    }
+
+    private static Anden anden(int numero) {
+        Anden anden = new Anden();
+        anden.setId((long) numero);
+        anden.setNumero(numero);
+        return anden;
+    }
+}
@@ -0,0 +1,184 @@
+package com.logistica.agendamiento.agenda;
+
+import com.logistica.agendamiento.config.AgendaProperties;
+import com.logistica.agendamiento.dto.HorarioDisponibleDTO;
+import com.logistica.agendamiento.dto.HorarioSugeridoDTO;
+import com.logistica.agendamiento.dto.IntervaloReservaDTO;
+import com.logistica.agendamiento.entity.Anden;
+import com.logistica.agendamiento.entity.enums.EstadoReserva;
+import com.logistica.agendamiento.repository.AndenRepository;
+import com.logistica.agendamiento.repository.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class MotorDisponibilidadTest {
+
+    private final LocalDate hoy = LocalDate.now();
+    private final LocalDate ayer = hoy.minusDays(1);
+
+    private final List<IntervaloReservaDTO> intervalos = new ArrayList<>();
+    private AgendaProperties propiedades;
+    private ReservaRepository reservaRepository;
+    private IndiceOcupacionAndenes indiceOcupacion;
+    private MotorDisponibilidad motor;
+
+    // Atención de 00:00 a 23:45 en franjas de 15 minutos, para que hoy siempre tenga franjas pasadas y futuras
+    @BeforeEach
+    void preparar() {
+        propiedades = new AgendaProperties();
+        propiedades.setHoraApertura(LocalTime.MIDNIGHT);
+        propiedades.setHoraCierre(LocalTime.of(23, 45));
+
+        reservaRepository = Mockito.mock(ReservaRepository.class);
+        Mockito.when(reservaRepository.findIntervalosActivos(Mockito.any(), Mockito.any(),
+                Mockito.eq(EstadoReserva.CANCELADA))).thenReturn(intervalos);
+        AndenRepository andenRepository = Mockito.mock(AndenRepository.class);
+        Mockito.when(andenRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+
+        indiceOcupacion = new IndiceOcupacionAndenes(reservaRepository, andenRepository, propiedades);
+        motor = new MotorDisponibilidad(indiceOcupacion, propiedades);
+    }
+
+    @Test
+    void hoyLosMinutosReservadosSeCuentanEnLaMismaVentanaQueLaCapacidad() {
+        // Andén 1 ocupado todo el horario; andén 2 con una reserva de la primera franja, ya terminada
+        reservar(1, 1L, hoy, LocalTime.MIDNIGHT, LocalTime.of(23, 45));
+        reservar(2, 2L, hoy, LocalTime.MIDNIGHT, LocalTime.of(0, 15));
+        indiceOcupacion.precargar();
+        assumeTrue(LocalTime.now().isAfter(LocalTime.of(0, 1)));
+
+        assertThat(motor.minutosReservados(List.of(1L), hoy)).isEqualTo(motor.capacidadMinutos(hoy));
+        assertThat(motor.minutosReservados(List.of(2L), hoy)).isZero();
+    }
+
+    @Test
+    void losDiasPasadosNoTienenCapacidadNiMinutosReservados() {
+        Mockito.when(reservaRepository.findIntervalosActivosPorAndenYFecha(1L, ayer, EstadoReserva.CANCELADA))
+                .thenReturn(List.of(new IntervaloReservaDTO(1L, 1L, ayer, LocalTime.of(8, 0), LocalTime.of(10, 0))));
+
+        assertThat(motor.capacidadMinutos(ayer)).isZero();
+        assertThat(motor.minutosReservados(List.of(1L), ayer)).isZero();
+    }
+
+    @Test
+    void losDiasFuturosCuentanElHorarioCompleto() {
+        LocalDate manana = hoy.plusDays(1);
+        reservar(1, 1L, manana, LocalTime.of(8, 0), LocalTime.of(9, 30));
+        reservar(2, 1L, manana, LocalTime.of(23, 30), LocalTime.of(23, 59));
+        indiceOcupacion.precargar();
+
+        assertThat(motor.capacidadMinutos(manana)).isEqualTo(motor.capacidadMinutosDia());
+        // La reserva que pasa del cierre se recorta a las 23:45
+        assertThat(motor.minutosReservados(List.of(1L), manana)).isEqualTo(90 + 15);
+    }
+
+    @Test
+    void losHorariosDisponiblesLleganHastaElCierre() {
+        LocalDate manana = hoy.plusDays(1);
+        reservar(1, 1L, manana, LocalTime.of(8, 0), LocalTime.of(9, 30));
+        indiceOcupacion.precargar();
+
+        assertThat(motor.horariosDisponibles(indiceOcupacion.obtenerAgenda(1L, manana), manana))
+                .extracting(HorarioDisponibleDTO::getHoraInicio, HorarioDisponibleDTO::getHoraFin)
+                .containsExactly(tuple(LocalTime.MIDNIGHT, LocalTime.of(7, 45)),
+                        tuple(LocalTime.of(9, 45), LocalTime.of(23, 45)));
+    }
+
+    @Test
+    void hoySoloSeOfrecenFranjasQueNoHanComenzado() {
+        LocalTime ahora = LocalTime.now();
+        assumeTrue(ahora.isBefore(LocalTime.of(23, 0)));
+        indiceOcupacion.precargar();
+
+        List<HorarioDisponibleDTO> disponibles = motor.horariosDisponibles(indiceOcupacion.obtenerAgenda(1L, hoy), hoy);
+        List<HorarioSugeridoDTO> sugeridos = motor.primerosHorariosLibres(List.of(anden(1L, 1)), hoy, 30, 1);
+
+        for (LocalTime inicio : List.of(disponibles.get(0).getHoraInicio(), sugeridos.get(0).getHoraInicio())) {
+            assertThat(inicio.getMinute() % 15).isZero();
+            assertThat(inicio).isAfterOrEqualTo(ahora.truncatedTo(ChronoUnit.MINUTES))
+                    .isBefore(ahora.plusMinutes(15));
+        }
+        assertThat(disponibles.get(0).getHoraFin()).isEqualTo(LocalTime.of(23, 45));
+    }
+
+    @Test
+    void losPrimerosHorariosLibresSeOrdenanPorHoraYLuegoPorNumeroDeAnden() {
+        LocalDate manana = hoy.plusDays(1);
+        reservar(1, 1L, manana, LocalTime.MIDNIGHT, LocalTime.of(8, 0));
+        reservar(2, 2L, manana, LocalTime.MIDNIGHT, LocalTime.of(8, 0));
+        reservar(3, 3L, manana, LocalTime.MIDNIGHT, LocalTime.of(7, 0));
+        indiceOcupacion.precargar();
+
+        assertThat(motor.primerosHorariosLibres(List.of(anden(2L, 2), anden(1L, 1), anden(3L, 3)), manana, 30, 4))
+                .extracting(HorarioSugeridoDTO::getAndenNumero, HorarioSugeridoDTO::getHoraInicio)
+                .containsExactly(tuple(3, LocalTime.of(7, 15)), tuple(3, LocalTime.of(7, 30)),
+                        tuple(3, LocalTime.of(7, 45)), tuple(3, LocalTime.of(8, 0)));
+        assertThat(motor.primerosHorariosLibres(List.of(anden(2L, 2), anden(1L, 1)), manana, 30, 2))
+                .extracting(HorarioSugeridoDTO::getAndenNumero, HorarioSugeridoDTO::getHoraInicio)
+                .containsExactly(tuple(1, LocalTime.of(8, 15)), tuple(2, LocalTime.of(8, 15)));
+    }
+
+    // 40 minutos necesitan tres franjas: el hueco de dos franjas del andén 1 (08:15 a 08:45) no alcanza
+    // y el de tres del andén 2 (08:15 a 09:00) sí
+    @Test
+    void unaDuracionQueNoEsMultiploDeLaGranularidadNecesitaLaFranjaSiguienteCompleta() {
+        LocalDate manana = hoy.plusDays(1);
+        reservar(1, 1L, manana, LocalTime.MIDNIGHT, LocalTime.of(8, 0));
+        reservar(2, 1L, manana, LocalTime.of(9, 0), LocalTime.of(23, 45));
+        reservar(3, 2L, manana, LocalTime.MIDNIGHT, LocalTime.of(8, 0));
+        reservar(4, 2L, manana, LocalTime.of(9, 15), LocalTime.of(23, 45));
+        indiceOcupacion.precargar();
+
+        assertThat(motor.primerosHorariosLibres(List.of(anden(1L, 1), anden(2L, 2)), manana, 40, 5))
+                .singleElement().satisfies(horario -> {
+                    assertThat(horario.getAndenNumero()).isEqualTo(2);
+                    assertThat(horario.getHoraInicio()).isEqualTo(LocalTime.of(8, 15));
+                    assertThat(horario.getHoraFin()).isEqualTo(LocalTime.of(8, 55));
+                });
+    }
+
+    @Test
+    void alFinalDelDiaSoloCabeLoQueTerminaAlCierre() {
+        LocalDate manana = hoy.plusDays(1);
+        reservar(1, 1L, manana, LocalTime.MIDNIGHT, LocalTime.of(22, 45));
+        indiceOcupacion.precargar();
+
+        assertThat(motor.primerosHorariosLibres(List.of(anden(1L, 1)), manana, 60, 5)).isEmpty();
+        assertThat(motor.primerosHorariosLibres(List.of(anden(1L, 1)), manana, 45, 5))
+                .extracting(HorarioSugeridoDTO::getHoraInicio, HorarioSugeridoDTO::getHoraFin)
+                .containsExactly(tuple(LocalTime.of(23, 0), LocalTime.of(23, 45)));
+    }
+
+    @Test
+    void lasCorridasCuentanLasFranjasLibresSeguidas() {
+        BitSet libres = new BitSet();
+        libres.set(0, 2);
+        libres.set(3);
+
+        assertThat(MotorDisponibilidad.corridas(libres, 5)).containsExactly(2, 1, 0, 1, 0, 0);
+        assertThat(MotorDisponibilidad.corridas(new BitSet(), 3)).containsOnly(0);
+    }
+
+    private void reservar(long id, Long andenId, LocalDate fecha, LocalTime inicio, LocalTime fin) {
+        intervalos.add(new IntervaloReservaDTO(id, andenId, fecha, inicio, fin));
+    }
+
+    private static Anden anden(Long id, int numero) {
+        Anden anden = new Anden();
+        anden.setId(id);
+        anden.setNumero(numero);
+        return anden;
+    }
+}
@@ -0,0 +1,156 @@
+package com.logistica.agendamiento.benchmark;
+
+import com.logistica.agendamiento.agenda.AgendaAndenDia;
+import com.logistica.agendamiento.agenda.AsignadorAndenes;
+import com.logistica.agendamiento.agenda.IndiceOcupacionAndenes;
+import com.logistica.agendamiento.agenda.MotorDisponibilidad;
+import com.logistica.agendamiento.config.AgendaProperties;
+import com.logistica.agendamiento.dto.DisponibilidadAndenDTO;
+import com.logistica.agendamiento.dto.HorarioSugeridoDTO;
+import com.logistica.agendamiento.dto.IntervaloReservaDTO;
+import com.logistica.agendamiento.entity.Anden;
+import com.logistica.agendamiento.entity.enums.EstadoReserva;
+import com.logistica.agendamiento.repository.AndenRepository;
+import com.logistica.agendamiento.repository.ReservaRepository;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Detección de conflictos y cálculo de disponibilidad sobre el índice de ocupación con N andenes
+// y M reservas por andén, sin base de datos (el índice se precarga desde repositorios simulados).
+// mvn -Pbenchmark test-compile exec:java -Dbenchmark.incluir=AgendaBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AgendaBenchmark {
+
+    // Potencia de dos para recorrer las consultas con una máscara
+    private static final int CONSULTAS = 1024;
+
+    @Param({"10", "50", "200"})
+    public int andenes;
+
+    @Param({"8", "32"})
+    public int reservasPorAnden;
+
+    private IndiceOcupacionAndenes indiceOcupacion;
+    private MotorDisponibilidad motorDisponibilidad;
+    private AsignadorAndenes asignadorAndenes;
+    private List<Anden> listaAndenes;
+    private LocalDate fecha;
+
+    // Consultas precalculadas para que cada llamada pregunte por un andén y horario distintos
+    private long[] consultaAnden;
+    private LocalTime[] consultaInicio;
+    private LocalTime[] consultaFin;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        AgendaProperties propiedades = new AgendaProperties();
+        fecha = LocalDate.now().plusDays(1);
+
+        listaAndenes = new ArrayList<>(andenes);
+        List<Long> ids = new ArrayList<>(andenes);
+        List<IntervaloReservaDTO> intervalos = new ArrayList<>(andenes * reservasPorAnden);
+        int minutosAtencion = (int) Duration.between(
+                propiedades.getHoraApertura(), propiedades.getHoraCierre()).toMinutes();
+        int paso = minutosAtencion / reservasPorAnden;
+        long reservaId = 1;
+        for (int a = 1; a <= andenes; a++) {
+            Anden anden = new Anden();
+            anden.setId((long) a);
+            anden.setNumero(a);
+            listaAndenes.add(anden);
+            ids.add(anden.getId());
+
+            // Reservas repartidas a lo largo del día, cada una ocupando la mitad de su tramo
+            for (int r = 0; r < reservasPorAnden; r++) {
+                LocalTime inicio = propiedades.getHoraApertura().plusMinutes((long) r * paso);
+                intervalos.add(new IntervaloReservaDTO(reservaId++, anden.getId(), fecha,
+                        inicio, inicio.plusMinutes(Math.max(15, paso / 2))));
+            }
+        }
+
+        ReservaRepository reservaRepository = Mockito.mock(ReservaRepository.class);
+        Mockito.when(reservaRepository.findIntervalosActivos(Mockito.any(), Mockito.any(),
+                Mockito.eq(EstadoReserva.CANCELADA))).thenReturn(intervalos);
+        AndenRepository andenRepository = Mockito.mock(AndenRepository.class);
+        Mockito.when(andenRepository.findAllIds()).thenReturn(ids);
+
+        indiceOcupacion = new IndiceOcupacionAndenes(reservaRepository, andenRepository, propiedades);
+        indiceOcupacion.precargar();
+        motorDisponibilidad = new MotorDisponibilidad(indiceOcupacion, propiedades);
+        asignadorAndenes = new AsignadorAndenes(indiceOcupacion, motorDisponibilidad, propiedades);
+
+        Random random = new Random(42);
+        consultaAnden = new long[CONSULTAS];
+        consultaInicio = new LocalTime[CONSULTAS];
+        consultaFin = new LocalTime[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            consultaAnden[i] = 1 + random.nextInt(andenes);
+            consultaInicio[i] = propiedades.getHoraApertura().plusMinutes(15L * random.nextInt(minutosAtencion / 15 - 4));
+            consultaFin[i] = consultaInicio[i].plusMinutes(60);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean detectarConflicto() {
+        int i = siguiente++ & (CONSULTAS - 1);
+        return indiceOcupacion.hayConflicto(consultaAnden[i], fecha, consultaInicio[i], consultaFin[i], null);
+    }
+
+    // Lo que hace ReservaServiceImpl.obtenerDisponibilidadPorFechaYArea una vez cargados los andenes del área
+    @Benchmark
+    public List<DisponibilidadAndenDTO> disponibilidadPorArea() {
+        List<DisponibilidadAndenDTO> resultado = new ArrayList<>(listaAndenes.size());
+        for (Anden anden : listaAndenes) {
+            DisponibilidadAndenDTO disponibilidad = new DisponibilidadAndenDTO();
+            disponibilidad.setAndenId(anden.getId());
+            disponibilidad.setNumero(anden.getNumero());
+
+            AgendaAndenDia agenda = indiceOcupacion.obtenerAgenda(anden.getId(), fecha);
+            disponibilidad.setHorariosReservados(agenda.horariosReservados());
+            disponibilidad.setHorariosDisponibles(motorDisponibilidad.horariosDisponibles(agenda, fecha));
+            resultado.add(disponibilidad);
+        }
+        return resultado;
+    }
+
+    @Benchmark
+    public List<HorarioSugeridoDTO> primerosHorariosLibres() {
+        return motorDisponibilidad.primerosHorariosLibres(listaAndenes, fecha, 60, 10);
+    }
+
+    // Reserva sin andén indicado: se puntúan todos los andenes libres en ese horario
+    @Benchmark
+    public Optional<Anden> asignarAnden() {
+        int i = siguiente++ & (CONSULTAS - 1);
+        return asignadorAndenes.asignar(listaAndenes, fecha, consultaInicio[i], consultaFin[i], null);
+    }
+
+    // Alternativas ante un conflicto: todas las combinaciones de andén y franja del día
+    @Benchmark
+    public List<HorarioSugeridoDTO> alternativasConflicto() {
+        int i = siguiente++ & (CONSULTAS - 1);
+        return asignadorAndenes.alternativas(listaAndenes, fecha, consultaInicio[i], 60, 5, null);
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        EjecutarBenchmarks.ejecutar(AgendaBenchmark.class.getSimpleName());
+    }
+}
@@ -0,0 +1,66 @@
+package com.logistica.agendamiento.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+// Ejecuta los microbenchmarks y deja el resultado en JSON (formato estándar de JMH) en
+// target/benchmark/<fecha>-<hora>.json, para compararlo entre versiones. Por defecto corre todos:
+// mvn -Pbenchmark test-compile exec:java
+// mvn -Pbenchmark test-compile exec:java -Dbenchmark.incluir=AgendaBenchmark
+public final class EjecutarBenchmarks {
+
+    private static final DateTimeFormatter FORMATO_ARCHIVO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private EjecutarBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        ejecutar(System.getProperty("benchmark.incluir", ".*"));
+    }
+
+    // incluir es una expresión regular sobre el nombre completo de los benchmarks (paquete.Clase.metodo)
+    public static void ejecutar(String incluir) throws RunnerException, IOException {
+        Path directorio = Path.of(System.getProperty("benchmark.directorio", "target/benchmark"));
+        Files.createDirectories(directorio);
+        Path resultado = directorio.resolve(LocalDateTime.now().format(FORMATO_ARCHIVO) + ".json");
+
+        // JMH lanza cada fork con -cp java.class.path
+        System.setProperty("java.class.path", classpath());
+        new Runner(new OptionsBuilder()
+                .include(incluir)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultado.toString())
+                .build()).run();
+        System.out.println("Resultados en " + resultado.toAbsolutePath());
+    }
+
+    // exec:java carga las clases de prueba en un class loader propio y deja java.class.path con solo el de
+    // Maven; la JVM que JMH lanza para cada fork necesita el classpath completo del proyecto
+    private static String classpath() {
+        if (Thread.currentThread().getContextClassLoader() instanceof URLClassLoader cargador) {
+            return Arrays.stream(cargador.getURLs())
+                    .map(url -> {
+                        try {
+                            return Path.of(url.toURI()).toString();
+                        } catch (URISyntaxException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    })
+                    .collect(Collectors.joining(File.pathSeparator));
+        }
+        return System.getProperty("java.class.path");
+    }
+}
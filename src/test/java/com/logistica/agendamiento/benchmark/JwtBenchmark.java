@@ -0,0 +1,97 @@
+package com.logistica.agendamiento.benchmark;
+
+import com.logistica.agendamiento.entity.Usuario;
+import com.logistica.agendamiento.entity.enums.Rol;
+import com.logistica.agendamiento.repository.UsuarioRepository;
+import com.logistica.agendamiento.security.CachePrincipales;
+import com.logistica.agendamiento.security.JwtProperties;
+import com.logistica.agendamiento.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.security.core.Authentication;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Tokens validados por segundo: parser, claves y estado del usuario reutilizados frente a lo que hacía el
+// proveedor antes (clave y parser nuevos en cada llamada, el token parseado dos veces y el usuario leído del
+// repositorio en cada petición). El token se firma con un kid que no es el por defecto, con tres claves
+// configuradas, así el camino actual incluye la búsqueda de la clave por kid. El repositorio es un mock: la
+// consulta a la base de datos que evita la caché no está incluida en la medición. Se ejecuta con:
+// mvn -Pbenchmark test-compile exec:java -Dbenchmark.incluir=JwtBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRETO = "miClaveSecretaSuperSeguraParaPruebasDeDesarrollo12345";
+    private static final String SECRETO_ACTIVO = "claveRotadaParaLasPruebasDeRendimientoDelProveedor2026";
+
+    private JwtTokenProvider tokenProvider;
+    private UsuarioRepository usuarioRepository;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        JwtProperties propiedades = new JwtProperties();
+        propiedades.setSecret(SECRETO);
+        propiedades.setExpirationMs(3_600_000);
+        propiedades.getKeys().put("2026-09", "claveAnteriorParaLasPruebasDeRendimientoDelProveedor26");
+        propiedades.getKeys().put("2026-10", SECRETO_ACTIVO);
+        propiedades.setActiveKid("2026-10");
+
+        Usuario usuario = new Usuario();
+        usuario.setUsername("benchmark");
+        usuario.setRol(Rol.ADMIN);
+        usuario.setEstado(true);
+        usuarioRepository = Mockito.mock(UsuarioRepository.class);
+        Mockito.when(usuarioRepository.findByUsername("benchmark")).thenReturn(Optional.of(usuario));
+
+        tokenProvider = new JwtTokenProvider(propiedades, new CachePrincipales(usuarioRepository, propiedades));
+        token = tokenProvider.generateToken("benchmark", "ROLE_ADMIN");
+    }
+
+    @Benchmark
+    public Optional<Authentication> autenticarConParserCompartido() {
+        return tokenProvider.autenticar(token);
+    }
+
+    // Camino anterior completo: dos parseos con clave y parser nuevos, y el usuario leído en cada petición
+    @Benchmark
+    public Optional<Usuario> autenticarComoAntes() {
+        validarReconstruyendoParser();
+        return usuarioRepository.findByUsername("benchmark");
+    }
+
+    @Benchmark
+    public Claims validarConParserCompartido() {
+        return tokenProvider.parseClaims(token);
+    }
+
+    // Implementación anterior: clave y parser nuevos en cada validación, y el token se parseaba dos veces
+    @Benchmark
+    public Claims validarReconstruyendoParser() {
+        Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRETO_ACTIVO.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRETO_ACTIVO.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        EjecutarBenchmarks.ejecutar(JwtBenchmark.class.getSimpleName());
+    }
+}
@@ -0,0 +1,63 @@
+package com.logistica.agendamiento.benchmark;
+
+import com.logistica.agendamiento.config.CorreoProperties;
+import com.logistica.agendamiento.config.ThymeleafConfig;
+import com.logistica.agendamiento.dto.ReservaDetalleDTO;
+import com.logistica.agendamiento.entity.enums.EstadoReserva;
+import com.logistica.agendamiento.notificacion.PlantillasCorreo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+// Correos renderizados por segundo con la caché de plantillas activa frente a releer y parsear la plantilla
+// en cada envío, que era la configuración anterior. Se ejecuta con:
+// mvn -Pbenchmark test-compile exec:java -Dbenchmark.incluir=PlantillasCorreoBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlantillasCorreoBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    private PlantillasCorreo plantillas;
+    private ReservaDetalleDTO reserva;
+
+    @Setup
+    public void preparar() {
+        CorreoProperties propiedades = new CorreoProperties();
+        propiedades.setPlantillasCache(cache);
+        plantillas = new PlantillasCorreo(new ThymeleafConfig(propiedades).templateEngine());
+        plantillas.precargar();
+
+        reserva = new ReservaDetalleDTO();
+        reserva.setId(12345L);
+        reserva.setProveedorNombre("Distribuidora del Pacífico");
+        reserva.setAreaNombre("Secos");
+        reserva.setAndenNumero(4);
+        reserva.setTipoServicioNombre("Camión");
+        reserva.setFecha(LocalDate.now().plusDays(1));
+        reserva.setHoraInicio(LocalTime.of(10, 0));
+        reserva.setHoraFin(LocalTime.of(11, 0));
+        reserva.setEstado(EstadoReserva.PENDIENTE);
+        reserva.setTransporteMarca("Hino");
+        reserva.setTransporteModelo("500");
+        reserva.setTransportePlaca("ABC-1234");
+    }
+
+    @Benchmark
+    public String renderizarConfirmacion() {
+        return plantillas.renderizar(PlantillasCorreo.CONFIRMACION_RESERVA, reserva);
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        EjecutarBenchmarks.ejecutar(PlantillasCorreoBenchmark.class.getSimpleName());
+    }
+}
@@ -0,0 +1,124 @@
+package com.logistica.agendamiento.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+// Carga de lazo cerrado contra una instancia en ejecución: cada cliente envía una petición, espera la respuesta
+// y envía la siguiente. Mide rendimiento y latencia tras un calentamiento y agrega el resultado a
+// target/carga/resultados.jsonl. Lo usa scripts/comparar-hilos.sh:
+// mvn -Pcarga test-compile exec:java -Dcarga.clientes=1000 -Dcarga.etiqueta=virtual
+public final class ClienteCarga {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private ClienteCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String base = System.getProperty("carga.url", "http://localhost:8080");
+        String ruta = System.getProperty("carga.ruta",
+                "/api/reservas/disponibilidad?fecha=" + LocalDate.now().plusDays(1) + "&areaId=1");
+        int clientes = Integer.getInteger("carga.clientes", 1000);
+        Duration calentamiento = Duration.parse(System.getProperty("carga.calentamiento", "PT15S"));
+        Duration duracion = Duration.parse(System.getProperty("carga.duracion", "PT60S"));
+        String etiqueta = System.getProperty("carga.etiqueta", "carga");
+
+        // El cliente también usa hilos virtuales: 1000 clientes no deben limitar la carga generada
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        String token = iniciarSesion(http, base,
+                System.getProperty("carga.usuario", "admin"), System.getProperty("carga.password", "admin123"));
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(base + ruta))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        long inicioMedicion = System.nanoTime() + calentamiento.toNanos();
+        long fin = inicioMedicion + duracion.toNanos();
+        Latencias[] latencias = new Latencias[clientes];
+        LongAdder errores = new LongAdder();
+
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clientes; i++) {
+                Latencias propias = new Latencias();
+                latencias[i] = propias;
+                hilos.submit(() -> {
+                    long ahora;
+                    while ((ahora = System.nanoTime()) < fin) {
+                        boolean correcta;
+                        try {
+                            correcta = http.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+                        } catch (IOException e) {
+                            correcta = false;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        long terminada = System.nanoTime();
+                        if (ahora >= inicioMedicion && terminada <= fin) {
+                            if (correcta) {
+                                propias.agregar((terminada - ahora) / 1000);
+                            } else {
+                                errores.increment();
+                            }
+                        }
+                    }
+                });
+            }
+        }
+
+        long[] todas = Latencias.unirOrdenadas(Arrays.asList(latencias));
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("etiqueta", etiqueta);
+        resultado.put("ruta", ruta);
+        resultado.put("clientes", clientes);
+        resultado.put("segundos", duracion.toSeconds());
+        resultado.put("peticiones", todas.length);
+        resultado.put("errores", errores.sum());
+        resultado.put("peticionesPorSegundo", Math.round(todas.length / (double) duracion.toSeconds()));
+        resultado.put("p50Ms", Latencias.percentil(todas, 0.50));
+        resultado.put("p95Ms", Latencias.percentil(todas, 0.95));
+        resultado.put("p99Ms", Latencias.percentil(todas, 0.99));
+        resultado.put("maxMs", todas.length > 0 ? todas[todas.length - 1] / 1000.0 : 0);
+
+        String linea = JSON.writeValueAsString(resultado);
+        System.out.println(linea);
+        Path salida = Path.of("target", "carga", "resultados.jsonl");
+        Files.createDirectories(salida.getParent());
+        Files.writeString(salida, linea + System.lineSeparator(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static String iniciarSesion(HttpClient http, String base, String usuario, String password)
+            throws IOException, InterruptedException {
+        String cuerpo = JSON.writeValueAsString(Map.of("username", usuario, "password", password));
+        HttpResponse<String> respuesta = http.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() != 200) {
+            throw new IllegalStateException("No se pudo iniciar sesión: HTTP " + respuesta.statusCode());
+        }
+        return JSON.readTree(respuesta.body()).get("token").asText();
+    }
+}
@@ -0,0 +1,421 @@
+package com.logistica.agendamiento.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Mezcla de operaciones contra una instancia en ejecución (normalmente ServidorCarga): inicio de sesión,
+// consultas de disponibilidad, creación de reservas y su recorrido completo (cambios de estado, registros
+// de tiempo y subida de la guía). Cada cliente sigue un lazo cerrado y elige la siguiente operación por peso.
+// Informa, por endpoint, p50/p95/p99, peticiones por segundo, rechazos (4xx) y errores (5xx o de red), y
+// agrega una línea JSON a target/carga/escenario.jsonl. Lo usa scripts/prueba-carga.sh.
+public final class EscenarioCarga {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    // Pesos de la mezcla; avanzar recorre el siguiente paso de una reserva creada por el mismo cliente
+    private static final int PESO_LOGIN = 3;
+    private static final int PESO_DISPONIBILIDAD = 30;
+    private static final int PESO_HORARIOS = 12;
+    private static final int PESO_CREAR = 20;
+    private static final int PESO_AVANZAR = 35;
+    private static final int PESO_TOTAL = PESO_LOGIN + PESO_DISPONIBILIDAD + PESO_HORARIOS + PESO_CREAR + PESO_AVANZAR;
+
+    private EscenarioCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Configuracion configuracion = new Configuracion(
+                System.getProperty("carga.url", "http://localhost:8080"),
+                System.getProperty("carga.usuario", "admin"),
+                System.getProperty("carga.password", "admin123"),
+                Integer.getInteger("carga.dias", 7),
+                Integer.getInteger("carga.archivoKb", 64));
+        int clientes = Integer.getInteger("carga.clientes", 50);
+        Duration calentamiento = Duration.parse(System.getProperty("carga.calentamiento", "PT15S"));
+        Duration duracion = Duration.parse(System.getProperty("carga.duracion", "PT60S"));
+        String etiqueta = System.getProperty("carga.etiqueta", "escenario");
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        // Catálogos que los clientes usan para construir sus peticiones
+        Sesion sesion = Sesion.iniciar(http, configuracion);
+        List<Long> areas = ids(sesion.get(http, configuracion.base() + "/api/areas"));
+        List<Long> proveedores = ids(sesion.get(http, configuracion.base() + "/api/proveedores"));
+        Long camion = null;
+        for (JsonNode tipo : sesion.get(http, configuracion.base() + "/api/tipos-servicio")) {
+            if ("Camión".equals(tipo.get("nombre").asText())) {
+                camion = tipo.get("id").asLong();
+            }
+        }
+        if (areas.isEmpty() || proveedores.isEmpty() || camion == null) {
+            throw new IllegalStateException("Faltan áreas, proveedores o el tipo de servicio Camión; "
+                    + "¿se arrancó la aplicación con el perfil carga?");
+        }
+
+        long inicioMedicion = System.nanoTime() + calentamiento.toNanos();
+        long fin = inicioMedicion + duracion.toNanos();
+        Medicion medicion = new Medicion(inicioMedicion, fin);
+        List<Cliente> lista = new ArrayList<>(clientes);
+
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clientes; i++) {
+                Cliente cliente = new Cliente(http, configuracion, sesion, medicion, areas, proveedores, camion);
+                lista.add(cliente);
+                hilos.submit(() -> cliente.ejecutar(fin));
+            }
+        }
+
+        // Resultados por endpoint, ordenados por nombre
+        Map<String, List<Latencias>> porEndpoint = new TreeMap<>();
+        for (Cliente cliente : lista) {
+            cliente.latencias.forEach((endpoint, latencias) ->
+                    porEndpoint.computeIfAbsent(endpoint, clave -> new ArrayList<>()).add(latencias));
+        }
+        double segundos = duracion.toMillis() / 1000.0;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<String, List<Latencias>> entrada : porEndpoint.entrySet()) {
+            long[] todas = Latencias.unirOrdenadas(entrada.getValue());
+            total += todas.length;
+            Map<String, Object> datos = new LinkedHashMap<>();
+            datos.put("peticiones", todas.length);
+            datos.put("rechazadas", medicion.contador(medicion.rechazadas, entrada.getKey()));
+            datos.put("errores", medicion.contador(medicion.errores, entrada.getKey()));
+            datos.put("peticionesPorSegundo", Math.round(todas.length / segundos * 10) / 10.0);
+            datos.put("p50Ms", Latencias.percentil(todas, 0.50));
+            datos.put("p95Ms", Latencias.percentil(todas, 0.95));
+            datos.put("p99Ms", Latencias.percentil(todas, 0.99));
+            datos.put("maxMs", todas.length > 0 ? todas[todas.length - 1] / 1000.0 : 0);
+            endpoints.put(entrada.getKey(), datos);
+        }
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("etiqueta", etiqueta);
+        resultado.put("fecha", LocalDate.now().toString());
+        resultado.put("clientes", clientes);
+        resultado.put("segundos", duracion.toSeconds());
+        resultado.put("peticiones", total);
+        resultado.put("peticionesPorSegundo", Math.round(total / segundos));
+        resultado.put("endpoints", endpoints);
+
+        imprimir(endpoints);
+        String linea = JSON.writeValueAsString(resultado);
+        Path salida = Path.of("target", "carga", "escenario.jsonl");
+        Files.createDirectories(salida.getParent());
+        Files.writeString(salida, linea + System.lineSeparator(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        System.out.println("Resultado agregado a " + salida.toAbsolutePath());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void imprimir(Map<String, Object> endpoints) {
+        System.out.printf("%-50s %9s %8s %7s %7s %9s %9s %9s%n",
+                "endpoint", "peticiones", "pet/s", "4xx", "error", "p50 ms", "p95 ms", "p99 ms");
+        endpoints.forEach((endpoint, valor) -> {
+            Map<String, Object> datos = (Map<String, Object>) valor;
+            System.out.printf("%-50s %9s %8s %7s %7s %9.1f %9.1f %9.1f%n", endpoint, datos.get("peticiones"),
+                    datos.get("peticionesPorSegundo"), datos.get("rechazadas"), datos.get("errores"),
+                    (Double) datos.get("p50Ms"), (Double) datos.get("p95Ms"), (Double) datos.get("p99Ms"));
+        });
+    }
+
+    private static List<Long> ids(JsonNode lista) {
+        List<Long> ids = new ArrayList<>();
+        lista.forEach(elemento -> ids.add(elemento.get("id").asLong()));
+        return ids;
+    }
+
+    private record Configuracion(String base, String usuario, String password, int dias, int archivoKb) {
+    }
+
+    private record Sesion(String token, long usuarioId) {
+
+        static Sesion iniciar(HttpClient http, Configuracion configuracion) throws IOException, InterruptedException {
+            HttpResponse<String> respuesta = http.send(login(configuracion), HttpResponse.BodyHandlers.ofString());
+            if (respuesta.statusCode() != 200) {
+                throw new IllegalStateException("No se pudo iniciar sesión: HTTP " + respuesta.statusCode());
+            }
+            JsonNode cuerpo = JSON.readTree(respuesta.body());
+            return new Sesion(cuerpo.get("token").asText(), cuerpo.get("id").asLong());
+        }
+
+        static HttpRequest login(Configuracion configuracion) throws IOException {
+            String cuerpo = JSON.writeValueAsString(
+                    Map.of("username", configuracion.usuario(), "password", configuracion.password()));
+            return HttpRequest.newBuilder(URI.create(configuracion.base() + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                    .build();
+        }
+
+        JsonNode get(HttpClient http, String url) throws IOException, InterruptedException {
+            HttpResponse<String> respuesta = http.send(HttpRequest.newBuilder(URI.create(url))
+                    .header("Authorization", "Bearer " + token).GET().build(), HttpResponse.BodyHandlers.ofString());
+            if (respuesta.statusCode() != 200) {
+                throw new IllegalStateException("GET " + url + ": HTTP " + respuesta.statusCode());
+            }
+            return JSON.readTree(respuesta.body());
+        }
+    }
+
+    // Ventana de medición y contadores compartidos por todos los clientes
+    private static final class Medicion {
+
+        private final long inicio;
+        private final long fin;
+        private final Map<String, LongAdder> rechazadas = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> errores = new ConcurrentHashMap<>();
+
+        Medicion(long inicio, long fin) {
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+
+        boolean cuenta(long enviada, long recibida) {
+            return enviada >= inicio && recibida <= fin;
+        }
+
+        long contador(Map<String, LongAdder> contadores, String endpoint) {
+            LongAdder contador = contadores.get(endpoint);
+            return contador == null ? 0 : contador.sum();
+        }
+    }
+
+    // Reserva creada por un cliente y el siguiente paso de su recorrido
+    private static final class Seguimiento {
+
+        private final long reservaId;
+        private int paso;
+        private long registroId;
+
+        Seguimiento(long reservaId) {
+            this.reservaId = reservaId;
+        }
+    }
+
+    private static final class Cliente {
+
+        private final HttpClient http;
+        private final Configuracion configuracion;
+        private final Medicion medicion;
+        private final List<Long> areas;
+        private final List<Long> proveedores;
+        private final long tipoServicioId;
+        private final Map<String, Latencias> latencias = new HashMap<>();
+        private final Deque<Seguimiento> reservas = new ArrayDeque<>();
+        private Sesion sesion;
+
+        Cliente(HttpClient http, Configuracion configuracion, Sesion sesion, Medicion medicion,
+                List<Long> areas, List<Long> proveedores, long tipoServicioId) {
+            this.http = http;
+            this.configuracion = configuracion;
+            this.sesion = sesion;
+            this.medicion = medicion;
+            this.areas = areas;
+            this.proveedores = proveedores;
+            this.tipoServicioId = tipoServicioId;
+        }
+
+        void ejecutar(long fin) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            try {
+                while (System.nanoTime() < fin) {
+                    int eleccion = random.nextInt(PESO_TOTAL);
+                    if ((eleccion -= PESO_LOGIN) < 0) {
+                        iniciarSesion();
+                    } else if ((eleccion -= PESO_DISPONIBILIDAD) < 0) {
+                        enviar("GET /api/reservas/disponibilidad", get("/api/reservas/disponibilidad?fecha="
+                                + fecha(random) + "&areaId=" + area(random)));
+                    } else if ((eleccion -= PESO_HORARIOS) < 0) {
+                        horarios(area(random), random);
+                    } else if ((eleccion -= PESO_CREAR) < 0 || reservas.isEmpty()) {
+                        crear(random);
+                    } else {
+                        avanzar();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void iniciarSesion() throws InterruptedException {
+            try {
+                HttpResponse<String> respuesta = enviar("POST /api/auth/login", Sesion.login(configuracion));
+                if (respuesta != null && respuesta.statusCode() == 200) {
+                    JsonNode cuerpo = JSON.readTree(respuesta.body());
+                    sesion = new Sesion(cuerpo.get("token").asText(), cuerpo.get("id").asLong());
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private JsonNode horarios(long areaId, ThreadLocalRandom random) throws InterruptedException {
+            HttpResponse<String> respuesta = enviar("GET /api/reservas/disponibilidad/horarios",
+                    get("/api/reservas/disponibilidad/horarios?fecha=" + fecha(random) + "&areaId=" + areaId
+                            + "&tipoServicioId=" + tipoServicioId + "&duracionMinutos=60&cantidad=10"));
+            return respuesta != null && respuesta.statusCode() == 200 ? leer(respuesta) : null;
+        }
+
+        // Pide horarios libres y reserva uno de ellos al azar; otro cliente puede ganarlo antes (400)
+        private void crear(ThreadLocalRandom random) throws InterruptedException {
+            long areaId = area(random);
+            JsonNode horarios = horarios(areaId, random);
+            if (horarios == null || horarios.isEmpty()) {
+                return;
+            }
+            JsonNode horario = horarios.get(random.nextInt(horarios.size()));
+            Map<String, Object> reserva = new LinkedHashMap<>();
+            reserva.put("proveedorId", proveedores.get(random.nextInt(proveedores.size())));
+            reserva.put("areaId", areaId);
+            reserva.put("andenId", horario.get("andenId").asLong());
+            reserva.put("tipoServicioId", tipoServicioId);
+            reserva.put("fecha", horario.get("fecha").asText());
+            reserva.put("horaInicio", horario.get("horaInicio").asText());
+            reserva.put("horaFin", horario.get("horaFin").asText());
+            reserva.put("transporteTipo", "Camión");
+            reserva.put("transporteMarca", "Hino");
+            reserva.put("transporteModelo", "500");
+            reserva.put("transportePlaca", "GCA-" + (1000 + random.nextInt(9000)));
+            reserva.put("conductorNombres", "Carlos");
+            reserva.put("conductorApellidos", "Andrade");
+            reserva.put("conductorCedula", "09" + (10_000_000 + random.nextInt(90_000_000)));
+
+            HttpResponse<String> respuesta = enviar("POST /api/reservas", post("/api/reservas", reserva));
+            if (respuesta != null && respuesta.statusCode() == 201) {
+                reservas.addLast(new Seguimiento(leer(respuesta).get("id").asLong()));
+            }
+        }
+
+        // Recorrido de una reserva en planta: ingreso, registro de tiempo, recepción con la guía y cierre
+        private void avanzar() throws InterruptedException {
+            Seguimiento seguimiento = reservas.pollFirst();
+            String base = "/api/reservas/" + seguimiento.reservaId;
+            HttpResponse<String> respuesta = switch (seguimiento.paso) {
+                case 0 -> enviar("PATCH /api/reservas/{id}/estado", patch(base + "/estado?estado=EN_PLANTA"));
+                case 1 -> enviar("POST /api/registros-tiempo/iniciar", post("/api/registros-tiempo/iniciar?reservaId="
+                        + seguimiento.reservaId + "&usuarioId=" + sesion.usuarioId() + "&tipo=INGRESO_PLANTA", null));
+                case 2 -> enviar("POST /api/registros-tiempo/{id}/finalizar",
+                        post("/api/registros-tiempo/" + seguimiento.registroId + "/finalizar", null));
+                case 3 -> enviar("PATCH /api/reservas/{id}/estado", patch(base + "/estado?estado=EN_RECEPCION"));
+                case 4 -> enviar("PUT /api/documentos/reserva/{id}/archivo", guia(seguimiento.reservaId));
+                default -> enviar("PATCH /api/reservas/{id}/estado", patch(base + "/estado?estado=COMPLETADA"));
+            };
+            // Si el paso falla se abandona la reserva; la siguiente operación tomará otra
+            if (respuesta == null || respuesta.statusCode() >= 300 || seguimiento.paso == 5) {
+                return;
+            }
+            if (seguimiento.paso == 1) {
+                seguimiento.registroId = leer(respuesta).get("id").asLong();
+            }
+            seguimiento.paso++;
+            reservas.addLast(seguimiento);
+        }
+
+        private HttpRequest guia(long reservaId) {
+            byte[] contenido = new byte[configuracion.archivoKb() * 1024];
+            ThreadLocalRandom.current().nextBytes(contenido);
+            return autorizada("/api/documentos/reserva/" + reservaId + "/archivo?nombre=guia-" + reservaId + ".pdf")
+                    .header("Content-Type", "application/pdf")
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(contenido))
+                    .build();
+        }
+
+        // Envía y registra la latencia; null si hubo un error de red
+        private HttpResponse<String> enviar(String endpoint, HttpRequest peticion) throws InterruptedException {
+            long enviada = System.nanoTime();
+            HttpResponse<String> respuesta;
+            try {
+                respuesta = http.send(peticion, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                if (medicion.cuenta(enviada, System.nanoTime())) {
+                    medicion.errores.computeIfAbsent(endpoint, clave -> new LongAdder()).increment();
+                }
+                return null;
+            }
+            long recibida = System.nanoTime();
+            if (medicion.cuenta(enviada, recibida)) {
+                if (respuesta.statusCode() >= 500) {
+                    medicion.errores.computeIfAbsent(endpoint, clave -> new LongAdder()).increment();
+                } else {
+                    if (respuesta.statusCode() >= 400) {
+                        medicion.rechazadas.computeIfAbsent(endpoint, clave -> new LongAdder()).increment();
+                    }
+                    latencias.computeIfAbsent(endpoint, clave -> new Latencias()).agregar((recibida - enviada) / 1000);
+                }
+            }
+            return respuesta;
+        }
+
+        private HttpRequest get(String ruta) {
+            return autorizada(ruta).GET().build();
+        }
+
+        private HttpRequest patch(String ruta) {
+            return autorizada(ruta).method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+        }
+
+        private HttpRequest post(String ruta, Object cuerpo) {
+            try {
+                return autorizada(ruta)
+                        .header("Content-Type", "application/json")
+                        .POST(cuerpo == null ? HttpRequest.BodyPublishers.noBody()
+                                : HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(cuerpo)))
+                        .build();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private HttpRequest.Builder autorizada(String ruta) {
+            return HttpRequest.newBuilder(URI.create(configuracion.base() + ruta))
+                    .header("Authorization", "Bearer " + sesion.token())
+                    .timeout(Duration.ofSeconds(30));
+        }
+
+        private static JsonNode leer(HttpResponse<String> respuesta) {
+            try {
+                return JSON.readTree(respuesta.body());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private long area(ThreadLocalRandom random) {
+            return areas.get(random.nextInt(areas.size()));
+        }
+
+        private LocalDate fecha(ThreadLocalRandom random) {
+            return LocalDate.now().plusDays(1 + random.nextInt(configuracion.dias()));
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.logistica.agendamiento.carga;
+
+import com.logistica.agendamiento.config.AgendaProperties;
+import com.logistica.agendamiento.entity.*;
+import com.logistica.agendamiento.entity.enums.CaracteristicaAnden;
+import com.logistica.agendamiento.entity.enums.EstadoReserva;
+import com.logistica.agendamiento.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Genera andenes, proveedores con su transporte y meses de reservas para el perfil carga.
+// Se ejecuta al arrancar, después de DataInitializer (áreas, tipos de servicio y admin) y antes de que
+// IndiceOcupacionAndenes precargue la ventana de reservas, que escucha el mismo evento sin orden.
+@Component
+@Profile("carga")
+@RequiredArgsConstructor
+@Slf4j
+public class GeneradorDatosCarga {
+
+    private static final String INSERTAR_RESERVA = "INSERT INTO reserva (proveedor_id, area_id, anden_id, "
+            + "tipo_servicio_id, transporte_id, fecha, hora_inicio, hora_fin, estado, descripcion, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int LOTE = 1000;
+
+    private final AreaRepository areaRepository;
+    private final AndenRepository andenRepository;
+    private final TipoServicioRepository tipoServicioRepository;
+    private final ProveedorRepository proveedorRepository;
+    private final TransporteRepository transporteRepository;
+    private final TransportistaRepository transportistaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PropiedadesDatosCarga propiedades;
+    private final AgendaProperties agendaProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void generar() {
+        if (andenRepository.count() > 0) {
+            log.info("Datos de carga ya presentes; no se generan de nuevo");
+            return;
+        }
+        long inicio = System.nanoTime();
+        Random random = new Random(propiedades.getSemilla());
+
+        TipoServicio camion = tipoServicioRepository.findByNombre("Camión").orElseThrow();
+        TipoServicio courier = tipoServicioRepository.findByNombre("Courier").orElseThrow();
+        TipoServicio contenedor = tipoServicioRepository.findByNombre("Contenedor").orElseThrow();
+
+        List<Anden> andenes = crearAndenes();
+        List<Proveedor> proveedores = crearProveedores();
+        List<Transporte> transportes = crearTransportes(proveedores.size());
+
+        int minutosAtencion = (int) Duration.between(
+                agendaProperties.getHoraApertura(), agendaProperties.getHoraCierre()).toMinutes();
+        int granularidad = agendaProperties.getGranularidadMinutos();
+        int paso = minutosAtencion / propiedades.getReservasPorAndenDia() / granularidad * granularidad;
+        int duracion = Math.max(granularidad, Math.min(60, paso - granularidad));
+
+        LocalDate hoy = LocalDate.now();
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Object[]> lote = new ArrayList<>(LOTE);
+        long total = 0;
+        for (LocalDate fecha = hoy.minusDays(propiedades.getDiasHistoria());
+             !fecha.isAfter(hoy.plusDays(propiedades.getDiasFuturo())); fecha = fecha.plusDays(1)) {
+            boolean pasado = fecha.isBefore(hoy);
+            for (Anden anden : andenes) {
+                for (int franja = 0; franja < propiedades.getReservasPorAndenDia(); franja++) {
+                    // Los días por venir quedan ocupados a medias para que la carga pueda seguir reservando
+                    if (!pasado && random.nextInt(100) >= 50) {
+                        continue;
+                    }
+                    LocalTime horaInicio = agendaProperties.getHoraApertura().plusMinutes((long) franja * paso);
+                    int indice = random.nextInt(proveedores.size());
+                    TipoServicio tipo = anden.getExclusivoContenedor() ? contenedor
+                            : random.nextBoolean() ? camion : courier;
+                    EstadoReserva estado = random.nextInt(100) < 5 ? EstadoReserva.CANCELADA
+                            : pasado ? EstadoReserva.COMPLETADA : EstadoReserva.PENDIENTE;
+
+                    lote.add(new Object[]{proveedores.get(indice).getId(), anden.getArea().getId(), anden.getId(),
+                            tipo.getId(), transportes.get(indice).getId(), fecha, horaInicio,
+                            horaInicio.plusMinutes(duracion), estado.name(), "Reserva generada", ahora, ahora});
+                    if (lote.size() == LOTE) {
+                        total += insertar(lote);
+                    }
+                }
+            }
+        }
+        total += insertar(lote);
+
+        log.info("Datos de carga generados en {} ms: {} andenes, {} proveedores, {} reservas",
+                (System.nanoTime() - inicio) / 1_000_000, andenes.size(), proveedores.size(), total);
+    }
+
+    private List<Anden> crearAndenes() {
+        List<Anden> andenes = new ArrayList<>();
+        for (Area area : areaRepository.findAll()) {
+            for (int numero = 1; numero <= propiedades.getAndenesPorArea(); numero++) {
+                Anden anden = new Anden();
+                anden.setArea(area);
+                anden.setNumero(numero);
+                anden.setCapacidad("20 t");
+                anden.setExclusivoContenedor(numero % 5 == 0);
+                anden.setCaracteristicas(numero % 5 == 0
+                        ? CaracteristicaAnden.CONTENEDOR.getBit() : CaracteristicaAnden.CARGA_GENERAL.getBit());
+                andenes.add(anden);
+            }
+        }
+        return andenRepository.saveAll(andenes);
+    }
+
+    private List<Proveedor> crearProveedores() {
+        List<Proveedor> proveedores = new ArrayList<>();
+        for (int i = 1; i <= propiedades.getProveedores(); i++) {
+            Proveedor proveedor = new Proveedor();
+            proveedor.setNombre(String.format("Proveedor de carga %04d", i));
+            proveedor.setRuc(String.format("09%011d", i));
+            proveedor.setDireccion("Av. de las Pruebas " + i);
+            proveedor.setTelefono(String.format("09%08d", i));
+            proveedor.setEmail(String.format("proveedor%04d@carga.local", i));
+            proveedores.add(proveedor);
+        }
+        return proveedorRepository.saveAll(proveedores);
+    }
+
+    // Un transporte con su conductor por proveedor, compartido por todas sus reservas generadas
+    private List<Transporte> crearTransportes(int cantidad) {
+        List<Transporte> transportes = new ArrayList<>();
+        for (int i = 1; i <= cantidad; i++) {
+            Transporte transporte = new Transporte();
+            transporte.setTipo("Camión");
+            transporte.setMarca("Hino");
+            transporte.setModelo("500");
+            transporte.setPlaca(String.format("GC-%04d", i));
+            transportes.add(transporte);
+        }
+        transportes = transporteRepository.saveAll(transportes);
+
+        List<Transportista> conductores = new ArrayList<>();
+        for (Transporte transporte : transportes) {
+            Transportista conductor = new Transportista();
+            conductor.setTransporte(transporte);
+            conductor.setNombres("Conductor");
+            conductor.setApellidos(transporte.getPlaca());
+            conductor.setCedula(String.format("09%08d", transporte.getId()));
+            conductor.setEsConductor(true);
+            conductores.add(conductor);
+        }
+        transportistaRepository.saveAll(conductores);
+        return transportes;
+    }
+
+    private int insertar(List<Object[]> lote) {
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERTAR_RESERVA, lote);
+        int insertadas = lote.size();
+        lote.clear();
+        return insertadas;
+    }
+}
@@ -0,0 +1,39 @@
+package com.logistica.agendamiento.carga;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+// Latencias en microsegundos de un solo cliente; sin sincronización porque solo la escribe su hilo
+final class Latencias {
+
+    private long[] valores = new long[1024];
+    private int cantidad;
+
+    void agregar(long micros) {
+        if (cantidad == valores.length) {
+            valores = Arrays.copyOf(valores, cantidad * 2);
+        }
+        valores[cantidad++] = micros;
+    }
+
+    // Une las latencias de todos los clientes y las devuelve ordenadas, listas para percentil
+    static long[] unirOrdenadas(Collection<Latencias> todas) {
+        long[] unidas = new long[todas.stream().mapToInt(latencias -> latencias.cantidad).sum()];
+        int posicion = 0;
+        for (Latencias latencias : todas) {
+            System.arraycopy(latencias.valores, 0, unidas, posicion, latencias.cantidad);
+            posicion += latencias.cantidad;
+        }
+        Arrays.sort(unidas);
+        return unidas;
+    }
+
+    // Percentil en milisegundos sobre latencias ordenadas
+    static double percentil(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)] / 1000.0;
+    }
+}
@@ -0,0 +1,28 @@
+package com.logistica.agendamiento.carga;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("carga")
+@ConfigurationProperties(prefix = "carga.datos")
+@Data
+public class PropiedadesDatosCarga {
+
+    // Andenes que se crean en cada área; uno de cada cinco queda exclusivo para contenedores
+    private int andenesPorArea = 20;
+
+    private int proveedores = 200;
+
+    // Días de reservas pasadas (completadas) y futuras (pendientes) que se generan a partir de hoy
+    private int diasHistoria = 90;
+    private int diasFuturo = 14;
+
+    // Franjas por andén y día; en los días futuros solo se ocupa una parte para dejar sitio a la carga
+    private int reservasPorAndenDia = 6;
+
+    // Misma semilla, mismos datos: permite repetir una medición sobre la misma base
+    private long semilla = 20240601;
+}
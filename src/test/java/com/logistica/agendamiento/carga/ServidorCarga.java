@@ -0,0 +1,49 @@
+package com.logistica.agendamiento.carga;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.logistica.agendamiento.AgendamientoProveedoresApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Arranca la aplicación con el perfil carga (H2 en modo MySQL y datos sintéticos) junto con un servidor SMTP
+// local, para medir sin MySQL ni un servidor de correo real. Lo usa scripts/prueba-carga.sh; a mano:
+// mvn -Pcarga test-compile exec:java -Dcarga.clase=com.logistica.agendamiento.carga.ServidorCarga
+public final class ServidorCarga {
+
+    private ServidorCarga() {
+    }
+
+    public static void main(String[] args) {
+        GreenMail smtp = new GreenMail(ServerSetupTest.SMTP);
+        smtp.start();
+
+        // GreenMail guarda en memoria todo lo recibido: se vacía cada minuto para que no crezca durante la prueba
+        AtomicLong recibidos = new AtomicLong();
+        ScheduledExecutorService vaciado = Executors.newSingleThreadScheduledExecutor();
+        Runnable vaciar = () -> {
+            try {
+                recibidos.addAndGet(smtp.getReceivedMessages().length);
+                smtp.purgeEmailFromAllMailboxes();
+            } catch (Exception e) {
+                System.err.println("No se pudo vaciar el servidor SMTP local: " + e.getMessage());
+            }
+        };
+        vaciado.scheduleAtFixedRate(vaciar, 1, 1, TimeUnit.MINUTES);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            vaciado.shutdownNow();
+            vaciar.run();
+            smtp.stop();
+            System.out.println("Correos recibidos por el servidor SMTP local: " + recibidos.get());
+        }));
+
+        new SpringApplicationBuilder(AgendamientoProveedoresApplication.class)
+                .profiles("carga")
+                .run(args);
+    }
+}
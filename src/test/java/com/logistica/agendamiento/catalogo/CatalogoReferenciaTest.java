@@ -0,0 +1,218 @@
+package com.logistica.agendamiento.catalogo;
+
+import com.logistica.agendamiento.dto.AndenDTO;
+import com.logistica.agendamiento.dto.DisponibilidadAndenDTO;
+import com.logistica.agendamiento.dto.ReservaDTO;
+import com.logistica.agendamiento.entity.Anden;
+import com.logistica.agendamiento.entity.Area;
+import com.logistica.agendamiento.entity.Proveedor;
+import com.logistica.agendamiento.entity.TipoServicio;
+import com.logistica.agendamiento.entity.enums.EstadoAnden;
+import com.logistica.agendamiento.exception.BadRequestException;
+import com.logistica.agendamiento.repository.AndenRepository;
+import com.logistica.agendamiento.repository.AreaRepository;
+import com.logistica.agendamiento.repository.ProveedorRepository;
+import com.logistica.agendamiento.repository.TipoServicioRepository;
+import com.logistica.agendamiento.repository.VersionCatalogoRepository;
+import com.logistica.agendamiento.service.AndenService;
+import com.logistica.agendamiento.service.EmailService;
+import com.logistica.agendamiento.service.ReservaService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogoReferenciaTest {
+
+    private static final AtomicLong PROVEEDORES = new AtomicLong();
+
+    @Autowired
+    private CatalogoReferencia catalogo;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private AndenService andenService;
+
+    @Autowired
+    private AreaRepository areaRepository;
+
+    @Autowired
+    private AndenRepository andenRepository;
+
+    @Autowired
+    private TipoServicioRepository tipoServicioRepository;
+
+    @Autowired
+    private ProveedorRepository proveedorRepository;
+
+    @Autowired
+    private VersionCatalogoRepository versionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Test
+    void crearReservaNoConsultaLosCatalogos() {
+        Area area = areaRepository.findByNombre("Secos").orElseThrow();
+        TipoServicio camion = tipoServicioRepository.findByNombre("Camión").orElseThrow();
+        Proveedor proveedor = crearProveedor();
+        AndenDTO anden = andenService.crearAnden(nuevoAnden(area, 941));
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        reservaService.crearReserva(nuevaReserva(proveedor, area, anden.getId(), camion, LocalTime.of(9, 0)));
+
+        assertThat(cargas(estadisticas, Area.class)).isZero();
+        assertThat(cargas(estadisticas, Anden.class)).isZero();
+        assertThat(cargas(estadisticas, TipoServicio.class)).isZero();
+    }
+
+    @Test
+    void unCambioDeEstadoDelAndenSeVeSinRecargarLosCatalogos() {
+        Area area = areaRepository.findByNombre("Secos").orElseThrow();
+        TipoServicio camion = tipoServicioRepository.findByNombre("Camión").orElseThrow();
+        Proveedor proveedor = crearProveedor();
+        AndenDTO anden = andenService.crearAnden(nuevoAnden(area, 942));
+        long version = versionRepository.findVersion().orElseThrow();
+
+        andenService.actualizarEstadoAnden(anden.getId(), EstadoAnden.NO_DISPONIBLE);
+
+        assertThat(versionRepository.findVersion()).contains(version);
+        assertThat(catalogo.anden(anden.getId()).orElseThrow().getEstado()).isEqualTo(EstadoAnden.NO_DISPONIBLE);
+        assertThatThrownBy(() -> reservaService.crearReserva(
+                nuevaReserva(proveedor, area, anden.getId(), camion, LocalTime.of(10, 0))))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("no está disponible");
+    }
+
+    @Test
+    void elEstadoCambiadoEnOtroNodoSeVeEnLaSiguienteConsulta() {
+        Area area = areaRepository.findByNombre("Secos").orElseThrow();
+        AndenDTO anden = andenService.crearAnden(nuevoAnden(area, 946));
+
+        // Otro nodo pone el andén en recepción sin tocar la versión de los catálogos
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                andenRepository.findById(anden.getId()).orElseThrow().setEstado(EstadoAnden.OCUPADO));
+
+        assertThat(catalogo.anden(anden.getId()).orElseThrow().getEstado()).isEqualTo(EstadoAnden.OCUPADO);
+        assertThat(catalogo.andenesDeArea(area)).filteredOn(cargado -> cargado.getId().equals(anden.getId()))
+                .singleElement().extracting(Anden::getEstado).isEqualTo(EstadoAnden.OCUPADO);
+    }
+
+    @Test
+    void unCambioConfirmadoEnOtroNodoSeVeEnLaSiguienteRevision() {
+        Area area = areaRepository.findByNombre("Secos").orElseThrow();
+        AndenDTO anden = andenService.crearAnden(nuevoAnden(area, 943));
+
+        // Otro nodo cambia el andén e incrementa la versión sin pasar por este
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Anden cambiado = andenRepository.findById(anden.getId()).orElseThrow();
+            cambiado.setCapacidad("Refrigerado");
+            versionRepository.incrementar();
+        });
+        assertThat(catalogo.anden(anden.getId()).orElseThrow().getCapacidad()).isNull();
+
+        catalogo.revisar();
+
+        assertThat(catalogo.anden(anden.getId()).orElseThrow().getCapacidad()).isEqualTo("Refrigerado");
+    }
+
+    @Test
+    void cadaConsultaEntregaSuPropiaCopia() {
+        Area area = areaRepository.findByNombre("Secos").orElseThrow();
+        AndenDTO anden = andenService.crearAnden(nuevoAnden(area, 947));
+
+        Anden primera = catalogo.anden(anden.getId()).orElseThrow();
+        primera.setNumero(999);
+        primera.getArea().setNombre("Modificada");
+
+        Anden segunda = catalogo.anden(anden.getId()).orElseThrow();
+        assertThat(segunda.getNumero()).isEqualTo(947);
+        assertThat(segunda.getArea().getNombre()).isEqualTo("Secos");
+    }
+
+    @Test
+    void laDisponibilidadYLaConsultaPorTipoSoloIncluyenAndenesCompatibles() {
+        Area area = areaRepository.findByNombre("Secos").orElseThrow();
+        TipoServicio contenedor = tipoServicioRepository.findByNombre("Contenedor").orElseThrow();
+        AndenDTO exclusivo = nuevoAnden(area, 944);
+        exclusivo.setExclusivoContenedor(true);
+        Long exclusivoId = andenService.crearAnden(exclusivo).getId();
+        Long generalId = andenService.crearAnden(nuevoAnden(area, 945)).getId();
+
+        // Consulta por características en la base de datos
+        assertThat(andenService.obtenerAndenesPorAreaYTipoServicio(area.getId(), contenedor.getId()))
+                .extracting(AndenDTO::getId).contains(exclusivoId).doesNotContain(generalId);
+        // Matriz de compatibilidad de la copia en memoria
+        assertThat(reservaService.obtenerDisponibilidadPorFechaYArea(LocalDate.now().plusDays(3), area.getId(),
+                contenedor.getId()))
+                .extracting(DisponibilidadAndenDTO::getAndenId).contains(exclusivoId).doesNotContain(generalId);
+    }
+
+    private static long cargas(Statistics estadisticas, Class<?> entidad) {
+        return estadisticas.getEntityStatistics(entidad.getName()).getLoadCount()
+                + estadisticas.getEntityStatistics(entidad.getName()).getFetchCount();
+    }
+
+    // RUC y correo únicos en cada llamada: el contexto (y la base H2) se comparte con las demás clases de prueba
+    private Proveedor crearProveedor() {
+        String ruc = String.format("0966%09d", PROVEEDORES.incrementAndGet());
+        Proveedor nuevo = new Proveedor();
+        nuevo.setNombre("Proveedor Catálogo " + ruc);
+        nuevo.setRuc(ruc);
+        nuevo.setDireccion("Dirección de prueba");
+        nuevo.setTelefono("0977777777");
+        nuevo.setEmail("catalogo" + ruc + "@proveedor.com");
+        return proveedorRepository.save(nuevo);
+    }
+
+    private static AndenDTO nuevoAnden(Area area, int numero) {
+        AndenDTO dto = new AndenDTO();
+        dto.setAreaId(area.getId());
+        dto.setNumero(numero);
+        return dto;
+    }
+
+    private static ReservaDTO nuevaReserva(Proveedor proveedor, Area area, Long andenId, TipoServicio tipoServicio,
+                                           LocalTime inicio) {
+        ReservaDTO dto = new ReservaDTO();
+        dto.setProveedorId(proveedor.getId());
+        dto.setAreaId(area.getId());
+        dto.setAndenId(andenId);
+        dto.setTipoServicioId(tipoServicio.getId());
+        dto.setFecha(LocalDate.now().plusDays(3));
+        dto.setHoraInicio(inicio);
+        dto.setHoraFin(inicio.plusMinutes(30));
+        dto.setTransporteTipo("Camión");
+        dto.setTransporteMarca("Isuzu");
+        dto.setTransporteModelo("NPR");
+        dto.setTransportePlaca("CAT-1234");
+        dto.setConductorNombres("Luis");
+        dto.setConductorApellidos("Mora");
+        dto.setConductorCedula("0934567890");
+        return dto;
+    }
+}
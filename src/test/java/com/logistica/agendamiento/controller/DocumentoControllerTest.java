@@ -0,0 +1,178 @@
+package com.logistica.agendamiento.controller;
+
+import com.logistica.agendamiento.dto.DescargaDocumentoDTO;
+import com.logistica.agendamiento.service.DocumentoService;
+import com.logistica.agendamiento.service.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+class DocumentoControllerTest {
+
+    private static final String URL = "/api/documentos/7/descargar";
+    private static final String RUTA = "sha256/ab/cd/abcd";
+    private static final byte[] CONTENIDO = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DocumentoService documentoService;
+
+    @MockBean
+    private FileStorageService fileStorageService;
+
+    // Almacenamiento local sin sendfile: el archivo se copia a la respuesta con transferTo
+    @BeforeEach
+    void preparar() throws Exception {
+        Mockito.when(documentoService.obtenerDescarga(7L)).thenReturn(new DescargaDocumentoDTO(7L, "guia.pdf", RUTA,
+                "application/pdf", LocalDateTime.of(2026, 3, 1, 10, 0)));
+        Mockito.when(fileStorageService.presignedDownload(Mockito.eq(RUTA), Mockito.any(), Mockito.any()))
+                .thenReturn(Optional.empty());
+        Mockito.when(fileStorageService.localFile(RUTA)).thenReturn(Optional.empty());
+        Mockito.when(fileStorageService.size(RUTA)).thenReturn((long) CONTENIDO.length);
+        Mockito.when(fileStorageService.transferTo(Mockito.eq(RUTA), Mockito.anyLong(), Mockito.anyLong(), Mockito.any()))
+                .thenAnswer(invocacion -> {
+                    long posicion = invocacion.getArgument(1);
+                    long cantidad = invocacion.getArgument(2);
+                    WritableByteChannel salida = invocacion.getArgument(3);
+                    return (long) salida.write(ByteBuffer.wrap(CONTENIDO, (int) posicion, (int) cantidad));
+                });
+    }
+
+    @Test
+    void laDescargaCompletaIncluyeLasCabecerasDeValidacion() throws Exception {
+        mockMvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENIDO.length))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        allOf(startsWith("attachment"), containsString("guia.pdf"))))
+                .andExpect(content().contentType("application/pdf"))
+                .andExpect(content().bytes(CONTENIDO));
+    }
+
+    @Test
+    void conElMismoEtagRespondeNoModificado() throws Exception {
+        String etag = descargaCompleta().getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse respuesta = mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn().getResponse();
+
+        assertThat(respuesta.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void unRangoDevuelveSoloEsaParte() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=5-9"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 5-9/20"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 5))
+                .andExpect(content().string("56789"));
+
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=15-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 15-19/20"))
+                .andExpect(content().string("fghij"));
+    }
+
+    @Test
+    void unRangoFueraDelArchivoNoSePuedeSatisfacer() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=30-40"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */20"));
+
+        Mockito.verify(fileStorageService, Mockito.never())
+                .transferTo(Mockito.any(), Mockito.anyLong(), Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    void conVariosRangosSeEnviaElArchivoCompleto() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-1,5-6"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(CONTENIDO));
+    }
+
+    @Test
+    void ifRangeVigenteRespetaElRango() throws Exception {
+        MockHttpServletResponse completa = descargaCompleta();
+
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-3")
+                        .header(HttpHeaders.IF_RANGE, completa.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("0123"));
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-3")
+                        .header(HttpHeaders.IF_RANGE, completa.getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("0123"));
+    }
+
+    @Test
+    void ifRangeDeOtraVersionDevuelveElArchivoCompleto() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-3")
+                        .header(HttpHeaders.IF_RANGE, "\"7-20-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(CONTENIDO));
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-3")
+                        .header(HttpHeaders.IF_RANGE, "Sun, 01 Feb 2026 10:00:00 GMT"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(CONTENIDO));
+    }
+
+    @Test
+    void headDevuelveLasCabecerasSinElArchivo() throws Exception {
+        MockHttpServletResponse respuesta = mockMvc.perform(head(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENIDO.length))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andReturn().getResponse();
+        mockMvc.perform(head(URL).header(HttpHeaders.RANGE, "bytes=5-9"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 5-9/20"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 5));
+
+        assertThat(respuesta.getContentAsByteArray()).isEmpty();
+        Mockito.verify(fileStorageService, Mockito.never())
+                .transferTo(Mockito.any(), Mockito.anyLong(), Mockito.anyLong(), Mockito.any());
+    }
+
+    private MockHttpServletResponse descargaCompleta() throws Exception {
+        return mockMvc.perform(get(URL)).andExpect(status().isOk()).andReturn().getResponse();
+    }
+}
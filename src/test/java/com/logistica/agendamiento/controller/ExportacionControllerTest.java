@@ -0,0 +1,39 @@
+package com.logistica.agendamiento.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class ExportacionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void unRangoInvertidoSeRechazaAntesDeEmpezarLaDescarga() throws Exception {
+        for (String exportacion : new String[]{"reservas", "registros-tiempo", "documentos"}) {
+            mockMvc.perform(get("/api/exportaciones/" + exportacion)
+                            .param("desde", "2026-03-31")
+                            .param("hasta", "2026-03-01"))
+                    .andExpect(request().asyncNotStarted())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_DISPOSITION))
+                    .andExpect(jsonPath("$.mensaje").value("La fecha final no puede ser anterior a la fecha inicial"));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.logistica.agendamiento.entity.enums;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaracteristicaAndenTest {
+
+    private static final int GENERAL = CaracteristicaAnden.CARGA_GENERAL.getBit();
+    private static final int CONTENEDOR = CaracteristicaAnden.CONTENEDOR.getBit();
+    private static final int REFRIGERADO = CaracteristicaAnden.REFRIGERADO.getBit();
+
+    @Test
+    void unAndenCumpleSiOfreceTodoLoRequerido() {
+        assertThat(CaracteristicaAnden.cumple(GENERAL | REFRIGERADO, GENERAL)).isTrue();
+        assertThat(CaracteristicaAnden.cumple(GENERAL | REFRIGERADO, GENERAL | REFRIGERADO)).isTrue();
+        assertThat(CaracteristicaAnden.cumple(GENERAL, GENERAL | REFRIGERADO)).isFalse();
+        // Un andén solo de contenedores no recibe carga general, ni al revés
+        assertThat(CaracteristicaAnden.cumple(CONTENEDOR, GENERAL)).isFalse();
+        assertThat(CaracteristicaAnden.cumple(GENERAL, CONTENEDOR)).isFalse();
+    }
+
+    @Test
+    void lasMascarasQueCumplenSonExactamenteLasQueIncluyenLoRequerido() {
+        List<Integer> mascaras = CaracteristicaAnden.mascarasQueCumplen(GENERAL | REFRIGERADO);
+
+        int todas = CaracteristicaAnden.mascara(EnumSet.allOf(CaracteristicaAnden.class));
+        for (int mascara = 0; mascara <= todas; mascara++) {
+            assertThat(mascaras.contains(mascara)).isEqualTo(CaracteristicaAnden.cumple(mascara, GENERAL | REFRIGERADO));
+        }
+        assertThat(CaracteristicaAnden.mascarasQueCumplen(0)).hasSize(todas + 1);
+    }
+
+    @Test
+    void laMascaraYElConjuntoSonEquivalentes() {
+        EnumSet<CaracteristicaAnden> conjunto = EnumSet.of(CaracteristicaAnden.CONTENEDOR, CaracteristicaAnden.REFRIGERADO);
+
+        assertThat(CaracteristicaAnden.de(CaracteristicaAnden.mascara(conjunto))).isEqualTo(conjunto);
+        assertThat(CaracteristicaAnden.de(0)).isEmpty();
+    }
+}
@@ -0,0 +1,36 @@
+package com.logistica.agendamiento.exportacion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EscritorExportacionTest {
+
+    private final EscritorExportacion escritor = new EscritorExportacion(new ObjectMapper());
+
+    private final List<ColumnaExportacion<Map<String, Object>>> columnas = List.of(
+            ColumnaExportacion.de("id", fila -> fila.get("id")),
+            ColumnaExportacion.de("proveedor", fila -> fila.get("proveedor")));
+
+    // Un objeto por línea, sin separadores entre líneas más allá del salto
+    @Test
+    void ndjsonEscribeUnObjetoPorLinea() throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        long total = escritor.escribir(Stream.<Map<String, Object>>of(
+                Map.of("id", 1, "proveedor", "Acme"),
+                Map.of("id", 2, "proveedor", "Ñandú S.A.")), columnas, FormatoExportacion.NDJSON, salida);
+
+        assertThat(total).isEqualTo(2);
+        assertThat(salida.toByteArray()).isEqualTo(
+                "{\"id\":1,\"proveedor\":\"Acme\"}\n{\"id\":2,\"proveedor\":\"Ñandú S.A.\"}\n"
+                        .getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,107 @@
+package com.logistica.agendamiento.notificacion;
+
+import com.logistica.agendamiento.dto.ReservaDetalleDTO;
+import com.logistica.agendamiento.entity.NotificacionPendiente;
+import com.logistica.agendamiento.entity.enums.EstadoNotificacion;
+import com.logistica.agendamiento.entity.enums.EstadoReserva;
+import com.logistica.agendamiento.entity.enums.TipoNotificacion;
+import com.logistica.agendamiento.repository.NotificacionPendienteRepository;
+import com.logistica.agendamiento.service.EmailService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BandejaSalidaNotificacionesTest {
+
+    private static final AtomicLong RESERVAS = new AtomicLong(890_000);
+
+    @Autowired
+    private BandejaSalidaNotificaciones bandeja;
+
+    @Autowired
+    private NotificacionPendienteRepository notificacionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Test
+    void laNotificacionQuedaPendienteParaElPrimerDespacho() {
+        ReservaDetalleDTO reserva = reserva(EstadoReserva.PENDIENTE);
+        LocalDateTime antes = LocalDateTime.now();
+
+        enTransaccion(() -> bandeja.registrar(TipoNotificacion.CONFIRMACION_RESERVA, reserva, "proveedor@proveedor.com"));
+
+        assertThat(notificaciones(reserva)).singleElement().satisfies(notificacion -> {
+            assertThat(notificacion.getEstado()).isEqualTo(EstadoNotificacion.PENDIENTE);
+            assertThat(notificacion.getIntentos()).isZero();
+            assertThat(notificacion.getProximoIntento()).isBetween(antes, LocalDateTime.now());
+            assertThat(notificacion.getDestinatario()).isEqualTo("proveedor@proveedor.com");
+            assertThat(notificacion.getDatos()).contains("\"id\":" + reserva.getId());
+        });
+    }
+
+    @Test
+    void siLaReservaSeRevierteNoQuedaNotificacion() {
+        ReservaDetalleDTO reserva = reserva(EstadoReserva.PENDIENTE);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bandeja.registrar(TipoNotificacion.CONFIRMACION_RESERVA, reserva, "proveedor@proveedor.com");
+            status.setRollbackOnly();
+        });
+
+        assertThat(notificaciones(reserva)).isEmpty();
+    }
+
+    @Test
+    void sinTransaccionNoSeRegistra() {
+        assertThatThrownBy(() -> bandeja.registrar(TipoNotificacion.CONFIRMACION_RESERVA,
+                reserva(EstadoReserva.PENDIENTE), "proveedor@proveedor.com"))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    @Test
+    void cadaCambioDeEstadoSeNotificaUnaSolaVez() {
+        ReservaDetalleDTO reserva = reserva(EstadoReserva.EN_PLANTA);
+
+        enTransaccion(() -> bandeja.registrar(TipoNotificacion.CAMBIO_ESTADO, reserva, "proveedor@proveedor.com"));
+        enTransaccion(() -> bandeja.registrar(TipoNotificacion.CAMBIO_ESTADO, reserva, "proveedor@proveedor.com"));
+        reserva.setEstado(EstadoReserva.EN_RECEPCION);
+        enTransaccion(() -> bandeja.registrar(TipoNotificacion.CAMBIO_ESTADO, reserva, "proveedor@proveedor.com"));
+
+        assertThat(notificaciones(reserva)).hasSize(2);
+    }
+
+    private void enTransaccion(Runnable accion) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> accion.run());
+    }
+
+    private List<NotificacionPendiente> notificaciones(ReservaDetalleDTO reserva) {
+        return notificacionRepository.findAll().stream()
+                .filter(notificacion -> reserva.getId().equals(notificacion.getReservaId()))
+                .toList();
+    }
+
+    private static ReservaDetalleDTO reserva(EstadoReserva estado) {
+        ReservaDetalleDTO reserva = new ReservaDetalleDTO();
+        reserva.setId(RESERVAS.incrementAndGet());
+        reserva.setEstado(estado);
+        return reserva;
+    }
+}
@@ -0,0 +1,281 @@
+package com.logistica.agendamiento.notificacion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logistica.agendamiento.config.CorreoProperties;
+import com.logistica.agendamiento.config.NotificacionesProperties;
+import com.logistica.agendamiento.dto.CorreoReservaDTO;
+import com.logistica.agendamiento.dto.ReservaDetalleDTO;
+import com.logistica.agendamiento.entity.NotificacionPendiente;
+import com.logistica.agendamiento.entity.enums.EstadoNotificacion;
+import com.logistica.agendamiento.entity.enums.TipoNotificacion;
+import com.logistica.agendamiento.repository.EventoResumenAdministradorRepository;
+import com.logistica.agendamiento.repository.NotificacionPendienteRepository;
+import com.logistica.agendamiento.service.EmailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+// Despacho contra H2 con el servicio de correo simulado. Las notificaciones de cada prueba se crean con el
+// próximo intento en el pasado para que entren en el primer lote; las de otras pruebas también se despachan,
+// pero las comprobaciones solo miran las propias.
+@SpringBootTest
+@ActiveProfiles("test")
+class DespachadorNotificacionesTest {
+
+    private static final LocalDateTime PASADO = LocalDateTime.of(2000, 1, 1, 8, 0);
+    private static final AtomicLong RESERVAS = new AtomicLong(880_000);
+
+    @Autowired
+    private NotificacionPendienteRepository notificacionRepository;
+
+    @Autowired
+    private EventoResumenAdministradorRepository eventoRepository;
+
+    @Autowired
+    private BandejaSalidaNotificaciones bandeja;
+
+    @Autowired
+    private ResumenAdministrador resumenAdministrador;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CorreoProperties correoProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private EmailService emailService;
+
+    private final List<Long> enviadas = new CopyOnWriteArrayList<>();
+    private final Set<Long> conError = ConcurrentHashMap.newKeySet();
+    private NotificacionesProperties propiedades;
+    private DespachadorNotificaciones despachador;
+
+    // Un despachador propio, habilitado; el del contexto sigue apagado por la configuración de pruebas
+    @BeforeEach
+    void preparar() {
+        propiedades = new NotificacionesProperties();
+        propiedades.setTamanoLote(500);
+        propiedades.setMaxIntentos(4);
+        propiedades.setEsperaInicialSegundos(30);
+        propiedades.setEsperaMaximaSegundos(3600);
+        propiedades.setReclamoSegundos(300);
+        despachador = new DespachadorNotificaciones(notificacionRepository, emailService, objectMapper,
+                propiedades, correoProperties, meterRegistry, transactionManager);
+
+        Mockito.when(emailService.enviarLote(Mockito.any())).thenAnswer(invocacion -> {
+            List<CorreoReservaDTO> correos = invocacion.getArgument(0);
+            Map<Long, Exception> fallos = new HashMap<>();
+            for (CorreoReservaDTO correo : correos) {
+                if (conError.contains(correo.getNotificacionId())) {
+                    fallos.put(correo.getNotificacionId(), new MailSendException("Buzón lleno"));
+                } else {
+                    enviadas.add(correo.getNotificacionId());
+                }
+            }
+            return CompletableFuture.completedFuture(fallos);
+        });
+    }
+
+    @Test
+    void elLoteReclamadoQuedaEnProcesoMientrasSeEnvia() {
+        Long id = crear(EstadoNotificacion.PENDIENTE, 0, null).getId();
+        Map<Long, NotificacionPendiente> durante = new HashMap<>();
+        Mockito.doAnswer(invocacion -> {
+            durante.put(id, notificacionRepository.findById(id).orElseThrow());
+            return CompletableFuture.completedFuture(Map.of());
+        }).when(emailService).enviarLote(Mockito.any());
+
+        LocalDateTime antes = LocalDateTime.now();
+        despachador.despachar();
+
+        assertThat(durante.get(id).getEstado()).isEqualTo(EstadoNotificacion.EN_PROCESO);
+        assertThat(durante.get(id).getReclamadaHasta())
+                .isBetween(antes.plusSeconds(300), LocalDateTime.now().plusSeconds(300));
+        NotificacionPendiente despues = notificacionRepository.findById(id).orElseThrow();
+        assertThat(despues.getEstado()).isEqualTo(EstadoNotificacion.ENVIADA);
+        assertThat(despues.getEnviadaAt()).isNotNull();
+        assertThat(despues.getReclamadaHasta()).isNull();
+    }
+
+    @Test
+    void unEnvioFallidoSeReprogramaConEsperaExponencial() {
+        // Segundo fallo: 30 segundos duplicados una vez
+        NotificacionPendiente notificacion = crear(EstadoNotificacion.PENDIENTE, 1, null);
+        conError.add(notificacion.getId());
+
+        despachador.despachar();
+        LocalDateTime despacho = LocalDateTime.now();
+
+        NotificacionPendiente despues = notificacionRepository.findById(notificacion.getId()).orElseThrow();
+        assertThat(despues.getEstado()).isEqualTo(EstadoNotificacion.PENDIENTE);
+        assertThat(despues.getIntentos()).isEqualTo(2);
+        assertThat(despues.getProximoIntento()).isCloseTo(despacho.plusSeconds(60), within(5, ChronoUnit.SECONDS));
+        assertThat(despues.getReclamadaHasta()).isNull();
+        assertThat(despues.getUltimoError()).contains("Buzón lleno");
+
+        // No vuelve a salir hasta que pase la espera
+        despachador.despachar();
+        assertThat(notificacionRepository.findById(notificacion.getId()).orElseThrow().getIntentos()).isEqualTo(2);
+    }
+
+    @Test
+    void laEsperaNoPasaDelMaximo() {
+        propiedades.setMaxIntentos(30);
+        NotificacionPendiente notificacion = crear(EstadoNotificacion.PENDIENTE, 20, null);
+        conError.add(notificacion.getId());
+
+        despachador.despachar();
+        LocalDateTime despacho = LocalDateTime.now();
+
+        assertThat(notificacionRepository.findById(notificacion.getId()).orElseThrow().getProximoIntento())
+                .isCloseTo(despacho.plusSeconds(3600), within(5, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void alAgotarLosIntentosQuedaFallida() {
+        NotificacionPendiente notificacion = crear(EstadoNotificacion.PENDIENTE, 3, null);
+        conError.add(notificacion.getId());
+
+        despachador.despachar();
+
+        NotificacionPendiente despues = notificacionRepository.findById(notificacion.getId()).orElseThrow();
+        assertThat(despues.getEstado()).isEqualTo(EstadoNotificacion.FALLIDA);
+        assertThat(despues.getIntentos()).isEqualTo(4);
+
+        // Una notificación FALLIDA no se vuelve a tomar
+        conError.remove(notificacion.getId());
+        despachador.despachar();
+        assertThat(enviadas).doesNotContain(notificacion.getId());
+    }
+
+    @Test
+    void unReclamoVencidoSeRetomaYUnoVigenteNo() {
+        NotificacionPendiente vencida = crear(EstadoNotificacion.EN_PROCESO, 0, LocalDateTime.now().minusMinutes(1));
+        NotificacionPendiente vigente = crear(EstadoNotificacion.EN_PROCESO, 0, LocalDateTime.now().plusMinutes(10));
+
+        despachador.despachar();
+
+        assertThat(enviadas).contains(vencida.getId()).doesNotContain(vigente.getId());
+        assertThat(notificacionRepository.findById(vencida.getId()).orElseThrow().getEstado())
+                .isEqualTo(EstadoNotificacion.ENVIADA);
+        assertThat(notificacionRepository.findById(vigente.getId()).orElseThrow().getEstado())
+                .isEqualTo(EstadoNotificacion.EN_PROCESO);
+    }
+
+    // Si el reclamo vence durante el envío y otro nodo retoma la notificación, el resultado de este nodo
+    // se descarta: lo registra el nodo que la tiene ahora
+    @Test
+    void unReclamoPerdidoNoRegistraElResultado() {
+        Long id = crear(EstadoNotificacion.PENDIENTE, 0, null).getId();
+        LocalDateTime otroVencimiento = LocalDateTime.now().plusMinutes(10);
+        Mockito.doAnswer(invocacion -> {
+            NotificacionPendiente retomada = notificacionRepository.findById(id).orElseThrow();
+            retomada.setReclamo("otro-nodo");
+            retomada.setReclamadaHasta(otroVencimiento);
+            notificacionRepository.save(retomada);
+            return CompletableFuture.completedFuture(Map.of());
+        }).when(emailService).enviarLote(Mockito.any());
+
+        despachador.despachar();
+
+        NotificacionPendiente despues = notificacionRepository.findById(id).orElseThrow();
+        assertThat(despues.getEstado()).isEqualTo(EstadoNotificacion.EN_PROCESO);
+        assertThat(despues.getReclamo()).isEqualTo("otro-nodo");
+        assertThat(despues.getEnviadaAt()).isNull();
+    }
+
+    // La copia al administrador viaja en el resumen, aparte del correo al proveedor: si el resumen falla,
+    // sus eventos siguen pendientes y el correo al proveedor ya entregado no se repite
+    @Test
+    void unResumenFallidoNoReenviaElCorreoAlProveedor() {
+        ReservaDetalleDTO reserva = reserva();
+        String proveedor = "proveedor" + reserva.getId() + "@proveedor.com";
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bandeja.registrar(TipoNotificacion.CONFIRMACION_RESERVA, reserva, proveedor);
+            resumenAdministrador.registrar(TipoNotificacion.CONFIRMACION_RESERVA, reserva);
+        });
+        Mockito.when(emailService.enviarResumenAdministrador(Mockito.any(), Mockito.any()))
+                .thenReturn(CompletableFuture.failedFuture(new MailSendException("SMTP caído")));
+
+        despachador.despachar();
+        assertThatThrownBy(() -> resumenAdministrador.enviarResumen()).hasRootCauseInstanceOf(MailSendException.class);
+        despachador.despachar();
+
+        List<NotificacionPendiente> alProveedor = notificacionRepository.findAll().stream()
+                .filter(notificacion -> reserva.getId().equals(notificacion.getReservaId()))
+                .toList();
+        assertThat(alProveedor).singleElement().satisfies(notificacion -> {
+            assertThat(notificacion.getEstado()).isEqualTo(EstadoNotificacion.ENVIADA);
+            assertThat(enviadas).containsOnlyOnce(notificacion.getId());
+        });
+        assertThat(eventoRepository.findAll()).filteredOn(evento -> reserva.getId().equals(evento.getReservaId()))
+                .singleElement().satisfies(evento -> assertThat(evento.getEnviado()).isFalse());
+    }
+
+    private NotificacionPendiente crear(EstadoNotificacion estado, int intentos, LocalDateTime reclamadaHasta) {
+        ReservaDetalleDTO reserva = reserva();
+        NotificacionPendiente notificacion = new NotificacionPendiente();
+        notificacion.setTipo(TipoNotificacion.CONFIRMACION_RESERVA);
+        notificacion.setReservaId(reserva.getId());
+        notificacion.setDestinatario("proveedor" + reserva.getId() + "@proveedor.com");
+        notificacion.setClaveDeduplicacion("prueba:" + reserva.getId());
+        notificacion.setDatos(serializar(reserva));
+        notificacion.setEstado(estado);
+        notificacion.setIntentos(intentos);
+        notificacion.setProximoIntento(PASADO);
+        notificacion.setReclamadaHasta(reclamadaHasta);
+        return notificacionRepository.save(notificacion);
+    }
+
+    private String serializar(ReservaDetalleDTO reserva) {
+        try {
+            return objectMapper.writeValueAsString(reserva);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ReservaDetalleDTO reserva() {
+        ReservaDetalleDTO reserva = new ReservaDetalleDTO();
+        reserva.setId(RESERVAS.incrementAndGet());
+        reserva.setProveedorNombre("Proveedor Notificaciones");
+        reserva.setAreaNombre("Secos");
+        reserva.setAndenNumero(1);
+        reserva.setFecha(LocalDate.now().plusDays(1));
+        reserva.setHoraInicio(LocalTime.of(9, 0));
+        reserva.setHoraFin(LocalTime.of(10, 0));
+        return reserva;
+    }
+}
@@ -0,0 +1,116 @@
+package com.logistica.agendamiento.notificacion;
+
+import com.logistica.agendamiento.entity.NotificacionPendiente;
+import com.logistica.agendamiento.entity.enums.EstadoNotificacion;
+import com.logistica.agendamiento.entity.enums.TipoNotificacion;
+import com.logistica.agendamiento.repository.NotificacionPendienteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// El reclamo de lotes depende de FOR UPDATE SKIP LOCKED, que H2 no respeta (espera el LOCK_TIMEOUT),
+// así que se prueba contra un MySQL en contenedor; se omite si no hay Docker disponible
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class ReclamoNotificacionesMySqlTest {
+
+    private static final AtomicLong RESERVAS = new AtomicLong(870_000);
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.36");
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registro) {
+        registro.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registro.add("spring.datasource.username", MYSQL::getUsername);
+        registro.add("spring.datasource.password", MYSQL::getPassword);
+        registro.add("spring.datasource.driver-class-name", MYSQL::getDriverClassName);
+        registro.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.MySQLDialect");
+    }
+
+    @Autowired
+    private NotificacionPendienteRepository notificacionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Mientras un nodo tiene bloqueadas sus filas, otro reclama las demás sin esperar
+    @Test
+    void dosReclamosSimultaneosNoTomanLasMismasFilas() throws Exception {
+        LocalDateTime ahora = LocalDateTime.of(2000, 1, 1, 8, 0);
+        List<Long> ids = Stream.generate(() -> crear(ahora)).limit(3).toList();
+        CountDownLatch reclamadas = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        ExecutorService otroNodo = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<Long>> primero = otroNodo.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+                List<Long> lote = ids(notificacionRepository.findParaDespachar(ahora, PageRequest.of(0, 2)));
+                reclamadas.countDown();
+                try {
+                    liberar.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return lote;
+            }));
+            assertThat(reclamadas.await(30, TimeUnit.SECONDS)).isTrue();
+
+            // Con SKIP LOCKED el segundo reclamo vuelve enseguida con la fila libre, sin esperar al primero
+            long inicio = System.nanoTime();
+            List<Long> segundo = new TransactionTemplate(transactionManager).execute(status ->
+                    ids(notificacionRepository.findParaDespachar(ahora, PageRequest.of(0, 10))));
+            long esperaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            liberar.countDown();
+
+            assertThat(esperaMs).isLessThan(5000);
+            assertThat(primero.get(30, TimeUnit.SECONDS)).hasSize(2);
+            assertThat(segundo).hasSize(1).doesNotContainAnyElementsOf(primero.get());
+            assertThat(ids).containsExactlyInAnyOrderElementsOf(
+                    Stream.concat(primero.get().stream(), segundo.stream()).toList());
+        } finally {
+            liberar.countDown();
+            otroNodo.shutdownNow();
+        }
+    }
+
+    private Long crear(LocalDateTime proximoIntento) {
+        long reservaId = RESERVAS.incrementAndGet();
+        NotificacionPendiente notificacion = new NotificacionPendiente();
+        notificacion.setTipo(TipoNotificacion.CONFIRMACION_RESERVA);
+        notificacion.setReservaId(reservaId);
+        notificacion.setDestinatario("proveedor" + reservaId + "@proveedor.com");
+        notificacion.setClaveDeduplicacion("prueba:" + reservaId);
+        notificacion.setDatos("{}");
+        notificacion.setEstado(EstadoNotificacion.PENDIENTE);
+        notificacion.setIntentos(0);
+        notificacion.setProximoIntento(proximoIntento);
+        return notificacionRepository.save(notificacion).getId();
+    }
+
+    private static List<Long> ids(List<NotificacionPendiente> notificaciones) {
+        return notificaciones.stream().map(NotificacionPendiente::getId).toList();
+    }
+}
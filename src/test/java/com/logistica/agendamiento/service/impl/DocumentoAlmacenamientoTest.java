@@ -0,0 +1,255 @@
+package com.logistica.agendamiento.service.impl;
+
+import com.logistica.agendamiento.almacenamiento.BarridoArchivosHuerfanos;
+import com.logistica.agendamiento.config.AsyncConfig;
+import com.logistica.agendamiento.config.FileStorageProperties;
+import com.logistica.agendamiento.dto.DocumentoDTO;
+import com.logistica.agendamiento.dto.ReservaDTO;
+import com.logistica.agendamiento.entity.Anden;
+import com.logistica.agendamiento.entity.Area;
+import com.logistica.agendamiento.entity.ArchivoAlmacenado;
+import com.logistica.agendamiento.entity.Documento;
+import com.logistica.agendamiento.entity.Proveedor;
+import com.logistica.agendamiento.entity.TipoServicio;
+import com.logistica.agendamiento.repository.AndenRepository;
+import com.logistica.agendamiento.repository.ArchivoAlmacenadoRepository;
+import com.logistica.agendamiento.repository.AreaRepository;
+import com.logistica.agendamiento.repository.DocumentoRepository;
+import com.logistica.agendamiento.repository.ProveedorRepository;
+import com.logistica.agendamiento.repository.ReservaRepository;
+import com.logistica.agendamiento.repository.TipoServicioRepository;
+import com.logistica.agendamiento.service.DocumentoService;
+import com.logistica.agendamiento.service.FileStorageService;
+import com.logistica.agendamiento.service.ReservaService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DocumentoAlmacenamientoTest {
+
+    private static final byte[] FACTURA = "%PDF-1.4 factura de prueba 001-001-000000123".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private DocumentoService documentoService;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private ArchivoAlmacenadoRepository archivoRepository;
+
+    @Autowired
+    private AreaRepository areaRepository;
+
+    @Autowired
+    private AndenRepository andenRepository;
+
+    @Autowired
+    private TipoServicioRepository tipoServicioRepository;
+
+    @Autowired
+    private ProveedorRepository proveedorRepository;
+
+    @Autowired
+    private FileStorageProperties fileStorageProperties;
+
+    @Autowired
+    @Qualifier(AsyncConfig.ALMACENAMIENTO_EXECUTOR)
+    private ThreadPoolTaskExecutor almacenamientoExecutor;
+
+    @Autowired
+    private DocumentoRepository documentoRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private BarridoArchivosHuerfanos barridoArchivosHuerfanos;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long primeraReservaId;
+    private Long segundaReservaId;
+
+    @BeforeAll
+    void preparar() {
+        Area area = areaRepository.findByNombre("Secos").orElseThrow();
+        TipoServicio camion = tipoServicioRepository.findByNombre("Camión").orElseThrow();
+        Proveedor proveedor = crearProveedor();
+        Anden anden = crearAnden(area, 921);
+        LocalDate fecha = LocalDate.now().plusDays(3);
+
+        primeraReservaId = reservaService.crearReserva(
+                nuevaReserva(proveedor, area, anden, camion, fecha, LocalTime.of(8, 0))).getId();
+        segundaReservaId = reservaService.crearReserva(
+                nuevaReserva(proveedor, area, anden, camion, fecha, LocalTime.of(10, 0))).getId();
+    }
+
+    @Test
+    void elMismoContenidoSeGuardaUnaSolaVez() throws Exception {
+        DocumentoDTO multipart = documentoService.guardarDocumento(primeraReservaId,
+                new MockMultipartFile("archivo", "factura.pdf", "application/pdf", FACTURA), "Factura");
+        DocumentoDTO directo = documentoService.guardarDocumento(segundaReservaId,
+                new ByteArrayInputStream(FACTURA), "factura-copia.pdf", "application/pdf", null);
+
+        assertThat(directo.getRuta()).isEqualTo(multipart.getRuta());
+        assertThat(directo.getTamano()).isEqualTo(FACTURA.length);
+        ArchivoAlmacenado archivo = archivoRepository.findByHash(hashDe(multipart.getRuta())).orElseThrow();
+        assertThat(archivo.getReferencias()).isEqualTo(2);
+
+        Path blob = Paths.get(fileStorageProperties.getUploadDir()).resolve(multipart.getRuta());
+        assertThat(Files.readAllBytes(blob)).isEqualTo(FACTURA);
+
+        // El archivo se conserva mientras quede algún documento que lo use
+        documentoService.eliminarDocumento(multipart.getId());
+        assertThat(archivoRepository.findByHash(archivo.getHash()).orElseThrow().getReferencias()).isEqualTo(1);
+        assertThat(blob).exists();
+
+        // El archivo se borra después del commit, en segundo plano
+        documentoService.eliminarDocumento(directo.getId());
+        assertThat(archivoRepository.findByHash(archivo.getHash())).isEmpty();
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(blob).doesNotExist());
+    }
+
+    @Test
+    void siLaTransaccionSeRevierteElArchivoSeConserva() throws Exception {
+        byte[] contenido = "%PDF-1.4 orden de compra 4500012345".getBytes(StandardCharsets.UTF_8);
+        DocumentoDTO documento = documentoService.guardarDocumento(primeraReservaId,
+                new ByteArrayInputStream(contenido), "orden.pdf", "application/pdf", null);
+        Path blob = Paths.get(fileStorageProperties.getUploadDir()).resolve(documento.getRuta());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            documentoService.eliminarDocumento(documento.getId());
+            status.setRollbackOnly();
+        });
+
+        assertThat(documentoRepository.findById(documento.getId())).isPresent();
+        assertThat(archivoRepository.findByHash(hashDe(documento.getRuta())).orElseThrow().getReferencias()).isEqualTo(1);
+        esperarEliminacionesPendientes();
+        assertThat(blob).exists();
+    }
+
+    @Test
+    void losDocumentosAnterioresSeMigranAlAlmacenamientoPorHash() throws Exception {
+        byte[] contenido = "%PDF-1.4 guía de remisión anterior".getBytes(StandardCharsets.UTF_8);
+        String rutaAnterior = segundaReservaId + "/" + UUID.randomUUID() + ".pdf";
+        Path anterior = Paths.get(fileStorageProperties.getUploadDir()).resolve(rutaAnterior);
+        Files.createDirectories(anterior.getParent());
+        Files.write(anterior, contenido);
+
+        Documento legado = new Documento();
+        legado.setReserva(reservaRepository.findById(segundaReservaId).orElseThrow());
+        legado.setNombre("guia.pdf");
+        legado.setRuta(rutaAnterior);
+        legado.setTipo("application/pdf");
+        legado.setTamano((long) contenido.length);
+        Long id = documentoRepository.save(legado).getId();
+
+        assertThat(documentoService.migrarArchivo(id)).isTrue();
+        assertThat(documentoService.migrarArchivo(id)).isFalse();
+
+        DocumentoDTO migrado = documentoService.obtenerDocumentoPorId(id);
+        assertThat(migrado.getRuta()).isEqualTo(FileStorageService.rutaContenido(
+                HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(contenido))));
+        assertThat(archivoRepository.findByHash(hashDe(migrado.getRuta())).orElseThrow().getReferencias()).isEqualTo(1);
+        assertThat(Files.readAllBytes(Paths.get(fileStorageProperties.getUploadDir()).resolve(migrado.getRuta())))
+                .isEqualTo(contenido);
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(anterior.getParent()).doesNotExist());
+    }
+
+    @Test
+    void elBarridoEliminaLosArchivosSinRegistroFueraDelPeriodoDeGracia() throws Exception {
+        String hashViejo = "ab" + "0".repeat(61) + "1";
+        String hashReciente = "ab" + "0".repeat(61) + "2";
+        Path raiz = Paths.get(fileStorageProperties.getUploadDir());
+        Path viejo = raiz.resolve(FileStorageService.rutaContenido(hashViejo));
+        Path reciente = raiz.resolve(FileStorageService.rutaContenido(hashReciente));
+        Files.createDirectories(viejo.getParent());
+        Files.write(viejo, FACTURA);
+        Files.write(reciente, FACTURA);
+        Files.setLastModifiedTime(viejo, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+
+        int eliminados = barridoArchivosHuerfanos.barrerFragmento(0xab);
+
+        // Puede incluir restos de ejecuciones anteriores en el mismo directorio
+        assertThat(eliminados).isGreaterThanOrEqualTo(1);
+        assertThat(viejo).doesNotExist();
+        assertThat(reciente).exists();
+    }
+
+    // El ejecutor de borrados tiene un solo hilo: cuando termina esta tarea ya se ejecutó todo lo encolado antes
+    private void esperarEliminacionesPendientes() throws Exception {
+        almacenamientoExecutor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private static String hashDe(String ruta) {
+        return ruta.substring(ruta.lastIndexOf('/') + 1);
+    }
+
+    private Proveedor crearProveedor() {
+        Proveedor nuevo = new Proveedor();
+        nuevo.setNombre("Proveedor Documentos");
+        nuevo.setRuc("0977777777001");
+        nuevo.setDireccion("Dirección de prueba");
+        nuevo.setTelefono("0977777777");
+        nuevo.setEmail("documentos@proveedor.com");
+        return proveedorRepository.save(nuevo);
+    }
+
+    private Anden crearAnden(Area area, int numero) {
+        Anden nuevo = new Anden();
+        nuevo.setArea(area);
+        nuevo.setNumero(numero);
+        return andenRepository.save(nuevo);
+    }
+
+    private static ReservaDTO nuevaReserva(Proveedor proveedor, Area area, Anden anden, TipoServicio tipoServicio,
+                                           LocalDate fecha, LocalTime inicio) {
+        ReservaDTO dto = new ReservaDTO();
+        dto.setProveedorId(proveedor.getId());
+        dto.setAreaId(area.getId());
+        dto.setAndenId(anden.getId());
+        dto.setTipoServicioId(tipoServicio.getId());
+        dto.setFecha(fecha);
+        dto.setHoraInicio(inicio);
+        dto.setHoraFin(inicio.plusMinutes(45));
+        dto.setTransporteTipo("Camión");
+        dto.setTransporteMarca("Hino");
+        dto.setTransporteModelo("300");
+        dto.setTransportePlaca("DOC-1111");
+        dto.setConductorNombres("Luis");
+        dto.setConductorApellidos("Mora");
+        dto.setConductorCedula("0934567890");
+        return dto;
+    }
+}
@@ -0,0 +1,131 @@
+package com.logistica.agendamiento.service.impl;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.logistica.agendamiento.config.CorreoProperties;
+import com.logistica.agendamiento.config.ThymeleafConfig;
+import com.logistica.agendamiento.dto.CorreoReservaDTO;
+import com.logistica.agendamiento.dto.EventoResumenDTO;
+import com.logistica.agendamiento.dto.GrupoResumenDTO;
+import com.logistica.agendamiento.dto.ReservaDetalleDTO;
+import com.logistica.agendamiento.dto.ResumenAdministradorDTO;
+import com.logistica.agendamiento.entity.enums.EstadoReserva;
+import com.logistica.agendamiento.entity.enums.TipoNotificacion;
+import com.logistica.agendamiento.notificacion.PlantillasCorreo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Envío por lotes contra un servidor SMTP local (GreenMail)
+class EmailServiceImplLoteTest {
+
+    private static final int NOTIFICACIONES = 200;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailServiceImpl emailService;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger conexiones;
+
+    @BeforeEach
+    void preparar() {
+        // Cuenta las conexiones SMTP que abre el envío
+        conexiones = new AtomicInteger();
+        JavaMailSenderImpl emailSender = new JavaMailSenderImpl() {
+            @Override
+            protected Transport connectTransport() throws MessagingException {
+                conexiones.incrementAndGet();
+                return super.connectTransport();
+            }
+        };
+        emailSender.setHost("localhost");
+        emailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        meterRegistry = new SimpleMeterRegistry();
+        PlantillasCorreo plantillas = new PlantillasCorreo(new ThymeleafConfig(new CorreoProperties()).templateEngine());
+        emailService = new EmailServiceImpl(emailSender, plantillas, meterRegistry);
+    }
+
+    @Test
+    void enviaElLoteCompletoPorUnaSolaSesion() {
+        List<CorreoReservaDTO> correos = new ArrayList<>();
+        for (long id = 1; id <= NOTIFICACIONES; id++) {
+            correos.add(new CorreoReservaDTO(id, TipoNotificacion.CAMBIO_ESTADO, reserva(id), "proveedor" + id + "@test.com"));
+        }
+
+        Map<Long, Exception> fallos = emailService.enviarLote(correos).join();
+
+        assertThat(fallos).isEmpty();
+        assertThat(greenMail.getReceivedMessages()).hasSize(NOTIFICACIONES);
+        assertThat(conexiones).hasValue(1);
+        assertThat(meterRegistry.timer("correo.lote", "resultado", "ok").count()).isEqualTo(1);
+        assertThat(meterRegistry.summary("correo.lote.mensajes").totalAmount()).isEqualTo(NOTIFICACIONES);
+    }
+
+    @Test
+    void informaSoloLasNotificacionesQueFallan() {
+        // Sin fecha la plantilla no se puede renderizar
+        ReservaDetalleDTO incompleta = reserva(2L);
+        incompleta.setFecha(null);
+
+        List<CorreoReservaDTO> correos = List.of(
+                new CorreoReservaDTO(1L, TipoNotificacion.CONFIRMACION_RESERVA, reserva(1L), "uno@test.com"),
+                new CorreoReservaDTO(2L, TipoNotificacion.CANCELACION_RESERVA, incompleta, "dos@test.com"),
+                new CorreoReservaDTO(3L, TipoNotificacion.CAMBIO_ESTADO, reserva(3L), "tres@test.com"));
+
+        Map<Long, Exception> fallos = emailService.enviarLote(correos).join();
+
+        assertThat(fallos).containsOnlyKeys(2L);
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+    }
+
+    @Test
+    void enviaUnSoloResumenAlAdministrador() throws Exception {
+        GrupoResumenDTO grupo = new GrupoResumenDTO();
+        grupo.setAreaNombre("Secos");
+        grupo.setAndenNumero(1);
+        grupo.getEventos().add(new EventoResumenDTO(TipoNotificacion.CONFIRMACION_RESERVA, 1L, "Proveedor 1",
+                LocalDate.now(), LocalTime.of(10, 0), LocalTime.of(11, 0)));
+        grupo.getEventos().add(new EventoResumenDTO(TipoNotificacion.CANCELACION_RESERVA, 2L, "Proveedor 2",
+                LocalDate.now(), LocalTime.of(12, 0), LocalTime.of(13, 0)));
+        ResumenAdministradorDTO resumen = new ResumenAdministradorDTO(LocalDateTime.now().minusMinutes(15),
+                LocalDateTime.now(), 1, 1, List.of(grupo));
+
+        emailService.enviarResumenAdministrador(resumen, "admin@test.com").join();
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(greenMail.getReceivedMessages()[0].getSubject()).contains("1 nuevas", "1 canceladas");
+    }
+
+    private static ReservaDetalleDTO reserva(long id) {
+        ReservaDetalleDTO reserva = new ReservaDetalleDTO();
+        reserva.setId(id);
+        reserva.setProveedorNombre("Proveedor " + id);
+        reserva.setAreaNombre("Secos");
+        reserva.setAndenNumero(1);
+        reserva.setTipoServicioNombre("Camión");
+        reserva.setFecha(LocalDate.now().plusDays(1));
+        reserva.setHoraInicio(LocalTime.of(10, 0));
+        reserva.setHoraFin(LocalTime.of(11, 0));
+        reserva.setEstado(EstadoReserva.EN_PLANTA);
+        reserva.setTransporteMarca("Hino");
+        reserva.setTransporteModelo("500");
+        reserva.setTransportePlaca("ABC-1234");
+        return reserva;
+    }
+}
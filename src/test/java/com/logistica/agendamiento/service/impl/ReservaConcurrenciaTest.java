@@ -0,0 +1,228 @@
+package com.logistica.agendamiento.service.impl;
+
+import com.logistica.agendamiento.dto.IntervaloReservaDTO;
+import com.logistica.agendamiento.dto.ReservaDTO;
+import com.logistica.agendamiento.entity.Anden;
+import com.logistica.agendamiento.entity.Area;
+import com.logistica.agendamiento.entity.Proveedor;
+import com.logistica.agendamiento.entity.TipoServicio;
+import com.logistica.agendamiento.entity.enums.EstadoReserva;
+import com.logistica.agendamiento.exception.BadRequestException;
+import com.logistica.agendamiento.exception.HorarioNoDisponibleException;
+import com.logistica.agendamiento.repository.AndenRepository;
+import com.logistica.agendamiento.repository.AreaRepository;
+import com.logistica.agendamiento.repository.ProveedorRepository;
+import com.logistica.agendamiento.repository.ReservaRepository;
+import com.logistica.agendamiento.repository.TipoServicioRepository;
+import com.logistica.agendamiento.service.EmailService;
+import com.logistica.agendamiento.service.ReservaService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservaConcurrenciaTest {
+
+    private static final int HILOS = 16;
+    private static final int INTENTOS_POR_HILO = 25;
+    private static final AtomicLong PROVEEDORES = new AtomicLong();
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private AreaRepository areaRepository;
+
+    @Autowired
+    private AndenRepository andenRepository;
+
+    @Autowired
+    private TipoServicioRepository tipoServicioRepository;
+
+    @Autowired
+    private ProveedorRepository proveedorRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Test
+    void reservasConcurrentesNoSeSolapan() throws Exception {
+        Area area = areaRepository.findByNombre("Secos").orElseThrow();
+        TipoServicio camion = tipoServicioRepository.findByNombre("Camión").orElseThrow();
+        Proveedor proveedor = crearProveedor();
+        List<Anden> andenes = List.of(crearAnden(area, 901), crearAnden(area, 902), crearAnden(area, 903));
+        LocalDate fecha = LocalDate.now().plusDays(1);
+        double conflictosPrevios = conflictos();
+        long llamadasPrevias = llamadasCrearReserva();
+
+        AtomicInteger creadas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        AtomicInteger horariosOcupados = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < HILOS; h++) {
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < INTENTOS_POR_HILO; i++) {
+                    Anden anden = andenes.get(random.nextInt(andenes.size()));
+                    LocalTime inicio = LocalTime.of(8, 0).plusMinutes(15L * random.nextInt(16));
+                    LocalTime fin = inicio.plusMinutes(30L + 15L * random.nextInt(3));
+                    try {
+                        reservaService.crearReserva(nuevaReserva(proveedor, area, anden, camion, fecha, inicio, fin));
+                        creadas.incrementAndGet();
+                    } catch (HorarioNoDisponibleException e) {
+                        horariosOcupados.incrementAndGet();
+                        rechazadas.incrementAndGet();
+                    } catch (BadRequestException e) {
+                        rechazadas.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        executor.shutdown();
+
+        assertThat(creadas.get()).isPositive();
+        assertThat(creadas.get() + rechazadas.get()).isEqualTo(HILOS * INTENTOS_POR_HILO);
+        // Cada horario ocupado se cuenta una vez, lo detecte el índice o la fila bloqueada; los demás
+        // rechazos (validaciones) no son conflictos
+        assertThat(conflictos() - conflictosPrevios).isEqualTo(horariosOcupados.get());
+        assertThat(llamadasCrearReserva() - llamadasPrevias).isEqualTo(HILOS * INTENTOS_POR_HILO);
+
+        int guardadas = 0;
+        for (Anden anden : andenes) {
+            List<IntervaloReservaDTO> intervalos = new ArrayList<>(reservaRepository
+                    .findIntervalosActivosPorAndenYFecha(anden.getId(), fecha, EstadoReserva.CANCELADA));
+            intervalos.sort(Comparator.comparing(IntervaloReservaDTO::getHoraInicio));
+
+            // Ordenadas por inicio, basta con comparar cada reserva con la siguiente
+            for (int i = 1; i < intervalos.size(); i++) {
+                assertThat(intervalos.get(i - 1).getHoraFin())
+                        .as("Andén %d: reservas %d y %d se solapan", anden.getNumero(),
+                                intervalos.get(i - 1).getId(), intervalos.get(i).getId())
+                        .isBefore(intervalos.get(i).getHoraInicio());
+            }
+            guardadas += intervalos.size();
+        }
+        assertThat(guardadas).isEqualTo(creadas.get());
+    }
+
+    // Cada cancelación libera solo sus minutos: aunque se confirmen a la vez, ninguna vuelve a marcar
+    // los de otra y todos los horarios quedan disponibles de nuevo
+    @Test
+    void cancelacionesConcurrentesLiberanSusHorarios() throws Exception {
+        Area area = areaRepository.findByNombre("Secos").orElseThrow();
+        TipoServicio camion = tipoServicioRepository.findByNombre("Camión").orElseThrow();
+        Proveedor proveedor = crearProveedor();
+        Anden anden = crearAnden(area, 904);
+        LocalDate fecha = LocalDate.now().plusDays(2);
+        List<ReservaDTO> reservas = new ArrayList<>();
+        for (int hora = 8; hora < 12; hora++) {
+            reservas.add(nuevaReserva(proveedor, area, anden, camion, fecha, LocalTime.of(hora, 0), LocalTime.of(hora, 45)));
+        }
+        List<Long> ids = reservas.stream().map(reserva -> reservaService.crearReserva(reserva).getId()).toList();
+
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(ids.size());
+        List<Future<?>> tareas = new ArrayList<>();
+        for (Long id : ids) {
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                reservaService.cancelarReserva(id);
+                return null;
+            }));
+        }
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        executor.shutdown();
+
+        for (ReservaDTO reserva : reservas) {
+            assertThat(reservaService.crearReserva(reserva).getId()).isNotNull();
+        }
+    }
+
+    private double conflictos() {
+        return meterRegistry.find("reservas.conflictos").counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    // Temporizador de @Timed: una serie por resultado (etiqueta exception)
+    private long llamadasCrearReserva() {
+        return meterRegistry.find("servicio.reservas").tag("method", "crearReserva").timers().stream()
+                .mapToLong(Timer::count).sum();
+    }
+
+    private Proveedor crearProveedor() {
+        Proveedor proveedor = new Proveedor();
+        long numero = PROVEEDORES.incrementAndGet();
+        proveedor.setNombre("Proveedor Concurrencia " + numero);
+        proveedor.setRuc(String.format("0999%09d", numero));
+        proveedor.setDireccion("Dirección de prueba");
+        proveedor.setTelefono("0999999999");
+        proveedor.setEmail("concurrencia" + numero + "@proveedor.com");
+        return proveedorRepository.save(proveedor);
+    }
+
+    private Anden crearAnden(Area area, int numero) {
+        Anden anden = new Anden();
+        anden.setArea(area);
+        anden.setNumero(numero);
+        return andenRepository.save(anden);
+    }
+
+    private static ReservaDTO nuevaReserva(Proveedor proveedor, Area area, Anden anden, TipoServicio tipoServicio,
+                                           LocalDate fecha, LocalTime inicio, LocalTime fin) {
+        ReservaDTO dto = new ReservaDTO();
+        dto.setProveedorId(proveedor.getId());
+        dto.setAreaId(area.getId());
+        dto.setAndenId(anden.getId());
+        dto.setTipoServicioId(tipoServicio.getId());
+        dto.setFecha(fecha);
+        dto.setHoraInicio(inicio);
+        dto.setHoraFin(fin);
+        dto.setTransporteTipo("Camión");
+        dto.setTransporteMarca("Hino");
+        dto.setTransporteModelo("500");
+        dto.setTransportePlaca("ABC-1234");
+        dto.setConductorNombres("Juan");
+        dto.setConductorApellidos("Pérez");
+        dto.setConductorCedula("0912345678");
+        return dto;
+    }
+}
@@ -0,0 +1,183 @@
+package com.logistica.agendamiento.service.impl;
+
+import com.logistica.agendamiento.dto.FiltroReservaDTO;
+import com.logistica.agendamiento.dto.PaginaReservasDTO;
+import com.logistica.agendamiento.dto.ReservaDTO;
+import com.logistica.agendamiento.entity.Anden;
+import com.logistica.agendamiento.entity.Area;
+import com.logistica.agendamiento.entity.Proveedor;
+import com.logistica.agendamiento.entity.TipoServicio;
+import com.logistica.agendamiento.entity.enums.EstadoReserva;
+import com.logistica.agendamiento.repository.AndenRepository;
+import com.logistica.agendamiento.repository.AreaRepository;
+import com.logistica.agendamiento.repository.ProveedorRepository;
+import com.logistica.agendamiento.repository.TipoServicioRepository;
+import com.logistica.agendamiento.service.EmailService;
+import com.logistica.agendamiento.service.ReservaService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReservaListadoConsultasTest {
+
+    private static final int RESERVAS = 5;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private AreaRepository areaRepository;
+
+    @Autowired
+    private AndenRepository andenRepository;
+
+    @Autowired
+    private TipoServicioRepository tipoServicioRepository;
+
+    @Autowired
+    private ProveedorRepository proveedorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private EmailService emailService;
+
+    private Statistics estadisticas;
+    private Proveedor proveedor;
+    private Area area;
+    private Anden anden;
+    private LocalDate fecha;
+
+    @BeforeAll
+    void preparar() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        area = areaRepository.findByNombre("Secos").orElseThrow();
+        TipoServicio camion = tipoServicioRepository.findByNombre("Camión").orElseThrow();
+        proveedor = crearProveedor();
+        anden = crearAnden(area, 911);
+        fecha = LocalDate.now().plusDays(2);
+
+        for (int i = 0; i < RESERVAS; i++) {
+            LocalTime inicio = LocalTime.of(8, 0).plusHours(i);
+            reservaService.crearReserva(nuevaReserva(camion, inicio, inicio.plusMinutes(30)));
+        }
+    }
+
+    @Test
+    void cadaListadoEjecutaUnaSolaSentencia() {
+        assertThat(contarSentencias(() -> reservaService.buscarReservas(new FiltroReservaDTO(), null, 50))).isEqualTo(1);
+        assertThat(contarSentencias(() -> reservaService.obtenerReservasPorFecha(fecha, null, 50))).isEqualTo(1);
+        assertThat(contarSentencias(() -> reservaService.obtenerReservasPorProveedorId(proveedor.getId(), null, 50)))
+                .isEqualTo(1);
+        assertThat(contarSentencias(() -> reservaService.obtenerReservasPorAreaId(area.getId(), null, 50))).isEqualTo(1);
+        assertThat(contarSentencias(() -> reservaService.obtenerReservasPorAndenId(anden.getId(), null, 50))).isEqualTo(1);
+        assertThat(contarSentencias(() -> reservaService.obtenerReservasPorEstado(EstadoReserva.PENDIENTE, null, 50)))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void elListadoIncluyeLosDatosRelacionados() {
+        List<ReservaDTO> reservas = reservaService.obtenerReservasPorAndenId(anden.getId(), null, 50).getContenido();
+
+        assertThat(reservas).hasSize(RESERVAS);
+        assertThat(reservas).allSatisfy(reserva -> {
+            assertThat(reserva.getProveedorNombre()).isEqualTo(proveedor.getNombre());
+            assertThat(reserva.getAreaNombre()).isEqualTo("Secos");
+            assertThat(reserva.getAndenNumero()).isEqualTo(911);
+            assertThat(reserva.getTipoServicioNombre()).isEqualTo("Camión");
+            assertThat(reserva.getTransportePlaca()).isEqualTo("XYZ-9876");
+        });
+    }
+
+    @Test
+    void laBusquedaPaginadaRecorreTodasLasReservasSinRepetir() {
+        FiltroReservaDTO filtro = new FiltroReservaDTO();
+        filtro.setAndenId(anden.getId());
+
+        List<Long> vistos = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaReservasDTO pagina = reservaService.buscarReservas(filtro, cursor, 2);
+            assertThat(pagina.getContenido()).hasSizeLessThanOrEqualTo(2);
+            pagina.getContenido().forEach(reserva -> vistos.add(reserva.getId()));
+            cursor = pagina.getSiguienteCursor();
+        } while (cursor != null);
+
+        assertThat(vistos).hasSize(RESERVAS).doesNotHaveDuplicates().isSorted();
+    }
+
+    @Test
+    void losListadosPorEntidadTambienSePaginan() {
+        PaginaReservasDTO primera = reservaService.obtenerReservasPorAndenId(anden.getId(), null, 2);
+        assertThat(primera.getContenido()).hasSize(2);
+        assertThat(primera.getSiguienteCursor()).isNotNull();
+
+        PaginaReservasDTO segunda = reservaService.obtenerReservasPorAndenId(anden.getId(),
+                primera.getSiguienteCursor(), 50);
+        assertThat(segunda.getContenido()).hasSize(RESERVAS - 2)
+                .doesNotContainAnyElementsOf(primera.getContenido());
+        assertThat(segunda.getSiguienteCursor()).isNull();
+    }
+
+    private long contarSentencias(Supplier<PaginaReservasDTO> listado) {
+        estadisticas.clear();
+        assertThat(listado.get().getContenido()).isNotEmpty();
+        return estadisticas.getPrepareStatementCount();
+    }
+
+    private Proveedor crearProveedor() {
+        Proveedor nuevo = new Proveedor();
+        nuevo.setNombre("Proveedor Listados");
+        nuevo.setRuc("0988888888001");
+        nuevo.setDireccion("Dirección de prueba");
+        nuevo.setTelefono("0988888888");
+        nuevo.setEmail("listados@proveedor.com");
+        return proveedorRepository.save(nuevo);
+    }
+
+    private Anden crearAnden(Area area, int numero) {
+        Anden nuevo = new Anden();
+        nuevo.setArea(area);
+        nuevo.setNumero(numero);
+        return andenRepository.save(nuevo);
+    }
+
+    private ReservaDTO nuevaReserva(TipoServicio tipoServicio, LocalTime inicio, LocalTime fin) {
+        ReservaDTO dto = new ReservaDTO();
+        dto.setProveedorId(proveedor.getId());
+        dto.setAreaId(area.getId());
+        dto.setAndenId(anden.getId());
+        dto.setTipoServicioId(tipoServicio.getId());
+        dto.setFecha(fecha);
+        dto.setHoraInicio(inicio);
+        dto.setHoraFin(fin);
+        dto.setTransporteTipo("Camión");
+        dto.setTransporteMarca("Isuzu");
+        dto.setTransporteModelo("NPR");
+        dto.setTransportePlaca("XYZ-9876");
+        dto.setConductorNombres("Ana");
+        dto.setConductorApellidos("Torres");
+        dto.setConductorCedula("0923456789");
+        return dto;
+    }
+}
@@ -0,0 +1,120 @@
+package com.logistica.agendamiento.service.impl;
+
+import com.logistica.agendamiento.benchmark.EjecutarBenchmarks;
+import com.logistica.agendamiento.dto.ReservaDetalleDTO;
+import com.logistica.agendamiento.entity.*;
+import com.logistica.agendamiento.entity.enums.EstadoReserva;
+import com.logistica.agendamiento.exception.BadRequestException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Partes de ReservaServiceImpl que no dependen de la base de datos: conversión de la entidad al detalle
+// que devuelven las operaciones de escritura y validación de las transiciones de estado. Está en el paquete
+// del servicio porque ambos métodos son internos a él.
+// mvn -Pbenchmark test-compile exec:java -Dbenchmark.incluir=ReservaServiceImplBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservaServiceImplBenchmark {
+
+    private Reserva reserva;
+
+    // En campos y no como constantes, para que el compilador no pueda resolver la validación de antemano
+    private EstadoReserva pendiente = EstadoReserva.PENDIENTE;
+    private EstadoReserva enPlanta = EstadoReserva.EN_PLANTA;
+    private EstadoReserva completada = EstadoReserva.COMPLETADA;
+
+    @Setup
+    public void preparar() {
+        Proveedor proveedor = new Proveedor();
+        proveedor.setId(7L);
+        proveedor.setNombre("Distribuidora del Pacífico");
+
+        Area area = new Area();
+        area.setId(1L);
+        area.setNombre("Secos");
+
+        Anden anden = new Anden();
+        anden.setId(4L);
+        anden.setArea(area);
+        anden.setNumero(4);
+
+        TipoServicio tipoServicio = new TipoServicio();
+        tipoServicio.setId(1L);
+        tipoServicio.setNombre("Camión");
+
+        Transporte transporte = new Transporte();
+        transporte.setId(20L);
+        transporte.setTipo("Camión");
+        transporte.setMarca("Hino");
+        transporte.setModelo("500");
+        transporte.setPlaca("ABC-1234");
+        transporte.setCapacidad("8 t");
+        transporte.setTransportistas(List.of(
+                transportista(transporte, "Juan", "Pérez", "0912345678", true),
+                transportista(transporte, "Luis", "Mora", "0923456789", false),
+                transportista(transporte, "Ana", "Vera", "0934567890", false)));
+
+        reserva = new Reserva();
+        reserva.setId(12345L);
+        reserva.setProveedor(proveedor);
+        reserva.setArea(area);
+        reserva.setAnden(anden);
+        reserva.setTipoServicio(tipoServicio);
+        reserva.setTransporte(transporte);
+        reserva.setFecha(LocalDate.now().plusDays(1));
+        reserva.setHoraInicio(LocalTime.of(10, 0));
+        reserva.setHoraFin(LocalTime.of(11, 0));
+        reserva.setEstado(EstadoReserva.PENDIENTE);
+        reserva.setDescripcion("Entrega semanal");
+        reserva.setCreatedAt(LocalDateTime.now());
+        reserva.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public ReservaDetalleDTO convertirADetalleDTO() {
+        return ReservaServiceImpl.convertirADetalleDTO(reserva);
+    }
+
+    @Benchmark
+    public EstadoReserva validarTransicionValida() {
+        ReservaServiceImpl.validarTransicionEstado(pendiente, enPlanta);
+        return enPlanta;
+    }
+
+    // Incluye el coste de crear la excepción (con su traza), que es lo que paga una petición rechazada
+    @Benchmark
+    public BadRequestException validarTransicionInvalida() {
+        try {
+            ReservaServiceImpl.validarTransicionEstado(completada, pendiente);
+            return null;
+        } catch (BadRequestException e) {
+            return e;
+        }
+    }
+
+    private static Transportista transportista(Transporte transporte, String nombres, String apellidos,
+                                               String cedula, boolean esConductor) {
+        Transportista transportista = new Transportista();
+        transportista.setTransporte(transporte);
+        transportista.setNombres(nombres);
+        transportista.setApellidos(apellidos);
+        transportista.setCedula(cedula);
+        transportista.setEsConductor(esConductor);
+        return transportista;
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        EjecutarBenchmarks.ejecutar(ReservaServiceImplBenchmark.class.getSimpleName());
+    }
+}
@@ -0,0 +1,145 @@
+package com.logistica.agendamiento.service.impl;
+
+import com.logistica.agendamiento.config.FileStorageProperties;
+import com.logistica.agendamiento.config.S3StorageConfig;
+import com.logistica.agendamiento.dto.ContenidoAlmacenadoDTO;
+import com.logistica.agendamiento.dto.EntradaAlmacenamientoDTO;
+import com.logistica.agendamiento.exception.BadRequestException;
+import com.logistica.agendamiento.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.Channels;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Contra un MinIO en contenedor; se omite si no hay Docker disponible
+@Testcontainers(disabledWithoutDocker = true)
+class S3FileStorageServiceImplTest {
+
+    private static final String BUCKET = "documentos";
+
+    @Container
+    private static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2024-01-16T16-07-38Z");
+
+    private static S3Client s3;
+    private static S3AsyncClient s3Async;
+    private static S3Presigner presigner;
+    private static S3FileStorageServiceImpl almacenamiento;
+
+    @BeforeAll
+    static void iniciar() {
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.setStorage("s3");
+        properties.getS3().setBucket(BUCKET);
+        properties.getS3().setEndpoint(MINIO.getS3URL());
+        properties.getS3().setAccessKey(MINIO.getUserName());
+        properties.getS3().setSecretKey(MINIO.getPassword());
+        properties.getS3().setPathStyle(true);
+        properties.getS3().setTamanoParte(DataSize.ofMegabytes(5));
+        properties.getS3().setPartesEnParalelo(2);
+
+        S3StorageConfig config = new S3StorageConfig();
+        s3 = config.s3Client(properties);
+        s3Async = config.s3AsyncClient(properties);
+        presigner = config.s3Presigner(properties);
+        s3.createBucket(peticion -> peticion.bucket(BUCKET));
+        almacenamiento = new S3FileStorageServiceImpl(s3, s3Async, presigner, properties);
+    }
+
+    @AfterAll
+    static void cerrar() {
+        presigner.close();
+        s3Async.close();
+        s3.close();
+    }
+
+    @Test
+    void archivoPequenoSeSubeEnUnaPeticionYSeGuardaPorHash() throws Exception {
+        byte[] datos = "guía de remisión 001-002-000004567".getBytes();
+
+        ContenidoAlmacenadoDTO contenido = almacenamiento.storeTemporary(new ByteArrayInputStream(datos), 1024);
+        almacenamiento.promote(contenido);
+        almacenamiento.discard(contenido);
+
+        assertThat(contenido.getHash()).isEqualTo(sha256(datos));
+        assertThat(contenido.getRuta()).isEqualTo("sha256/" + contenido.getHash().substring(0, 2) + "/"
+                + contenido.getHash().substring(2, 4) + "/" + contenido.getHash());
+        assertThat(almacenamiento.size(contenido.getRuta())).isEqualTo(datos.length);
+        assertThat(almacenamiento.list("sha256/").map(EntradaAlmacenamientoDTO::getRuta)).contains(contenido.getRuta());
+        assertThatThrownBy(() -> almacenamiento.size(contenido.getRutaTemporal()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void archivoGrandeSeSubePorPartesYAdmiteLecturaPorRangos() throws Exception {
+        // Tres partes: 5 MB + 5 MB + 1 MB
+        byte[] datos = new byte[11 * 1024 * 1024];
+        new Random(17).nextBytes(datos);
+
+        ContenidoAlmacenadoDTO contenido = almacenamiento.storeTemporary(new ByteArrayInputStream(datos), datos.length);
+        almacenamiento.promote(contenido);
+        almacenamiento.discard(contenido);
+
+        assertThat(contenido.getHash()).isEqualTo(sha256(datos));
+        assertThat(contenido.getTamano()).isEqualTo(datos.length);
+        assertThat(almacenamiento.size(contenido.getRuta())).isEqualTo(datos.length);
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        long copiados = almacenamiento.transferTo(contenido.getRuta(), 5 * 1024 * 1024 - 10, 20,
+                Channels.newChannel(salida));
+        assertThat(copiados).isEqualTo(20);
+        byte[] esperado = new byte[20];
+        System.arraycopy(datos, 5 * 1024 * 1024 - 10, esperado, 0, 20);
+        assertThat(salida.toByteArray()).isEqualTo(esperado);
+    }
+
+    @Test
+    void archivoQueSuperaElMaximoSeRechazaSinDejarPartes() {
+        byte[] datos = new byte[6 * 1024 * 1024];
+
+        assertThatThrownBy(() -> almacenamiento.storeTemporary(new ByteArrayInputStream(datos), 5 * 1024 * 1024 + 1))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(s3.listMultipartUploads(peticion -> peticion.bucket(BUCKET)).uploads()).isEmpty();
+    }
+
+    @Test
+    void urlFirmadaPermiteDescargarSinPasarPorLaAplicacion() throws Exception {
+        byte[] datos = "%PDF-1.4 factura firmada".getBytes();
+        ContenidoAlmacenadoDTO contenido = almacenamiento.storeTemporary(new ByteArrayInputStream(datos), 1024);
+        almacenamiento.promote(contenido);
+        almacenamiento.discard(contenido);
+
+        URI url = almacenamiento.presignedDownload(contenido.getRuta(), "factura 123.pdf", "application/pdf")
+                .orElseThrow();
+        HttpResponse<byte[]> respuesta = HttpClient.newHttpClient()
+                .send(HttpRequest.newBuilder(url).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(respuesta.statusCode()).isEqualTo(200);
+        assertThat(respuesta.body()).isEqualTo(datos);
+        assertThat(respuesta.headers().firstValue("Content-Type")).hasValue("application/pdf");
+        assertThat(respuesta.headers().firstValue("Content-Disposition").orElseThrow()).contains("attachment");
+    }
+
+    private static String sha256(byte[] datos) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(datos));
+    }
+}